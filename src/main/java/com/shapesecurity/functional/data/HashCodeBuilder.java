@@ -31,7 +31,10 @@ public final class HashCodeBuilder {
   }
 
   public static int put(int hash, @NotNull Object os) {
-    int p = os.hashCode();
+    return put(hash, os.hashCode());
+  }
+
+  public static int put(int hash, int p) {
     hash = hash * MULT ^ (p & 255);
     p >>>= 8;
     hash = hash * MULT ^ (p & 255);
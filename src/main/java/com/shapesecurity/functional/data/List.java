@@ -40,8 +40,8 @@ import java.util.NoSuchElementException;
  */
 public abstract class List<A> implements Iterable<A> {
   private static final List<Object> NIL = new Nil<>();
-  @NotNull
-  private final Thunk<Integer> hashCodeThunk = Thunk.from(this::calcHashCode);
+  // Computed on first use; 0 until then.
+  private int hashCode;
 
   /**
    * The length of the list.
@@ -132,7 +132,11 @@ public abstract class List<A> implements Iterable<A> {
 
   @Override
   public final int hashCode() {
-    return this.hashCodeThunk.get();
+    int hashCode = this.hashCode;
+    if (hashCode == 0) {
+      hashCode = this.hashCode = this.calcHashCode();
+    }
+    return hashCode;
   }
 
   @Override
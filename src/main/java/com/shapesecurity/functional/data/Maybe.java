@@ -122,7 +122,7 @@ public abstract class Maybe<A> {
   private static class Just<A> extends Maybe<A> {
     @NotNull
     private final A value;
-    private Thunk<Integer> hashCodeThunk = Thunk.from(this::calcHashCode);
+    private int hashCode;
 
     private Just(@NotNull A value) {
       super();
@@ -146,7 +146,11 @@ public abstract class Maybe<A> {
 
     @Override
     public int hashCode() {
-      return this.hashCodeThunk.get();
+      int hashCode = this.hashCode;
+      if (hashCode == 0) {
+        hashCode = this.hashCode = this.calcHashCode();
+      }
+      return hashCode;
     }
 
     @NotNull
@@ -16,6 +16,7 @@
 
 package com.shapesecurity.shift.ast;
 
+import com.shapesecurity.functional.data.HashCodeBuilder;
 import com.shapesecurity.functional.data.List;
 import com.shapesecurity.shift.ast.types.Type;
 
@@ -39,8 +40,9 @@ public class Block extends Node {
   }
 
   @Override
-  public boolean equals(Object obj) {
-    return obj == this || obj instanceof Block && ((Block) obj).statements.equals(this.statements);
+  protected boolean equalFields(@NotNull Node other, @NotNull StructuralEquality equality) {
+    return other instanceof Block &&
+        equality.equal(this.statements, ((Block) other).statements);
   }
 
   @NotNull
@@ -52,4 +54,11 @@ public class Block extends Node {
   public Block setStatements(@NotNull List<Statement> statements) {
     return new Block(statements);
   }
+
+  @Override
+  protected int calcHashCode() {
+    int start = HashCodeBuilder.put(0, "Block");
+    start = HashCodeBuilder.put(start, this.statements);
+    return start;
+  }
 }
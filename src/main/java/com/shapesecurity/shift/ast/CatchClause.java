@@ -16,6 +16,7 @@
 
 package com.shapesecurity.shift.ast;
 
+import com.shapesecurity.functional.data.HashCodeBuilder;
 import com.shapesecurity.shift.ast.types.Type;
 
 import org.jetbrains.annotations.NotNull;
@@ -39,9 +40,18 @@ public class CatchClause extends Node {
   }
 
   @Override
-  public boolean equals(Object object) {
-    return object instanceof CatchClause && this.binding.equals(((CatchClause) object).binding) &&
-           this.body.equals(((CatchClause) object).body);
+  protected boolean equalFields(@NotNull Node other, @NotNull StructuralEquality equality) {
+    return other instanceof CatchClause &&
+        equality.equal(this.binding, ((CatchClause) other).binding) &&
+        equality.equal(this.body, ((CatchClause) other).body);
+  }
+
+  @Override
+  protected int calcHashCode() {
+    int start = HashCodeBuilder.put(0, "CatchClause");
+    start = HashCodeBuilder.put(start, this.binding);
+    start = HashCodeBuilder.put(start, this.body);
+    return start;
   }
 
   @NotNull
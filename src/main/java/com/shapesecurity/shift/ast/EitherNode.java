@@ -18,6 +18,7 @@
 package com.shapesecurity.shift.ast;
 
 import com.shapesecurity.functional.data.Either;
+import com.shapesecurity.functional.data.HashCodeBuilder;
 import com.shapesecurity.shift.ast.types.EitherType;
 import com.shapesecurity.shift.ast.types.GenType;
 import com.shapesecurity.shift.ast.types.Type;
@@ -51,4 +52,18 @@ public class EitherNode<A, B> extends Node {
   public GenType genType() {
     return this.genType;
   }
+
+  // Compared by identity.
+  @Override
+  protected boolean equalFields(@NotNull Node other, @NotNull StructuralEquality equality) {
+    return false;
+  }
+
+  @Override
+  protected int calcHashCode() {
+    int start = HashCodeBuilder.put(0, "EitherNode");
+    start = HashCodeBuilder.put(start, this.either);
+    start = HashCodeBuilder.put(start, this.genType);
+    return start;
+  }
 }
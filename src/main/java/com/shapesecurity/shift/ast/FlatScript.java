@@ -0,0 +1,995 @@
+/*
+ * Copyright 2014 Shape Security, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.shapesecurity.shift.ast;
+
+import com.shapesecurity.functional.data.Either;
+import com.shapesecurity.functional.data.List;
+import com.shapesecurity.functional.data.Maybe;
+import com.shapesecurity.functional.data.NonEmptyList;
+import com.shapesecurity.shift.ast.VariableDeclaration.VariableDeclarationKind;
+import com.shapesecurity.shift.ast.directive.UnknownDirective;
+import com.shapesecurity.shift.ast.directive.UseStrictDirective;
+import com.shapesecurity.shift.ast.expression.ArrayExpression;
+import com.shapesecurity.shift.ast.expression.AssignmentExpression;
+import com.shapesecurity.shift.ast.expression.BinaryExpression;
+import com.shapesecurity.shift.ast.expression.CallExpression;
+import com.shapesecurity.shift.ast.expression.ComputedMemberExpression;
+import com.shapesecurity.shift.ast.expression.ConditionalExpression;
+import com.shapesecurity.shift.ast.expression.FunctionExpression;
+import com.shapesecurity.shift.ast.expression.IdentifierExpression;
+import com.shapesecurity.shift.ast.expression.LiteralBooleanExpression;
+import com.shapesecurity.shift.ast.expression.LiteralInfinityExpression;
+import com.shapesecurity.shift.ast.expression.LiteralNullExpression;
+import com.shapesecurity.shift.ast.expression.LiteralNumericExpression;
+import com.shapesecurity.shift.ast.expression.LiteralRegExpExpression;
+import com.shapesecurity.shift.ast.expression.LiteralStringExpression;
+import com.shapesecurity.shift.ast.expression.NewExpression;
+import com.shapesecurity.shift.ast.expression.ObjectExpression;
+import com.shapesecurity.shift.ast.expression.PostfixExpression;
+import com.shapesecurity.shift.ast.expression.PrefixExpression;
+import com.shapesecurity.shift.ast.expression.StaticMemberExpression;
+import com.shapesecurity.shift.ast.expression.ThisExpression;
+import com.shapesecurity.shift.ast.property.DataProperty;
+import com.shapesecurity.shift.ast.property.Getter;
+import com.shapesecurity.shift.ast.property.PropertyName;
+import com.shapesecurity.shift.ast.property.Setter;
+import com.shapesecurity.shift.ast.statement.BlockStatement;
+import com.shapesecurity.shift.ast.statement.BreakStatement;
+import com.shapesecurity.shift.ast.statement.ContinueStatement;
+import com.shapesecurity.shift.ast.statement.DebuggerStatement;
+import com.shapesecurity.shift.ast.statement.DoWhileStatement;
+import com.shapesecurity.shift.ast.statement.EmptyStatement;
+import com.shapesecurity.shift.ast.statement.ExpressionStatement;
+import com.shapesecurity.shift.ast.statement.ForInStatement;
+import com.shapesecurity.shift.ast.statement.ForStatement;
+import com.shapesecurity.shift.ast.statement.FunctionDeclaration;
+import com.shapesecurity.shift.ast.statement.IfStatement;
+import com.shapesecurity.shift.ast.statement.LabeledStatement;
+import com.shapesecurity.shift.ast.statement.ReturnStatement;
+import com.shapesecurity.shift.ast.statement.SwitchStatement;
+import com.shapesecurity.shift.ast.statement.SwitchStatementWithDefault;
+import com.shapesecurity.shift.ast.statement.ThrowStatement;
+import com.shapesecurity.shift.ast.statement.TryCatchStatement;
+import com.shapesecurity.shift.ast.statement.TryFinallyStatement;
+import com.shapesecurity.shift.ast.statement.VariableDeclarationStatement;
+import com.shapesecurity.shift.ast.statement.WhileStatement;
+import com.shapesecurity.shift.ast.statement.WithStatement;
+import com.shapesecurity.shift.ast.property.PropertyName.PropertyNameKind;
+import com.shapesecurity.shift.ast.operators.AssignmentOperator;
+import com.shapesecurity.shift.ast.operators.BinaryOperator;
+import com.shapesecurity.shift.ast.operators.PostfixOperator;
+import com.shapesecurity.shift.ast.operators.PrefixOperator;
+import com.shapesecurity.shift.ast.types.Type;
+import com.shapesecurity.shift.path.Branch;
+import com.shapesecurity.shift.visitor.ReducerP;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A script stored in a few flat arrays instead of one object per node. The nodes are numbered in the order
+ * {@link com.shapesecurity.shift.visitor.Director} reduces them, children first, so the script is the last node. Each
+ * node has a {@link Type}, the indices of its children in the order of the reducer parameters, and a payload: the
+ * index of its string or number, the ordinal of its operator or kind, or its boolean value.
+ *
+ * <p>The lists, optional values and alternatives between children are nodes of type {@link Type#List},
+ * {@link Type#Maybe} and {@link Type#Either}; the payload of an {@code Either} is 0 for a left value and 1 for a right
+ * one. Strings are stored once however often they occur, and locations are not stored.
+ *
+ * <p>Passes over the flat form read the arrays by node index; passes written for trees run on {@link #toScript()}.
+ */
+public final class FlatScript {
+  @NotNull
+  private final byte[] types;
+  @NotNull
+  private final int[] payloads;
+  // The children of node i are children[childStarts[i]] to children[childStarts[i + 1] - 1].
+  @NotNull
+  private final int[] childStarts;
+  @NotNull
+  private final int[] children;
+  @NotNull
+  private final String[] strings;
+  @NotNull
+  private final double[] numbers;
+
+  private FlatScript(
+      @NotNull byte[] types,
+      @NotNull int[] payloads,
+      @NotNull int[] childStarts,
+      @NotNull int[] children,
+      @NotNull String[] strings,
+      @NotNull double[] numbers) {
+    this.types = types;
+    this.payloads = payloads;
+    this.childStarts = childStarts;
+    this.children = children;
+    this.strings = strings;
+    this.numbers = numbers;
+  }
+
+  @NotNull
+  public static FlatScript from(@NotNull Script script) {
+    Builder builder = new Builder();
+    script.reduce(builder);
+    return builder.build();
+  }
+
+  /** The number of nodes, including those of type List, Maybe and Either. */
+  public int size() {
+    return this.types.length;
+  }
+
+  @NotNull
+  public Type type(int node) {
+    return Type.fromTag(this.types[node]);
+  }
+
+  public int childCount(int node) {
+    return this.childStarts[node + 1] - this.childStarts[node];
+  }
+
+  public int child(int node, int index) {
+    return this.children[this.childStarts[node] + index];
+  }
+
+  /** The payload of {@code node}: the ordinal of its operator or kind, its boolean value as 0 or 1, or its side. */
+  public int payload(int node) {
+    return this.payloads[node];
+  }
+
+  /** The name, value or contents of an identifier, string, regular expression, directive or property name. */
+  @NotNull
+  public String string(int node) {
+    return this.strings[this.type(node) == Type.PropertyName ? this.payloads[node] >>> 2 : this.payloads[node]];
+  }
+
+  public double number(int node) {
+    return this.numbers[this.payloads[node]];
+  }
+
+  @NotNull
+  public Script toScript() {
+    Object[] nodes = new Object[this.size()];
+    for (int node = 0; node < nodes.length; node++) {
+      nodes[node] = this.build(node, nodes);
+    }
+    return (Script) nodes[nodes.length - 1];
+  }
+
+  // The value of the index-th child of node among values.
+  @SuppressWarnings("unchecked")
+  @NotNull
+  private <T> T child(@NotNull Object[] values, int node, int index) {
+    return (T) values[this.child(node, index)];
+  }
+
+  // Builds node from the values of its children.
+  @NotNull
+  private Object build(int node, @NotNull Object[] values) {
+    switch (this.type(node)) {
+    case List: {
+      List<Object> list = List.nil();
+      for (int i = this.childCount(node) - 1; i >= 0; i--) {
+        list = list.cons(this.child(values, node, i));
+      }
+      return list;
+    }
+    case Maybe:
+      return this.childCount(node) == 0 ? Maybe.nothing() : Maybe.just(this.child(values, node, 0));
+    case Either:
+      return this.payloads[node] == 0 ?
+          Either.left(this.child(values, node, 0)) :
+          Either.right(this.child(values, node, 0));
+    case Script:
+      return new Script(this.child(values, node, 0));
+    case FunctionBody:
+      return new FunctionBody(this.child(values, node, 0), this.child(values, node, 1));
+    case Getter:
+      return new Getter(this.child(values, node, 0), this.child(values, node, 1));
+    case Setter:
+      return new Setter(this.child(values, node, 0), this.child(values, node, 1), this.child(values, node, 2));
+    case DataProperty:
+      return new DataProperty(this.child(values, node, 0), this.child(values, node, 1));
+    case PropertyName:
+      return propertyName(this.strings[this.payloads[node] >>> 2], PropertyNameKind.values()[this.payloads[node] & 3]);
+    case FunctionExpression:
+      return new FunctionExpression(
+          this.child(values, node, 0),
+          this.child(values, node, 1),
+          this.child(values, node, 2));
+    case ObjectExpression:
+      return new ObjectExpression(this.child(values, node, 0));
+    case LiteralBooleanExpression:
+      return new LiteralBooleanExpression(this.payloads[node] != 0);
+    case LiteralNullExpression:
+      return new LiteralNullExpression();
+    case LiteralInfinityExpression:
+      return new LiteralInfinityExpression();
+    case LiteralNumericExpression:
+      return new LiteralNumericExpression(this.number(node));
+    case LiteralRegExpExpression:
+      return new LiteralRegExpExpression(this.string(node));
+    case LiteralStringExpression:
+      return new LiteralStringExpression(this.string(node));
+    case ArrayExpression:
+      return new ArrayExpression(this.child(values, node, 0));
+    case AssignmentExpression:
+      return new AssignmentExpression(
+          AssignmentOperator.values()[this.payloads[node]],
+          this.child(values, node, 0),
+          this.child(values, node, 1));
+    case BinaryExpression:
+      return new BinaryExpression(
+          BinaryOperator.values()[this.payloads[node]],
+          this.child(values, node, 0),
+          this.child(values, node, 1));
+    case CallExpression:
+      return new CallExpression(this.child(values, node, 0), this.child(values, node, 1));
+    case ComputedMemberExpression:
+      return new ComputedMemberExpression(this.child(values, node, 0), this.child(values, node, 1));
+    case ConditionalExpression:
+      return new ConditionalExpression(
+          this.child(values, node, 0),
+          this.child(values, node, 1),
+          this.child(values, node, 2));
+    case IdentifierExpression:
+      return new IdentifierExpression(this.child(values, node, 0));
+    case NewExpression:
+      return new NewExpression(this.child(values, node, 0), this.child(values, node, 1));
+    case PostfixExpression:
+      return new PostfixExpression(PostfixOperator.values()[this.payloads[node]], this.child(values, node, 0));
+    case PrefixExpression:
+      return new PrefixExpression(PrefixOperator.values()[this.payloads[node]], this.child(values, node, 0));
+    case StaticMemberExpression:
+      return new StaticMemberExpression(this.child(values, node, 0), this.child(values, node, 1));
+    case ThisExpression:
+      return new ThisExpression();
+    case FunctionDeclaration:
+      return new FunctionDeclaration(
+          this.child(values, node, 0),
+          this.child(values, node, 1),
+          this.child(values, node, 2));
+    case BlockStatement:
+      return new BlockStatement(this.child(values, node, 0));
+    case BreakStatement:
+      return new BreakStatement(this.child(values, node, 0));
+    case ContinueStatement:
+      return new ContinueStatement(this.child(values, node, 0));
+    case DebuggerStatement:
+      return new DebuggerStatement();
+    case DoWhileStatement:
+      return new DoWhileStatement(this.child(values, node, 0), this.child(values, node, 1));
+    case EmptyStatement:
+      return new EmptyStatement();
+    case ExpressionStatement:
+      return new ExpressionStatement(this.child(values, node, 0));
+    case ForInStatement:
+      return new ForInStatement(this.child(values, node, 0), this.child(values, node, 1), this.child(values, node, 2));
+    case ForStatement:
+      return new ForStatement(
+          this.child(values, node, 0),
+          this.child(values, node, 1),
+          this.child(values, node, 2),
+          this.child(values, node, 3));
+    case IfStatement:
+      return new IfStatement(
+          this.child(values, node, 0),
+          this.child(values, node, 1),
+          this.<Maybe<Statement>>child(values, node, 2));
+    case LabeledStatement:
+      return new LabeledStatement(this.child(values, node, 0), this.child(values, node, 1));
+    case ReturnStatement:
+      return new ReturnStatement(this.child(values, node, 0));
+    case SwitchStatement:
+      return new SwitchStatement(this.child(values, node, 0), this.child(values, node, 1));
+    case SwitchStatementWithDefault:
+      return new SwitchStatementWithDefault(
+          this.child(values, node, 0),
+          this.child(values, node, 1),
+          this.child(values, node, 2),
+          this.child(values, node, 3));
+    case ThrowStatement:
+      return new ThrowStatement(this.child(values, node, 0));
+    case TryCatchStatement:
+      return new TryCatchStatement(this.child(values, node, 0), this.child(values, node, 1));
+    case TryFinallyStatement:
+      return new TryFinallyStatement(
+          this.child(values, node, 0),
+          this.child(values, node, 1),
+          this.child(values, node, 2));
+    case VariableDeclarationStatement:
+      return new VariableDeclarationStatement(this.child(values, node, 0));
+    case WhileStatement:
+      return new WhileStatement(this.child(values, node, 0), this.child(values, node, 1));
+    case WithStatement:
+      return new WithStatement(this.child(values, node, 0), this.child(values, node, 1));
+    case UnknownDirective:
+      return new UnknownDirective(this.string(node));
+    case UseStrictDirective:
+      return new UseStrictDirective();
+    case Block:
+      return new Block(this.child(values, node, 0));
+    case CatchClause:
+      return new CatchClause(this.child(values, node, 0), this.child(values, node, 1));
+    case Identifier:
+      return new Identifier(this.string(node));
+    case SwitchCase:
+      return new SwitchCase(this.child(values, node, 0), this.child(values, node, 1));
+    case SwitchDefault:
+      return new SwitchDefault(this.child(values, node, 0));
+    case VariableDeclaration:
+      return new VariableDeclaration(
+          VariableDeclarationKind.values()[this.payloads[node]],
+          this.child(values, node, 0));
+    case VariableDeclarator:
+      return new VariableDeclarator(this.child(values, node, 0), this.child(values, node, 1));
+    default:
+      throw new RuntimeException("Not reached");
+    }
+  }
+
+  @NotNull
+  private static PropertyName propertyName(@NotNull String value, @NotNull PropertyNameKind kind) {
+    switch (kind) {
+    case Identifier:
+      return new PropertyName(new Identifier(value));
+    case String:
+      return new PropertyName(value);
+    default:
+      // The value was printed from a number, and prints the same when parsed back.
+      return new PropertyName(Double.parseDouble(value));
+    }
+  }
+
+  // Appends the nodes of a script to the arrays as they are reduced; the state of a node is its index.
+  private static final class Builder
+      implements ReducerP<Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer> {
+    @NotNull
+    private final HashMap<String, Integer> stringIndices = new HashMap<>();
+    @NotNull
+    private String[] strings = new String[64];
+    private int stringCount;
+    @NotNull
+    private double[] numbers = new double[16];
+    private int numberCount;
+    @NotNull
+    private byte[] types = new byte[256];
+    @NotNull
+    private int[] payloads = new int[256];
+    @NotNull
+    private int[] childStarts = new int[257];
+    private int size;
+    @NotNull
+    private int[] children = new int[256];
+    private int childCount;
+
+    @NotNull
+    FlatScript build() {
+      return new FlatScript(
+          Arrays.copyOf(this.types, this.size),
+          Arrays.copyOf(this.payloads, this.size),
+          Arrays.copyOf(this.childStarts, this.size + 1),
+          Arrays.copyOf(this.children, this.childCount),
+          Arrays.copyOf(this.strings, this.stringCount),
+          Arrays.copyOf(this.numbers, this.numberCount));
+    }
+
+    // Appends node, whose children are node indices or lists, optional values and alternatives of them.
+    private int add(@NotNull Node node, @NotNull Object... children) {
+      int[] indices = new int[children.length];
+      for (int i = 0; i < children.length; i++) {
+        indices[i] = this.index(children[i]);
+      }
+      return this.append(node.tag(), this.payload(node), indices);
+    }
+
+    private int index(@NotNull Object child) {
+      if (child instanceof Integer) {
+        return (Integer) child;
+      }
+      if (child instanceof List) {
+        List<?> list = (List<?>) child;
+        int[] indices = new int[list.length];
+        int i = 0;
+        for (Object element : list) {
+          indices[i++] = this.index(element);
+        }
+        return this.append(Type.List.ordinal(), 0, indices);
+      }
+      if (child instanceof Maybe) {
+        Maybe<?> maybe = (Maybe<?>) child;
+        return this.append(Type.Maybe.ordinal(), 0, maybe.isJust() ? new int[] { this.index(maybe.just()) } : new int[0]);
+      }
+      Either<?, ?> either = (Either<?, ?>) child;
+      return either.isLeft() ?
+          this.append(Type.Either.ordinal(), 0, new int[] { this.index(either.left().just()) }) :
+          this.append(Type.Either.ordinal(), 1, new int[] { this.index(either.right().just()) });
+    }
+
+    private int payload(@NotNull Node node) {
+      switch (Type.fromTag(node.tag())) {
+      case Identifier:
+        return this.string(((Identifier) node).name);
+      case LiteralStringExpression:
+        return this.string(((LiteralStringExpression) node).getValue());
+      case LiteralRegExpExpression:
+        return this.string(((LiteralRegExpExpression) node).value);
+      case UnknownDirective:
+        return this.string(((UnknownDirective) node).getContents().toString());
+      case PropertyName:
+        return this.string(((PropertyName) node).value) << 2 | ((PropertyName) node).kind.ordinal();
+      case LiteralNumericExpression:
+        return this.number(((LiteralNumericExpression) node).value);
+      case LiteralBooleanExpression:
+        return ((LiteralBooleanExpression) node).value ? 1 : 0;
+      case AssignmentExpression:
+        return ((AssignmentExpression) node).operator.ordinal();
+      case BinaryExpression:
+        return ((BinaryExpression) node).operator.ordinal();
+      case PostfixExpression:
+        return ((PostfixExpression) node).operator.ordinal();
+      case PrefixExpression:
+        return ((PrefixExpression) node).operator.ordinal();
+      case VariableDeclaration:
+        return ((VariableDeclaration) node).kind.ordinal();
+      default:
+        return 0;
+      }
+    }
+
+    private int string(@NotNull String value) {
+      Integer index = this.stringIndices.get(value);
+      if (index == null) {
+        if (this.stringCount == this.strings.length) {
+          this.strings = Arrays.copyOf(this.strings, this.stringCount * 2);
+        }
+        this.strings[this.stringCount] = value;
+        index = this.stringCount++;
+        this.stringIndices.put(value, index);
+      }
+      return index;
+    }
+
+    private int number(double value) {
+      if (this.numberCount == this.numbers.length) {
+        this.numbers = Arrays.copyOf(this.numbers, this.numberCount * 2);
+      }
+      this.numbers[this.numberCount] = value;
+      return this.numberCount++;
+    }
+
+    private int append(int tag, int payload, @NotNull int[] indices) {
+      if (this.size == this.types.length) {
+        this.types = Arrays.copyOf(this.types, this.size * 2);
+        this.payloads = Arrays.copyOf(this.payloads, this.size * 2);
+        this.childStarts = Arrays.copyOf(this.childStarts, this.size * 2 + 1);
+      }
+      if (this.childCount + indices.length > this.children.length) {
+        int length = Math.max(this.children.length * 2, this.childCount + indices.length);
+        this.children = Arrays.copyOf(this.children, length);
+      }
+      System.arraycopy(indices, 0, this.children, this.childCount, indices.length);
+      this.childCount += indices.length;
+      this.types[this.size] = (byte) tag;
+      this.payloads[this.size] = payload;
+      this.childStarts[this.size + 1] = this.childCount;
+      return this.size++;
+    }
+
+    @NotNull
+    @Override
+    public Integer reduceScript(@NotNull Script node, @NotNull List<Branch> path, @NotNull Integer body) {
+      return this.add(node, body);
+    }
+
+    @NotNull
+    @Override
+    public Integer reduceIdentifier(@NotNull Identifier node, @NotNull List<Branch> path) {
+      return this.add(node);
+    }
+
+    @NotNull
+    @Override
+    public Integer reduceIdentifierExpression(
+        @NotNull IdentifierExpression node,
+        @NotNull List<Branch> path,
+        @NotNull Integer identifier) {
+      return this.add(node, identifier);
+    }
+
+    @NotNull
+    @Override
+    public Integer reduceThisExpression(@NotNull ThisExpression node, @NotNull List<Branch> path) {
+      return this.add(node);
+    }
+
+    @NotNull
+    @Override
+    public Integer reduceLiteralBooleanExpression(@NotNull LiteralBooleanExpression node, @NotNull List<Branch> path) {
+      return this.add(node);
+    }
+
+    @NotNull
+    @Override
+    public Integer reduceLiteralStringExpression(@NotNull LiteralStringExpression node, @NotNull List<Branch> path) {
+      return this.add(node);
+    }
+
+    @NotNull
+    @Override
+    public Integer reduceLiteralRegExpExpression(@NotNull LiteralRegExpExpression node, @NotNull List<Branch> path) {
+      return this.add(node);
+    }
+
+    @NotNull
+    @Override
+    public Integer reduceLiteralNumericExpression(@NotNull LiteralNumericExpression node, @NotNull List<Branch> path) {
+      return this.add(node);
+    }
+
+    @NotNull
+    @Override
+    public Integer reduceLiteralInfinityExpression(
+        @NotNull LiteralInfinityExpression node,
+        @NotNull List<Branch> path) {
+      return this.add(node);
+    }
+
+    @NotNull
+    @Override
+    public Integer reduceLiteralNullExpression(@NotNull LiteralNullExpression node, @NotNull List<Branch> path) {
+      return this.add(node);
+    }
+
+    @NotNull
+    @Override
+    public Integer reduceFunctionExpression(
+        @NotNull FunctionExpression node,
+        @NotNull List<Branch> path,
+        @NotNull Maybe<Integer> name,
+        @NotNull List<Integer> parameters,
+        @NotNull Integer body) {
+      return this.add(node, name, parameters, body);
+    }
+
+    @NotNull
+    @Override
+    public Integer reduceStaticMemberExpression(
+        @NotNull StaticMemberExpression node,
+        @NotNull List<Branch> path,
+        @NotNull Integer object,
+        @NotNull Integer property) {
+      return this.add(node, object, property);
+    }
+
+    @NotNull
+    @Override
+    public Integer reduceComputedMemberExpression(
+        @NotNull ComputedMemberExpression node,
+        @NotNull List<Branch> path,
+        @NotNull Integer object,
+        @NotNull Integer expression) {
+      return this.add(node, object, expression);
+    }
+
+    @NotNull
+    @Override
+    public Integer reduceObjectExpression(
+        @NotNull ObjectExpression node,
+        @NotNull List<Branch> path,
+        @NotNull List<Integer> properties) {
+      return this.add(node, properties);
+    }
+
+    @NotNull
+    @Override
+    public Integer reduceBinaryExpression(
+        @NotNull BinaryExpression node,
+        @NotNull List<Branch> path,
+        @NotNull Integer left,
+        @NotNull Integer right) {
+      return this.add(node, left, right);
+    }
+
+    @NotNull
+    @Override
+    public Integer reduceAssignmentExpression(
+        @NotNull AssignmentExpression node,
+        @NotNull List<Branch> path,
+        @NotNull Integer binding,
+        @NotNull Integer expression) {
+      return this.add(node, binding, expression);
+    }
+
+    @NotNull
+    @Override
+    public Integer reduceArrayExpression(
+        @NotNull ArrayExpression node,
+        @NotNull List<Branch> path,
+        @NotNull List<Maybe<Integer>> elements) {
+      return this.add(node, elements);
+    }
+
+    @NotNull
+    @Override
+    public Integer reduceNewExpression(
+        @NotNull NewExpression node,
+        @NotNull List<Branch> path,
+        @NotNull Integer callee,
+        @NotNull List<Integer> arguments) {
+      return this.add(node, callee, arguments);
+    }
+
+    @NotNull
+    @Override
+    public Integer reduceCallExpression(
+        @NotNull CallExpression node,
+        @NotNull List<Branch> path,
+        @NotNull Integer callee,
+        @NotNull List<Integer> arguments) {
+      return this.add(node, callee, arguments);
+    }
+
+    @NotNull
+    @Override
+    public Integer reducePostfixExpression(
+        @NotNull PostfixExpression node,
+        @NotNull List<Branch> path,
+        @NotNull Integer operand) {
+      return this.add(node, operand);
+    }
+
+    @NotNull
+    @Override
+    public Integer reducePrefixExpression(
+        @NotNull PrefixExpression node,
+        @NotNull List<Branch> path,
+        @NotNull Integer operand) {
+      return this.add(node, operand);
+    }
+
+    @NotNull
+    @Override
+    public Integer reduceConditionalExpression(
+        @NotNull ConditionalExpression node,
+        @NotNull List<Branch> path,
+        @NotNull Integer test,
+        @NotNull Integer consequent,
+        @NotNull Integer alternate) {
+      return this.add(node, test, consequent, alternate);
+    }
+
+    @NotNull
+    @Override
+    public Integer reduceFunctionDeclaration(
+        @NotNull FunctionDeclaration node,
+        @NotNull List<Branch> path,
+        @NotNull Integer name,
+        @NotNull List<Integer> params,
+        @NotNull Integer body) {
+      return this.add(node, name, params, body);
+    }
+
+    @NotNull
+    @Override
+    public Integer reduceUseStrictDirective(@NotNull UseStrictDirective node, @NotNull List<Branch> path) {
+      return this.add(node);
+    }
+
+    @NotNull
+    @Override
+    public Integer reduceUnknownDirective(@NotNull UnknownDirective node, @NotNull List<Branch> path) {
+      return this.add(node);
+    }
+
+    @NotNull
+    @Override
+    public Integer reduceBlockStatement(
+        @NotNull BlockStatement node,
+        @NotNull List<Branch> path,
+        @NotNull Integer block) {
+      return this.add(node, block);
+    }
+
+    @NotNull
+    @Override
+    public Integer reduceBreakStatement(
+        @NotNull BreakStatement node,
+        @NotNull List<Branch> path,
+        @NotNull Maybe<Integer> label) {
+      return this.add(node, label);
+    }
+
+    @NotNull
+    @Override
+    public Integer reduceCatchClause(
+        @NotNull CatchClause node,
+        @NotNull List<Branch> path,
+        @NotNull Integer binding,
+        @NotNull Integer body) {
+      return this.add(node, binding, body);
+    }
+
+    @NotNull
+    @Override
+    public Integer reduceContinueStatement(
+        @NotNull ContinueStatement node,
+        @NotNull List<Branch> path,
+        @NotNull Maybe<Integer> label) {
+      return this.add(node, label);
+    }
+
+    @NotNull
+    @Override
+    public Integer reduceDebuggerStatement(@NotNull DebuggerStatement node, @NotNull List<Branch> path) {
+      return this.add(node);
+    }
+
+    @NotNull
+    @Override
+    public Integer reduceDoWhileStatement(
+        @NotNull DoWhileStatement node,
+        @NotNull List<Branch> path,
+        @NotNull Integer body,
+        @NotNull Integer test) {
+      return this.add(node, body, test);
+    }
+
+    @NotNull
+    @Override
+    public Integer reduceEmptyStatement(@NotNull EmptyStatement node, @NotNull List<Branch> path) {
+      return this.add(node);
+    }
+
+    @NotNull
+    @Override
+    public Integer reduceExpressionStatement(
+        @NotNull ExpressionStatement node,
+        @NotNull List<Branch> path,
+        @NotNull Integer expression) {
+      return this.add(node, expression);
+    }
+
+    @NotNull
+    @Override
+    public Integer reduceForInStatement(
+        @NotNull ForInStatement node,
+        @NotNull List<Branch> path,
+        @NotNull Either<Integer, Integer> left,
+        @NotNull Integer right,
+        @NotNull Integer body) {
+      return this.add(node, left, right, body);
+    }
+
+    @NotNull
+    @Override
+    public Integer reduceForStatement(
+        @NotNull ForStatement node,
+        @NotNull List<Branch> path,
+        @NotNull Maybe<Either<Integer, Integer>> init,
+        @NotNull Maybe<Integer> test,
+        @NotNull Maybe<Integer> update,
+        @NotNull Integer body) {
+      return this.add(node, init, test, update, body);
+    }
+
+    @NotNull
+    @Override
+    public Integer reduceIfStatement(
+        @NotNull IfStatement node,
+        @NotNull List<Branch> path,
+        @NotNull Integer test,
+        @NotNull Integer consequent,
+        @NotNull Maybe<Integer> alternate) {
+      return this.add(node, test, consequent, alternate);
+    }
+
+    @NotNull
+    @Override
+    public Integer reduceLabeledStatement(
+        @NotNull LabeledStatement node,
+        @NotNull List<Branch> path,
+        @NotNull Integer label,
+        @NotNull Integer body) {
+      return this.add(node, label, body);
+    }
+
+    @NotNull
+    @Override
+    public Integer reduceReturnStatement(
+        @NotNull ReturnStatement node,
+        @NotNull List<Branch> path,
+        @NotNull Maybe<Integer> expression) {
+      return this.add(node, expression);
+    }
+
+    @NotNull
+    @Override
+    public Integer reduceSwitchCase(
+        @NotNull SwitchCase node,
+        @NotNull List<Branch> path,
+        @NotNull Integer test,
+        @NotNull List<Integer> consequent) {
+      return this.add(node, test, consequent);
+    }
+
+    @NotNull
+    @Override
+    public Integer reduceSwitchDefault(
+        @NotNull SwitchDefault node,
+        @NotNull List<Branch> path,
+        @NotNull List<Integer> consequent) {
+      return this.add(node, consequent);
+    }
+
+    @NotNull
+    @Override
+    public Integer reduceSwitchStatement(
+        @NotNull SwitchStatement node,
+        @NotNull List<Branch> path,
+        @NotNull Integer discriminant,
+        @NotNull List<Integer> cases) {
+      return this.add(node, discriminant, cases);
+    }
+
+    @NotNull
+    @Override
+    public Integer reduceSwitchStatementWithDefault(
+        @NotNull SwitchStatementWithDefault node,
+        @NotNull List<Branch> path,
+        @NotNull Integer discriminant,
+        @NotNull List<Integer> preDefaultCases,
+        @NotNull Integer defaultCase,
+        @NotNull List<Integer> postDefaultCases) {
+      return this.add(node, discriminant, preDefaultCases, defaultCase, postDefaultCases);
+    }
+
+    @NotNull
+    @Override
+    public Integer reduceThrowStatement(
+        @NotNull ThrowStatement node,
+        @NotNull List<Branch> path,
+        @NotNull Integer expression) {
+      return this.add(node, expression);
+    }
+
+    @NotNull
+    @Override
+    public Integer reduceTryCatchStatement(
+        @NotNull TryCatchStatement node,
+        @NotNull List<Branch> path,
+        @NotNull Integer block,
+        @NotNull Integer catchClause) {
+      return this.add(node, block, catchClause);
+    }
+
+    @NotNull
+    @Override
+    public Integer reduceTryFinallyStatement(
+        @NotNull TryFinallyStatement node,
+        @NotNull List<Branch> path,
+        @NotNull Integer block,
+        @NotNull Maybe<Integer> catchClause,
+        @NotNull Integer finalizer) {
+      return this.add(node, block, catchClause, finalizer);
+    }
+
+    @NotNull
+    @Override
+    public Integer reduceVariableDeclarationStatement(
+        @NotNull VariableDeclarationStatement node,
+        @NotNull List<Branch> path,
+        @NotNull Integer declaration) {
+      return this.add(node, declaration);
+    }
+
+    @NotNull
+    @Override
+    public Integer reduceVariableDeclaration(
+        @NotNull VariableDeclaration node,
+        @NotNull List<Branch> path,
+        @NotNull NonEmptyList<Integer> declarators) {
+      return this.add(node, declarators);
+    }
+
+    @NotNull
+    @Override
+    public Integer reduceWhileStatement(
+        @NotNull WhileStatement node,
+        @NotNull List<Branch> path,
+        @NotNull Integer test,
+        @NotNull Integer body) {
+      return this.add(node, test, body);
+    }
+
+    @NotNull
+    @Override
+    public Integer reduceWithStatement(
+        @NotNull WithStatement node,
+        @NotNull List<Branch> path,
+        @NotNull Integer object,
+        @NotNull Integer body) {
+      return this.add(node, object, body);
+    }
+
+    @NotNull
+    @Override
+    public Integer reduceDataProperty(
+        @NotNull DataProperty node,
+        @NotNull List<Branch> path,
+        @NotNull Integer name,
+        @NotNull Integer value) {
+      return this.add(node, name, value);
+    }
+
+    @NotNull
+    @Override
+    public Integer reduceGetter(
+        @NotNull Getter node,
+        @NotNull List<Branch> path,
+        @NotNull Integer name,
+        @NotNull Integer body) {
+      return this.add(node, name, body);
+    }
+
+    @NotNull
+    @Override
+    public Integer reduceSetter(
+        @NotNull Setter node,
+        @NotNull List<Branch> path,
+        @NotNull Integer name,
+        @NotNull Integer parameter,
+        @NotNull Integer body) {
+      return this.add(node, name, parameter, body);
+    }
+
+    @NotNull
+    @Override
+    public Integer reducePropertyName(@NotNull PropertyName node, @NotNull List<Branch> path) {
+      return this.add(node);
+    }
+
+    @NotNull
+    @Override
+    public Integer reduceFunctionBody(
+        @NotNull FunctionBody node,
+        @NotNull List<Branch> path,
+        @NotNull List<Integer> directives,
+        @NotNull List<Integer> statements) {
+      return this.add(node, directives, statements);
+    }
+
+    @NotNull
+    @Override
+    public Integer reduceVariableDeclarator(
+        @NotNull VariableDeclarator node,
+        @NotNull List<Branch> path,
+        @NotNull Integer binding,
+        @NotNull Maybe<Integer> init) {
+      return this.add(node, binding, init);
+    }
+
+    @NotNull
+    @Override
+    public Integer reduceBlock(@NotNull Block node, @NotNull List<Branch> path, @NotNull List<Integer> statements) {
+      return this.add(node, statements);
+    }
+  }
+}
@@ -16,17 +16,26 @@
 
 package com.shapesecurity.shift.ast;
 
+import com.shapesecurity.functional.Thunk;
+import com.shapesecurity.functional.data.HashCodeBuilder;
 import com.shapesecurity.functional.data.List;
 import com.shapesecurity.shift.ast.directive.UseStrictDirective;
 import com.shapesecurity.shift.ast.types.Type;
 
+import java.util.function.Supplier;
+
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public class FunctionBody extends Node {
-  @NotNull
-  public final List<Directive> directives;
-  @NotNull
-  public final List<Statement> statements;
+  // Both null in a body created by Parser.parseLazily, whose directives and statements are those of lazyBody; read them
+  // through getDirectives and getStatements.
+  @Nullable
+  private final List<Directive> directives;
+  @Nullable
+  private final List<Statement> statements;
+  @Nullable
+  private final Thunk<FunctionBody> lazyBody;
 
   private final boolean isStrict;
 
@@ -34,9 +43,22 @@ public class FunctionBody extends Node {
     super();
     this.directives = directives;
     this.statements = statements;
+    this.lazyBody = null;
     this.isStrict = directives.exists(directive -> directive instanceof UseStrictDirective);
   }
 
+  /**
+   * Creates a body whose directives and statements are those of the body returned by {@code parse}, which is called
+   * once, on first access.
+   */
+  public FunctionBody(boolean isStrict, @NotNull Supplier<FunctionBody> parse) {
+    super();
+    this.directives = null;
+    this.statements = null;
+    this.lazyBody = Thunk.from(parse);
+    this.isStrict = isStrict;
+  }
+
   public boolean isStrict() {
     return this.isStrict;
   }
@@ -48,30 +70,40 @@ public class FunctionBody extends Node {
   }
 
   @Override
-  public boolean equals(Object object) {
-    return object instanceof FunctionBody &&
-        this.directives.equals(((FunctionBody) object).directives) &&
-        this.statements.equals(((FunctionBody) object).statements) &&
-        this.isStrict == ((FunctionBody) object).isStrict;
+  protected boolean equalFields(@NotNull Node other, @NotNull StructuralEquality equality) {
+    return other instanceof FunctionBody &&
+        equality.equal(this.getDirectives(), ((FunctionBody) other).getDirectives()) &&
+        equality.equal(this.getStatements(), ((FunctionBody) other).getStatements()) &&
+        this.isStrict == ((FunctionBody) other).isStrict;
+  }
+
+  @Override
+  protected int calcHashCode() {
+    int start = HashCodeBuilder.put(0, "FunctionBody");
+    start = HashCodeBuilder.put(start, this.getDirectives());
+    start = HashCodeBuilder.put(start, this.getStatements());
+    return start;
   }
 
+  @SuppressWarnings("ConstantConditions")
   @NotNull
   public List<Directive> getDirectives() {
-    return this.directives;
+    return this.lazyBody == null ? this.directives : this.lazyBody.get().getDirectives();
   }
 
+  @SuppressWarnings("ConstantConditions")
   @NotNull
   public List<Statement> getStatements() {
-    return this.statements;
+    return this.lazyBody == null ? this.statements : this.lazyBody.get().getStatements();
   }
 
   @NotNull
   public FunctionBody setDirectives(@NotNull List<Directive> directives) {
-    return new FunctionBody(directives, this.statements);
+    return new FunctionBody(directives, this.getStatements());
   }
 
   @NotNull
   public FunctionBody setStatements(@NotNull List<Statement> statements) {
-    return new FunctionBody(this.directives, statements);
+    return new FunctionBody(this.getDirectives(), statements);
   }
 }
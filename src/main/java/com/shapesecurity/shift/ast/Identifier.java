@@ -16,6 +16,7 @@
 
 package com.shapesecurity.shift.ast;
 
+import com.shapesecurity.functional.data.HashCodeBuilder;
 import com.shapesecurity.shift.ast.types.Type;
 
 import org.jetbrains.annotations.NotNull;
@@ -42,7 +43,15 @@ public final class Identifier extends Node {
   }
 
   @Override
-  public boolean equals(Object object) {
-    return this == object || object instanceof Identifier && this.name.equals(((Identifier) object).name);
+  protected boolean equalFields(@NotNull Node other, @NotNull StructuralEquality equality) {
+    return other instanceof Identifier &&
+        this.name.equals(((Identifier) other).name);
+  }
+
+  @Override
+  protected int calcHashCode() {
+    int start = HashCodeBuilder.put(0, "Identifier");
+    start = HashCodeBuilder.put(start, this.name);
+    return start;
   }
 }
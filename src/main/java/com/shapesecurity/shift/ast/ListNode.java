@@ -17,6 +17,7 @@
 
 package com.shapesecurity.shift.ast;
 
+import com.shapesecurity.functional.data.HashCodeBuilder;
 import com.shapesecurity.functional.data.List;
 import com.shapesecurity.shift.ast.types.GenType;
 import com.shapesecurity.shift.ast.types.ListType;
@@ -44,4 +45,18 @@ public class ListNode<T> extends Node {
   public GenType genType() {
     return this.genType;
   }
+
+  // Compared by identity.
+  @Override
+  protected boolean equalFields(@NotNull Node other, @NotNull StructuralEquality equality) {
+    return false;
+  }
+
+  @Override
+  protected int calcHashCode() {
+    int start = HashCodeBuilder.put(0, "ListNode");
+    start = HashCodeBuilder.put(start, this.list);
+    start = HashCodeBuilder.put(start, this.genType);
+    return start;
+  }
 }
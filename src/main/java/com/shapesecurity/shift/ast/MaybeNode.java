@@ -17,6 +17,7 @@
 
 package com.shapesecurity.shift.ast;
 
+import com.shapesecurity.functional.data.HashCodeBuilder;
 import com.shapesecurity.functional.data.Maybe;
 import com.shapesecurity.shift.ast.types.GenType;
 import com.shapesecurity.shift.ast.types.MaybeType;
@@ -44,4 +45,18 @@ public class MaybeNode<T> extends Node {
   public GenType genType() {
     return this.genType;
   }
+
+  // Compared by identity.
+  @Override
+  protected boolean equalFields(@NotNull Node other, @NotNull StructuralEquality equality) {
+    return false;
+  }
+
+  @Override
+  protected int calcHashCode() {
+    int start = HashCodeBuilder.put(0, "MaybeNode");
+    start = HashCodeBuilder.put(start, this.maybe);
+    start = HashCodeBuilder.put(start, this.genType);
+    return start;
+  }
 }
@@ -16,8 +16,6 @@
 
 package com.shapesecurity.shift.ast;
 
-import com.shapesecurity.functional.Thunk;
-import com.shapesecurity.functional.data.HashCodeBuilder;
 import com.shapesecurity.functional.data.List;
 import com.shapesecurity.functional.data.Maybe;
 import com.shapesecurity.shift.ast.types.GenType;
@@ -25,35 +23,71 @@ import com.shapesecurity.shift.ast.types.Type;
 import com.shapesecurity.shift.parser.Located;
 import com.shapesecurity.shift.path.Branch;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
-
 import org.jetbrains.annotations.NotNull;
 
 public abstract class Node extends Located {
-  private final Thunk<Integer> hashCodeThunk = Thunk.from(this::calcHashCode);
-
-
-  private int calcHashCode() {
-    int start = 0;
-    start = HashCodeBuilder.put(start, this.getClass().getName());
-    Field[] fields = this.getClass().getFields();
-    for (Field field : fields) {
-      if (field.getModifiers() == (Modifier.FINAL | Modifier.PUBLIC)) {
-        try {
-          start = HashCodeBuilder.put(start, field.get(this));
-        } catch (IllegalAccessException ignored) {
-          start = HashCodeBuilder.put(start, -1);
-        }
-      }
+  // The ordinal of type() plus one, or 0 until tag() is first called. It is not set by the constructor, which runs
+  // before the fields that a subclass may read in type() are set.
+  private int tag;
+  // Computed on first use, as String does; a race only computes it twice.
+  private int hashCode;
+
+  protected Node() {
+    super();
+  }
+
+  /**
+   * The ordinal of {@link #type()}. Code that dispatches on the type of a node switches on
+   * {@code Type.fromTag(node.tag())} or indexes a table with the tag, which reads a field where calling {@code type()}
+   * would make a megamorphic call.
+   */
+  public final int tag() {
+    // Computed on first use, as hashCode is; a race only computes it twice.
+    int tag = this.tag;
+    if (tag == 0) {
+      tag = this.tag = this.type().ordinal() + 1;
     }
-    return start;
+    return tag - 1;
+  }
+
+  // The structural hash of the node: its type followed by the hashes of its fields.
+  protected abstract int calcHashCode();
+
+  /**
+   * Compares the fields of this node with those of {@code other}, which may be a node of any type. Fields holding
+   * children are compared with {@link StructuralEquality#equal}.
+   */
+  protected abstract boolean equalFields(@NotNull Node other, @NotNull StructuralEquality equality);
+
+  @Override
+  public final boolean equals(Object object) {
+    return this == object || object instanceof Node && !this.hashCodesDiffer((Node) object) &&
+        new StructuralEquality().equalTrees(this, (Node) object);
+  }
+
+  // Whether both hash codes are cached and differ, which proves the nodes unequal.
+  boolean hashCodesDiffer(@NotNull Node other) {
+    return this.hashCode != 0 && other.hashCode != 0 && this.hashCode != other.hashCode;
   }
 
   // hashCode has to be overwritten in order to maintain contract between with Object.equals and Object.hashCode
   @Override
   public final int hashCode() {
-    return this.hashCodeThunk.get();
+    int hashCode = this.hashCode;
+    if (hashCode == 0) {
+      StructuralHashing.hashDescendants(this);
+      hashCode = this.hashCode = this.calcHashCode();
+    }
+    return hashCode;
+  }
+
+  boolean isHashed() {
+    return this.hashCode != 0;
+  }
+
+  // Caches the hash code of a node whose children are already hashed.
+  void cacheHashCode() {
+    this.hashCode = this.calcHashCode();
   }
 
   @NotNull
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2014 Shape Security, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.shapesecurity.shift.ast;
+
+import java.util.HashMap;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Hash-conses AST nodes, so that structurally equal subtrees such as {@code void 0} or {@code a.prototype} are a single
+ * shared instance. When a tree is built bottom-up with every node passed through {@link #intern}, as
+ * {@link com.shapesecurity.shift.parser.Parser#parse(CharSequence, NodeInterner)} and the interning cloners do, two of
+ * its nodes are equal exactly when they are the same instance.
+ *
+ * <p>A shared node occurs at several places but has a single location, so interned trees carry no locations. An
+ * interner may be used for several trees, but not by several threads at once.
+ */
+public final class NodeInterner {
+  @NotNull
+  private final HashMap<Node, Node> nodes = new HashMap<>();
+
+  /** The number of distinct nodes interned. */
+  public int size() {
+    return this.nodes.size();
+  }
+
+  /** Returns the canonical node structurally equal to {@code node}, which becomes canonical if there is none yet. */
+  @SuppressWarnings("unchecked")
+  @NotNull
+  public <T extends Node> T intern(@NotNull T node) {
+    // Equality requires the other node to be an instance of the class of node, so it is a T.
+    Node canonical = this.nodes.putIfAbsent(node, node);
+    return canonical == null ? node : (T) canonical;
+  }
+}
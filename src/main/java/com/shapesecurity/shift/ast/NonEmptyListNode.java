@@ -17,6 +17,7 @@
 
 package com.shapesecurity.shift.ast;
 
+import com.shapesecurity.functional.data.HashCodeBuilder;
 import com.shapesecurity.functional.data.NonEmptyList;
 import com.shapesecurity.shift.ast.types.GenType;
 import com.shapesecurity.shift.ast.types.NonEmptyListType;
@@ -44,4 +45,18 @@ public class NonEmptyListNode<T> extends Node {
   public GenType genType() {
     return this.genType;
   }
+
+  // Compared by identity.
+  @Override
+  protected boolean equalFields(@NotNull Node other, @NotNull StructuralEquality equality) {
+    return false;
+  }
+
+  @Override
+  protected int calcHashCode() {
+    int start = HashCodeBuilder.put(0, "NonEmptyListNode");
+    start = HashCodeBuilder.put(start, this.list);
+    start = HashCodeBuilder.put(start, this.genType);
+    return start;
+  }
 }
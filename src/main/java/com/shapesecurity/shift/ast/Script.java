@@ -16,6 +16,7 @@
 
 package com.shapesecurity.shift.ast;
 
+import com.shapesecurity.functional.data.HashCodeBuilder;
 import com.shapesecurity.functional.data.List;
 import com.shapesecurity.shift.ast.types.Type;
 import com.shapesecurity.shift.visitor.Director;
@@ -40,8 +41,16 @@ public class Script extends Node {
   }
 
   @Override
-  public boolean equals(Object object) {
-    return object instanceof Script && this.body.equals(((Script) object).body);
+  protected boolean equalFields(@NotNull Node other, @NotNull StructuralEquality equality) {
+    return other instanceof Script &&
+        equality.equal(this.body, ((Script) other).body);
+  }
+
+  @Override
+  protected int calcHashCode() {
+    int start = HashCodeBuilder.put(0, "Script");
+    start = HashCodeBuilder.put(start, this.body);
+    return start;
   }
 
   @NotNull
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2014 Shape Security, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.shapesecurity.shift.ast;
+
+import com.shapesecurity.functional.data.Either;
+import com.shapesecurity.functional.data.List;
+import com.shapesecurity.functional.data.Maybe;
+import com.shapesecurity.functional.data.NonEmptyList;
+
+import java.util.Arrays;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Compares two trees for structural equality, as {@link Node#equals} does. Children are compared recursively up to a
+ * fixed depth, below which the pairs left to compare are kept on an explicit stack, so trees of any depth can be
+ * compared. A pair is skipped as soon as it is the same instance, and found unequal as soon as its cached hash codes
+ * differ.
+ */
+public final class StructuralEquality {
+  private static final int MAX_RECURSION_DEPTH = 256;
+
+  private int depth;
+  // The pairs of values left to compare, one after the other.
+  @Nullable
+  private Object[] pending;
+  private int size;
+  // Set in an equality that compares a node with itself only to push its children on this stack.
+  @Nullable
+  private final StructuralHashing hashing;
+
+  StructuralEquality() {
+    this.hashing = null;
+  }
+
+  StructuralEquality(@NotNull StructuralHashing hashing) {
+    this.hashing = hashing;
+  }
+
+  /**
+   * Compares the children {@code a} and {@code b}, or defers the comparison if the trees are too deep to recurse
+   * further. Returns false only if they are known to differ.
+   */
+  public boolean equal(@NotNull Node a, @NotNull Node b) {
+    if (this.hashing != null) {
+      this.hashing.push(a);
+      return true;
+    }
+    if (a == b) {
+      return true;
+    }
+    if (a.hashCodesDiffer(b)) {
+      return false;
+    }
+    if (this.depth == MAX_RECURSION_DEPTH) {
+      return this.defer(a, b);
+    }
+    this.depth++;
+    boolean equal = a.equalFields(b, this);
+    this.depth--;
+    return equal;
+  }
+
+  /** Compares the lists of children {@code a} and {@code b} element by element, as {@link #equal(Node, Node)} does. */
+  public boolean equal(@NotNull List<?> a, @NotNull List<?> b) {
+    if (this.hashing != null) {
+      this.hashing.push(a);
+      return true;
+    }
+    if (a.length != b.length) {
+      return false;
+    }
+    while (a instanceof NonEmptyList && a != b) {
+      if (!this.equalValues(((NonEmptyList<?>) a).head, ((NonEmptyList<?>) b).head)) {
+        return false;
+      }
+      a = ((NonEmptyList<?>) a).tail();
+      b = ((NonEmptyList<?>) b).tail();
+    }
+    return true;
+  }
+
+  /** Compares the optional children {@code a} and {@code b}, as {@link #equal(Node, Node)} does. */
+  public boolean equal(@NotNull Maybe<?> a, @NotNull Maybe<?> b) {
+    if (a.isJust() != b.isJust()) {
+      return false;
+    }
+    return a.isNothing() || this.equalValues(a.just(), b.just());
+  }
+
+  /** Compares the children {@code a} and {@code b}, either of which may be of two types. */
+  public boolean equal(@NotNull Either<?, ?> a, @NotNull Either<?, ?> b) {
+    if (a.isLeft() != b.isLeft()) {
+      return false;
+    }
+    return this.equalValues(value(a), value(b));
+  }
+
+  @SuppressWarnings("ConstantConditions")
+  boolean equalTrees(@NotNull Node a, @NotNull Node b) {
+    if (!this.equal(a, b)) {
+      return false;
+    }
+    while (this.size > 0) {
+      Node right = (Node) this.pending[--this.size];
+      Node left = (Node) this.pending[--this.size];
+      this.pending[this.size] = this.pending[this.size + 1] = null;
+      if (!this.equal(left, right)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // Adds a and b to the pairs compared once the current comparison returns.
+  private boolean defer(@NotNull Node a, @NotNull Node b) {
+    Object[] pending = this.pending;
+    if (pending == null) {
+      pending = this.pending = new Object[16];
+    } else if (this.size + 2 > pending.length) {
+      pending = this.pending = Arrays.copyOf(pending, pending.length * 2);
+    }
+    pending[this.size++] = a;
+    pending[this.size++] = b;
+    return true;
+  }
+
+  private boolean equalValues(@NotNull Object a, @NotNull Object b) {
+    if (a instanceof Node) {
+      return b instanceof Node && this.equal((Node) a, (Node) b);
+    }
+    if (a instanceof Maybe) {
+      return b instanceof Maybe && this.equal((Maybe<?>) a, (Maybe<?>) b);
+    }
+    if (a instanceof List) {
+      return b instanceof List && this.equal((List<?>) a, (List<?>) b);
+    }
+    if (a instanceof Either) {
+      return b instanceof Either && this.equal((Either<?, ?>) a, (Either<?, ?>) b);
+    }
+    return a.equals(b);
+  }
+
+  @NotNull
+  private static Object value(@NotNull Either<?, ?> either) {
+    return either.isLeft() ? either.left().just() : either.right().just();
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2014 Shape Security, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.shapesecurity.shift.ast;
+
+import com.shapesecurity.functional.data.Either;
+import com.shapesecurity.functional.data.List;
+import com.shapesecurity.functional.data.Maybe;
+import com.shapesecurity.functional.data.NonEmptyList;
+
+import java.util.Arrays;
+
+import org.jetbrains.annotations.NotNull;
+
+// Hashes the descendants of a node bottom-up on an explicit stack, so that hashing the node itself only recurses into
+// children whose hash codes are cached, however deep the tree.
+final class StructuralHashing {
+  @NotNull
+  private static final Node[] NO_NODES = new Node[0];
+  @NotNull
+  private static final boolean[] NO_FLAGS = new boolean[0];
+
+  // Finds the children of a node by comparing the node with itself, so that each node type lists its fields only in
+  // equalFields and calcHashCode.
+  @NotNull
+  private final StructuralEquality children = new StructuralEquality(this);
+  // The nodes left to hash, each with whether its children have been pushed above it.
+  @NotNull
+  private Node[] nodes = NO_NODES;
+  @NotNull
+  private boolean[] expanded = NO_FLAGS;
+  private int size;
+
+  private StructuralHashing() {
+  }
+
+  // Caches the hash codes of the descendants of root that have none.
+  static void hashDescendants(@NotNull Node root) {
+    StructuralHashing hashing = new StructuralHashing();
+    root.equalFields(root, hashing.children);
+    hashing.run();
+  }
+
+  private void run() {
+    while (this.size > 0) {
+      Node node = this.nodes[this.size - 1];
+      if (node.isHashed()) {
+        this.nodes[--this.size] = null;
+      } else if (this.expanded[this.size - 1]) {
+        this.nodes[--this.size] = null;
+        node.cacheHashCode();
+      } else {
+        this.expanded[this.size - 1] = true;
+        node.equalFields(node, this.children);
+      }
+    }
+  }
+
+  // Pushes the nodes in the value of a child that have no hash code cached.
+  void push(@NotNull Object child) {
+    if (child instanceof Node) {
+      if (!((Node) child).isHashed()) {
+        this.add((Node) child);
+      }
+    } else if (child instanceof Maybe) {
+      if (((Maybe<?>) child).isJust()) {
+        this.push(((Maybe<?>) child).just());
+      }
+    } else if (child instanceof List) {
+      for (List<?> list = (List<?>) child; list instanceof NonEmptyList; list = ((NonEmptyList<?>) list).tail()) {
+        this.push(((NonEmptyList<?>) list).head);
+      }
+    } else if (child instanceof Either) {
+      Either<?, ?> either = (Either<?, ?>) child;
+      this.push(either.isLeft() ? either.left().just() : either.right().just());
+    }
+  }
+
+  private void add(@NotNull Node node) {
+    if (this.size == this.nodes.length) {
+      int length = Math.max(16, this.size * 2);
+      this.nodes = Arrays.copyOf(this.nodes, length);
+      this.expanded = Arrays.copyOf(this.expanded, length);
+    }
+    this.nodes[this.size] = node;
+    this.expanded[this.size++] = false;
+  }
+}
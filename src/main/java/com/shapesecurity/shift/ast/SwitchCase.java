@@ -16,6 +16,7 @@
 
 package com.shapesecurity.shift.ast;
 
+import com.shapesecurity.functional.data.HashCodeBuilder;
 import com.shapesecurity.functional.data.List;
 import com.shapesecurity.shift.ast.types.Type;
 
@@ -40,9 +41,18 @@ public class SwitchCase extends Node {
   }
 
   @Override
-  public boolean equals(Object object) {
-    return object instanceof SwitchCase && this.test.equals(((SwitchCase) object).test) && this.consequent.equals(
-        ((SwitchCase) object).consequent);
+  protected boolean equalFields(@NotNull Node other, @NotNull StructuralEquality equality) {
+    return other instanceof SwitchCase &&
+        equality.equal(this.test, ((SwitchCase) other).test) &&
+        equality.equal(this.consequent, ((SwitchCase) other).consequent);
+  }
+
+  @Override
+  protected int calcHashCode() {
+    int start = HashCodeBuilder.put(0, "SwitchCase");
+    start = HashCodeBuilder.put(start, this.test);
+    start = HashCodeBuilder.put(start, this.consequent);
+    return start;
   }
 
   @NotNull
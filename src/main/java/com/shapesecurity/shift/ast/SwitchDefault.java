@@ -16,6 +16,7 @@
 
 package com.shapesecurity.shift.ast;
 
+import com.shapesecurity.functional.data.HashCodeBuilder;
 import com.shapesecurity.functional.data.List;
 import com.shapesecurity.shift.ast.types.Type;
 import com.shapesecurity.shift.visitor.TransformerP;
@@ -38,8 +39,16 @@ public class SwitchDefault extends Node {
   }
 
   @Override
-  public boolean equals(Object object) {
-    return object instanceof SwitchDefault && this.consequent.equals(((SwitchDefault) object).consequent);
+  protected boolean equalFields(@NotNull Node other, @NotNull StructuralEquality equality) {
+    return other instanceof SwitchDefault &&
+        equality.equal(this.consequent, ((SwitchDefault) other).consequent);
+  }
+
+  @Override
+  protected int calcHashCode() {
+    int start = HashCodeBuilder.put(0, "SwitchDefault");
+    start = HashCodeBuilder.put(start, this.consequent);
+    return start;
   }
 
   @NotNull
@@ -16,6 +16,7 @@
 
 package com.shapesecurity.shift.ast;
 
+import com.shapesecurity.functional.data.HashCodeBuilder;
 import com.shapesecurity.functional.data.NonEmptyList;
 import com.shapesecurity.shift.ast.types.Type;
 import com.shapesecurity.shift.visitor.TransformerP;
@@ -43,10 +44,10 @@ public class VariableDeclaration extends Node {
   }
 
   @Override
-  public boolean equals(Object obj) {
-    return obj instanceof VariableDeclaration &&
-           ((VariableDeclaration) obj).declarators.equals(this.declarators) &&
-           ((VariableDeclaration) obj).kind.equals(this.kind);
+  protected boolean equalFields(@NotNull Node other, @NotNull StructuralEquality equality) {
+    return other instanceof VariableDeclaration &&
+        this.kind == ((VariableDeclaration) other).kind &&
+        equality.equal(this.declarators, ((VariableDeclaration) other).declarators);
   }
 
   public static enum VariableDeclarationKind {
@@ -84,4 +85,12 @@ public class VariableDeclaration extends Node {
   public VariableDeclaration setDeclarators(@NotNull NonEmptyList<VariableDeclarator> declarators) {
     return new VariableDeclaration(this.kind, declarators);
   }
+
+  @Override
+  protected int calcHashCode() {
+    int start = HashCodeBuilder.put(0, "VariableDeclaration");
+    start = HashCodeBuilder.put(start, this.kind);
+    start = HashCodeBuilder.put(start, this.declarators);
+    return start;
+  }
 }
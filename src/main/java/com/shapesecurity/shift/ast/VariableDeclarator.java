@@ -16,6 +16,7 @@
 
 package com.shapesecurity.shift.ast;
 
+import com.shapesecurity.functional.data.HashCodeBuilder;
 import com.shapesecurity.functional.data.Maybe;
 import com.shapesecurity.shift.ast.types.Type;
 import com.shapesecurity.shift.visitor.TransformerP;
@@ -41,9 +42,18 @@ public class VariableDeclarator extends Node {
   }
 
   @Override
-  public boolean equals(Object object) {
-    return object instanceof VariableDeclarator && this.binding.equals(((VariableDeclarator) object).binding) &&
-        this.init.equals(((VariableDeclarator) object).init);
+  protected boolean equalFields(@NotNull Node other, @NotNull StructuralEquality equality) {
+    return other instanceof VariableDeclarator &&
+        equality.equal(this.binding, ((VariableDeclarator) other).binding) &&
+        equality.equal(this.init, ((VariableDeclarator) other).init);
+  }
+
+  @Override
+  protected int calcHashCode() {
+    int start = HashCodeBuilder.put(0, "VariableDeclarator");
+    start = HashCodeBuilder.put(start, this.binding);
+    start = HashCodeBuilder.put(start, this.init);
+    return start;
   }
 
   @NotNull
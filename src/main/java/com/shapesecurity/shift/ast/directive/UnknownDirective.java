@@ -16,7 +16,10 @@
 
 package com.shapesecurity.shift.ast.directive;
 
+import com.shapesecurity.functional.data.HashCodeBuilder;
 import com.shapesecurity.shift.ast.Directive;
+import com.shapesecurity.shift.ast.Node;
+import com.shapesecurity.shift.ast.StructuralEquality;
 import com.shapesecurity.shift.ast.types.Type;
 
 import org.jetbrains.annotations.NotNull;
@@ -43,7 +46,15 @@ public class UnknownDirective extends Directive {
   }
 
   @Override
-  public boolean equals(Object object) {
-    return object instanceof UnknownDirective && this.value.equals(((UnknownDirective) object).value);
+  protected boolean equalFields(@NotNull Node other, @NotNull StructuralEquality equality) {
+    return other instanceof UnknownDirective &&
+        this.value.equals(((UnknownDirective) other).value);
+  }
+
+  @Override
+  protected int calcHashCode() {
+    int start = HashCodeBuilder.put(0, "UnknownDirective");
+    start = HashCodeBuilder.put(start, this.value);
+    return start;
   }
 }
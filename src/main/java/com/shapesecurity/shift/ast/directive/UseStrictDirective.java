@@ -16,7 +16,10 @@
 
 package com.shapesecurity.shift.ast.directive;
 
+import com.shapesecurity.functional.data.HashCodeBuilder;
 import com.shapesecurity.shift.ast.Directive;
+import com.shapesecurity.shift.ast.Node;
+import com.shapesecurity.shift.ast.StructuralEquality;
 import com.shapesecurity.shift.ast.types.Type;
 
 import org.jetbrains.annotations.NotNull;
@@ -35,7 +38,12 @@ public class UseStrictDirective extends Directive {
   }
 
   @Override
-  public boolean equals(Object object) {
-    return object instanceof UseStrictDirective;
+  protected boolean equalFields(@NotNull Node other, @NotNull StructuralEquality equality) {
+    return other instanceof UseStrictDirective;
+  }
+
+  @Override
+  protected int calcHashCode() {
+    return HashCodeBuilder.put(0, "UseStrictDirective");
   }
 }
@@ -16,9 +16,12 @@
 
 package com.shapesecurity.shift.ast.expression;
 
+import com.shapesecurity.functional.data.HashCodeBuilder;
 import com.shapesecurity.functional.data.List;
 import com.shapesecurity.functional.data.Maybe;
 import com.shapesecurity.shift.ast.Expression;
+import com.shapesecurity.shift.ast.Node;
+import com.shapesecurity.shift.ast.StructuralEquality;
 import com.shapesecurity.shift.ast.types.Type;
 
 import org.jetbrains.annotations.NotNull;
@@ -39,8 +42,16 @@ public class ArrayExpression extends PrimaryExpression {
   }
 
   @Override
-  public boolean equals(Object object) {
-    return object instanceof ArrayExpression && this.elements.equals(((ArrayExpression) object).elements);
+  protected boolean equalFields(@NotNull Node other, @NotNull StructuralEquality equality) {
+    return other instanceof ArrayExpression &&
+        equality.equal(this.elements, ((ArrayExpression) other).elements);
+  }
+
+  @Override
+  protected int calcHashCode() {
+    int start = HashCodeBuilder.put(0, "ArrayExpression");
+    start = HashCodeBuilder.put(start, this.elements);
+    return start;
   }
 
   @NotNull
@@ -16,7 +16,10 @@
 
 package com.shapesecurity.shift.ast.expression;
 
+import com.shapesecurity.functional.data.HashCodeBuilder;
 import com.shapesecurity.shift.ast.Expression;
+import com.shapesecurity.shift.ast.Node;
+import com.shapesecurity.shift.ast.StructuralEquality;
 import com.shapesecurity.shift.ast.operators.AssignmentOperator;
 import com.shapesecurity.shift.ast.operators.Precedence;
 import com.shapesecurity.shift.ast.types.Type;
@@ -54,10 +57,20 @@ public class AssignmentExpression extends Expression {
   }
 
   @Override
-  public boolean equals(Object object) {
-    return object instanceof AssignmentExpression && this.operator.equals(((AssignmentExpression) object).operator) &&
-           this.binding.equals(((AssignmentExpression) object).binding) &&
-           this.expression.equals(((AssignmentExpression) object).expression);
+  protected boolean equalFields(@NotNull Node other, @NotNull StructuralEquality equality) {
+    return other instanceof AssignmentExpression &&
+        this.operator == ((AssignmentExpression) other).operator &&
+        equality.equal(this.binding, ((AssignmentExpression) other).binding) &&
+        equality.equal(this.expression, ((AssignmentExpression) other).expression);
+  }
+
+  @Override
+  protected int calcHashCode() {
+    int start = HashCodeBuilder.put(0, "AssignmentExpression");
+    start = HashCodeBuilder.put(start, this.operator);
+    start = HashCodeBuilder.put(start, this.binding);
+    start = HashCodeBuilder.put(start, this.expression);
+    return start;
   }
 
   @NotNull
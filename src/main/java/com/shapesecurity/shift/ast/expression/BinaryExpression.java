@@ -16,7 +16,10 @@
 
 package com.shapesecurity.shift.ast.expression;
 
+import com.shapesecurity.functional.data.HashCodeBuilder;
 import com.shapesecurity.shift.ast.Expression;
+import com.shapesecurity.shift.ast.Node;
+import com.shapesecurity.shift.ast.StructuralEquality;
 import com.shapesecurity.shift.ast.operators.BinaryOperator;
 import com.shapesecurity.shift.ast.operators.Precedence;
 import com.shapesecurity.shift.ast.types.Type;
@@ -51,10 +54,20 @@ public class BinaryExpression extends Expression {
   }
 
   @Override
-  public boolean equals(Object object) {
-    return object instanceof BinaryExpression && this.operator.equals(((BinaryExpression) object).operator) &&
-           this.left.equals(((BinaryExpression) object).left) &&
-           this.right.equals(((BinaryExpression) object).right);
+  protected boolean equalFields(@NotNull Node other, @NotNull StructuralEquality equality) {
+    return other instanceof BinaryExpression &&
+        this.operator == ((BinaryExpression) other).operator &&
+        equality.equal(this.left, ((BinaryExpression) other).left) &&
+        equality.equal(this.right, ((BinaryExpression) other).right);
+  }
+
+  @Override
+  protected int calcHashCode() {
+    int start = HashCodeBuilder.put(0, "BinaryExpression");
+    start = HashCodeBuilder.put(start, this.operator);
+    start = HashCodeBuilder.put(start, this.left);
+    start = HashCodeBuilder.put(start, this.right);
+    return start;
   }
 
   @NotNull
@@ -16,8 +16,11 @@
 
 package com.shapesecurity.shift.ast.expression;
 
+import com.shapesecurity.functional.data.HashCodeBuilder;
 import com.shapesecurity.functional.data.List;
 import com.shapesecurity.shift.ast.Expression;
+import com.shapesecurity.shift.ast.Node;
+import com.shapesecurity.shift.ast.StructuralEquality;
 import com.shapesecurity.shift.ast.operators.Precedence;
 import com.shapesecurity.shift.ast.types.Type;
 
@@ -47,10 +50,18 @@ public class CallExpression extends LeftHandSideExpression {
   }
 
   @Override
-  public boolean equals(Object object) {
-    return object instanceof CallExpression &&
-           this.callee.equals(((CallExpression) object).callee) &&
-           this.arguments.equals(((CallExpression) object).arguments);
+  protected boolean equalFields(@NotNull Node other, @NotNull StructuralEquality equality) {
+    return other instanceof CallExpression &&
+        equality.equal(this.callee, ((CallExpression) other).callee) &&
+        equality.equal(this.arguments, ((CallExpression) other).arguments);
+  }
+
+  @Override
+  protected int calcHashCode() {
+    int start = HashCodeBuilder.put(0, "CallExpression");
+    start = HashCodeBuilder.put(start, this.callee);
+    start = HashCodeBuilder.put(start, this.arguments);
+    return start;
   }
 
   @NotNull
@@ -16,7 +16,10 @@
 
 package com.shapesecurity.shift.ast.expression;
 
+import com.shapesecurity.functional.data.HashCodeBuilder;
 import com.shapesecurity.shift.ast.Expression;
+import com.shapesecurity.shift.ast.Node;
+import com.shapesecurity.shift.ast.StructuralEquality;
 import com.shapesecurity.shift.ast.types.Type;
 
 import org.jetbrains.annotations.NotNull;
@@ -37,10 +40,18 @@ public class ComputedMemberExpression extends MemberExpression {
   }
 
   @Override
-  public boolean equals(Object object) {
-    return object instanceof ComputedMemberExpression &&
-           this.object.equals(((ComputedMemberExpression) object).object) &&
-           this.expression.equals(((ComputedMemberExpression) object).expression);
+  protected boolean equalFields(@NotNull Node other, @NotNull StructuralEquality equality) {
+    return other instanceof ComputedMemberExpression &&
+        equality.equal(this.expression, ((ComputedMemberExpression) other).expression) &&
+        equality.equal(this.object, ((ComputedMemberExpression) other).object);
+  }
+
+  @Override
+  protected int calcHashCode() {
+    int start = HashCodeBuilder.put(0, "ComputedMemberExpression");
+    start = HashCodeBuilder.put(start, this.expression);
+    start = HashCodeBuilder.put(start, this.object);
+    return start;
   }
 
   @NotNull
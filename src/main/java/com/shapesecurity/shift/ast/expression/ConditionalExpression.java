@@ -16,7 +16,10 @@
 
 package com.shapesecurity.shift.ast.expression;
 
+import com.shapesecurity.functional.data.HashCodeBuilder;
 import com.shapesecurity.shift.ast.Expression;
+import com.shapesecurity.shift.ast.Node;
+import com.shapesecurity.shift.ast.StructuralEquality;
 import com.shapesecurity.shift.ast.operators.Precedence;
 import com.shapesecurity.shift.ast.types.Type;
 
@@ -51,11 +54,20 @@ public class ConditionalExpression extends Expression {
   }
 
   @Override
-  public boolean equals(Object object) {
-    return object instanceof ConditionalExpression &&
-           this.test.equals(((ConditionalExpression) object).test) &&
-           this.consequent.equals(((ConditionalExpression) object).consequent) &&
-           this.alternate.equals(((ConditionalExpression) object).alternate);
+  protected boolean equalFields(@NotNull Node other, @NotNull StructuralEquality equality) {
+    return other instanceof ConditionalExpression &&
+        equality.equal(this.test, ((ConditionalExpression) other).test) &&
+        equality.equal(this.consequent, ((ConditionalExpression) other).consequent) &&
+        equality.equal(this.alternate, ((ConditionalExpression) other).alternate);
+  }
+
+  @Override
+  protected int calcHashCode() {
+    int start = HashCodeBuilder.put(0, "ConditionalExpression");
+    start = HashCodeBuilder.put(start, this.test);
+    start = HashCodeBuilder.put(start, this.consequent);
+    start = HashCodeBuilder.put(start, this.alternate);
+    return start;
   }
 
   @NotNull
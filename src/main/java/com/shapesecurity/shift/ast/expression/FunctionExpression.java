@@ -16,11 +16,14 @@
 
 package com.shapesecurity.shift.ast.expression;
 
+import com.shapesecurity.functional.data.HashCodeBuilder;
 import com.shapesecurity.functional.data.List;
 import com.shapesecurity.functional.data.Maybe;
 import com.shapesecurity.shift.ast.Function;
 import com.shapesecurity.shift.ast.FunctionBody;
 import com.shapesecurity.shift.ast.Identifier;
+import com.shapesecurity.shift.ast.Node;
+import com.shapesecurity.shift.ast.StructuralEquality;
 import com.shapesecurity.shift.ast.types.Type;
 
 import org.jetbrains.annotations.NotNull;
@@ -50,10 +53,20 @@ public class FunctionExpression extends PrimaryExpression implements Function {
   }
 
   @Override
-  public boolean equals(Object object) {
-    return object instanceof FunctionExpression && this.name.equals(((FunctionExpression) object).name) &&
-        this.parameters.equals(((FunctionExpression) object).parameters) &&
-        this.body.equals(((FunctionExpression) object).body);
+  protected boolean equalFields(@NotNull Node other, @NotNull StructuralEquality equality) {
+    return other instanceof FunctionExpression &&
+        equality.equal(this.name, ((FunctionExpression) other).name) &&
+        equality.equal(this.parameters, ((FunctionExpression) other).parameters) &&
+        equality.equal(this.body, ((FunctionExpression) other).body);
+  }
+
+  @Override
+  protected int calcHashCode() {
+    int start = HashCodeBuilder.put(0, "FunctionExpression");
+    start = HashCodeBuilder.put(start, this.name);
+    start = HashCodeBuilder.put(start, this.parameters);
+    start = HashCodeBuilder.put(start, this.body);
+    return start;
   }
 
   @NotNull
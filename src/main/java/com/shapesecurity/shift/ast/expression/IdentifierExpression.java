@@ -16,7 +16,10 @@
 
 package com.shapesecurity.shift.ast.expression;
 
+import com.shapesecurity.functional.data.HashCodeBuilder;
 import com.shapesecurity.shift.ast.Identifier;
+import com.shapesecurity.shift.ast.Node;
+import com.shapesecurity.shift.ast.StructuralEquality;
 import com.shapesecurity.shift.ast.types.Type;
 
 import org.jetbrains.annotations.NotNull;
@@ -37,8 +40,16 @@ public class IdentifierExpression extends PrimaryExpression {
   }
 
   @Override
-  public boolean equals(Object object) {
-    return object instanceof IdentifierExpression && this.identifier.equals(((IdentifierExpression) object).identifier);
+  protected boolean equalFields(@NotNull Node other, @NotNull StructuralEquality equality) {
+    return other instanceof IdentifierExpression &&
+        equality.equal(this.identifier, ((IdentifierExpression) other).identifier);
+  }
+
+  @Override
+  protected int calcHashCode() {
+    int start = HashCodeBuilder.put(0, "IdentifierExpression");
+    start = HashCodeBuilder.put(start, this.identifier);
+    return start;
   }
 
   @NotNull
@@ -16,6 +16,9 @@
 
 package com.shapesecurity.shift.ast.expression;
 
+import com.shapesecurity.functional.data.HashCodeBuilder;
+import com.shapesecurity.shift.ast.Node;
+import com.shapesecurity.shift.ast.StructuralEquality;
 import com.shapesecurity.shift.ast.types.Type;
 
 import org.jetbrains.annotations.NotNull;
@@ -35,7 +38,15 @@ public class LiteralBooleanExpression extends LiteralExpression {
   }
 
   @Override
-  public boolean equals(Object object) {
-    return object instanceof LiteralBooleanExpression && this.value == ((LiteralBooleanExpression) object).value;
+  protected boolean equalFields(@NotNull Node other, @NotNull StructuralEquality equality) {
+    return other instanceof LiteralBooleanExpression &&
+        this.value == ((LiteralBooleanExpression) other).value;
+  }
+
+  @Override
+  protected int calcHashCode() {
+    int start = HashCodeBuilder.put(0, "LiteralBooleanExpression");
+    start = HashCodeBuilder.put(start, Boolean.hashCode(this.value));
+    return start;
   }
 }
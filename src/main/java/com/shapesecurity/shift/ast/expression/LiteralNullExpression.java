@@ -16,6 +16,9 @@
 
 package com.shapesecurity.shift.ast.expression;
 
+import com.shapesecurity.functional.data.HashCodeBuilder;
+import com.shapesecurity.shift.ast.Node;
+import com.shapesecurity.shift.ast.StructuralEquality;
 import com.shapesecurity.shift.ast.types.Type;
 
 import org.jetbrains.annotations.NotNull;
@@ -29,7 +32,12 @@ public class LiteralNullExpression extends LiteralExpression {
   }
 
   @Override
-  public boolean equals(Object object) {
-    return object instanceof LiteralNullExpression;
+  protected boolean equalFields(@NotNull Node other, @NotNull StructuralEquality equality) {
+    return other instanceof LiteralNullExpression;
+  }
+
+  @Override
+  protected int calcHashCode() {
+    return HashCodeBuilder.put(0, "LiteralNullExpression");
   }
 }
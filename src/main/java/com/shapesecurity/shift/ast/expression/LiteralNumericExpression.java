@@ -16,6 +16,9 @@
 
 package com.shapesecurity.shift.ast.expression;
 
+import com.shapesecurity.functional.data.HashCodeBuilder;
+import com.shapesecurity.shift.ast.Node;
+import com.shapesecurity.shift.ast.StructuralEquality;
 import com.shapesecurity.shift.ast.types.Type;
 
 import org.jetbrains.annotations.NotNull;
@@ -35,7 +38,15 @@ public class LiteralNumericExpression extends LiteralExpression {
   }
 
   @Override
-  public boolean equals(Object object) {
-    return object instanceof LiteralNumericExpression && this.value == ((LiteralNumericExpression) object).value;
+  protected boolean equalFields(@NotNull Node other, @NotNull StructuralEquality equality) {
+    return other instanceof LiteralNumericExpression &&
+        this.value == ((LiteralNumericExpression) other).value;
+  }
+
+  @Override
+  protected int calcHashCode() {
+    int start = HashCodeBuilder.put(0, "LiteralNumericExpression");
+    start = HashCodeBuilder.put(start, Double.hashCode(this.value));
+    return start;
   }
 }
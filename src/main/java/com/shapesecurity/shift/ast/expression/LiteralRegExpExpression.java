@@ -16,6 +16,9 @@
 
 package com.shapesecurity.shift.ast.expression;
 
+import com.shapesecurity.functional.data.HashCodeBuilder;
+import com.shapesecurity.shift.ast.Node;
+import com.shapesecurity.shift.ast.StructuralEquality;
 import com.shapesecurity.shift.ast.types.Type;
 
 import org.jetbrains.annotations.NotNull;
@@ -36,7 +39,15 @@ public class LiteralRegExpExpression extends LiteralExpression {
   }
 
   @Override
-  public boolean equals(Object object) {
-    return object instanceof LiteralRegExpExpression && this.value.equals(((LiteralRegExpExpression) object).value);
+  protected boolean equalFields(@NotNull Node other, @NotNull StructuralEquality equality) {
+    return other instanceof LiteralRegExpExpression &&
+        this.value.equals(((LiteralRegExpExpression) other).value);
+  }
+
+  @Override
+  protected int calcHashCode() {
+    int start = HashCodeBuilder.put(0, "LiteralRegExpExpression");
+    start = HashCodeBuilder.put(start, this.value);
+    return start;
   }
 }
@@ -16,17 +16,88 @@
 
 package com.shapesecurity.shift.ast.expression;
 
+import com.shapesecurity.functional.data.HashCodeBuilder;
+import com.shapesecurity.shift.ast.Node;
+import com.shapesecurity.shift.ast.StructuralEquality;
 import com.shapesecurity.shift.ast.types.Type;
+import com.shapesecurity.shift.parser.SourceRange;
+import com.shapesecurity.shift.utils.Utils;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public class LiteralStringExpression extends LiteralExpression {
-  @NotNull
+  /**
+   * The value of the literal. Null only in a literal created from its source text alone, which the parser does for
+   * literals with escapes, whose value is decoded from {@link #getRaw()} on the first call to {@link #getValue()}.
+   */
+  @Nullable
   public final String value;
+  // The literal as written, quotes included, if it was parsed.
+  @Nullable
+  private final SourceRange raw;
+  @Nullable
+  private String decoded;
 
   public LiteralStringExpression(@NotNull String value) {
     super();
     this.value = value;
+    this.raw = null;
+  }
+
+  /** Creates a literal whose value is decoded from {@code raw}, its source text with its quotes, when first needed. */
+  public LiteralStringExpression(@NotNull SourceRange raw) {
+    super();
+    this.value = null;
+    this.raw = raw;
+  }
+
+  /**
+   * Creates a literal parsed from {@code raw}, which must be {@code value} in quotes without escapes.
+   *
+   * @throws IllegalArgumentException if {@code raw} is not {@code value} quoted
+   */
+  public LiteralStringExpression(@NotNull String value, @NotNull SourceRange raw) {
+    super();
+    if (!isQuoted(value, raw)) {
+      throw new IllegalArgumentException("Source text " + raw + " is not the literal of " + value);
+    }
+    this.value = value;
+    this.raw = raw;
+  }
+
+  private static boolean isQuoted(@NotNull String value, @NotNull SourceRange raw) {
+    int length = value.length();
+    if (raw.length() != length + 2 || raw.charAt(0) != raw.charAt(length + 1) ||
+        (raw.charAt(0) != '"' && raw.charAt(0) != '\'')) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      char ch = value.charAt(i);
+      if (raw.charAt(i + 1) != ch || ch == '\\' || ch == raw.charAt(0)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @SuppressWarnings("ConstantConditions")
+  @NotNull
+  public String getValue() {
+    if (this.value != null) {
+      return this.value;
+    }
+    String decoded = this.decoded;
+    if (decoded == null) {
+      decoded = this.decoded = Utils.unescapeStringLiteral(this.raw);
+    }
+    return decoded;
+  }
+
+  /** The source text of the literal, with its quotes, or null if it was not parsed. */
+  @Nullable
+  public SourceRange getRaw() {
+    return this.raw;
   }
 
   @NotNull
@@ -36,7 +107,13 @@ public class LiteralStringExpression extends LiteralExpression {
   }
 
   @Override
-  public boolean equals(Object object) {
-    return object instanceof LiteralStringExpression && this.value.equals(((LiteralStringExpression) object).value);
+  protected boolean equalFields(@NotNull Node other, @NotNull StructuralEquality equality) {
+    return other instanceof LiteralStringExpression &&
+        this.getValue().equals(((LiteralStringExpression) other).getValue());
+  }
+
+  @Override
+  protected int calcHashCode() {
+    return HashCodeBuilder.put(HashCodeBuilder.put(0, "LiteralStringExpression"), this.getValue());
   }
 }
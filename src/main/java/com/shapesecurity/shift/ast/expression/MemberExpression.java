@@ -36,11 +36,6 @@ public abstract class MemberExpression extends LeftHandSideExpression {
            this.object.getPrecedence() : Precedence.MEMBER;
   }
 
-  @Override
-  public boolean equals(Object obj) {
-    return obj instanceof MemberExpression && this.object.equals(((MemberExpression) obj).object);
-  }
-
   @NotNull
   public Expression getObject() {
     return this.object;
@@ -16,8 +16,11 @@
 
 package com.shapesecurity.shift.ast.expression;
 
+import com.shapesecurity.functional.data.HashCodeBuilder;
 import com.shapesecurity.functional.data.List;
 import com.shapesecurity.shift.ast.Expression;
+import com.shapesecurity.shift.ast.Node;
+import com.shapesecurity.shift.ast.StructuralEquality;
 import com.shapesecurity.shift.ast.operators.Precedence;
 import com.shapesecurity.shift.ast.types.Type;
 
@@ -47,9 +50,18 @@ public class NewExpression extends LeftHandSideExpression {
   }
 
   @Override
-  public boolean equals(Object object) {
-    return object instanceof NewExpression && this.callee.equals(((NewExpression) object).callee) &&
-           this.arguments.equals(((NewExpression) object).arguments);
+  protected boolean equalFields(@NotNull Node other, @NotNull StructuralEquality equality) {
+    return other instanceof NewExpression &&
+        equality.equal(this.callee, ((NewExpression) other).callee) &&
+        equality.equal(this.arguments, ((NewExpression) other).arguments);
+  }
+
+  @Override
+  protected int calcHashCode() {
+    int start = HashCodeBuilder.put(0, "NewExpression");
+    start = HashCodeBuilder.put(start, this.callee);
+    start = HashCodeBuilder.put(start, this.arguments);
+    return start;
   }
 
   @NotNull
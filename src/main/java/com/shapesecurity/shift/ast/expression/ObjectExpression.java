@@ -16,7 +16,10 @@
 
 package com.shapesecurity.shift.ast.expression;
 
+import com.shapesecurity.functional.data.HashCodeBuilder;
 import com.shapesecurity.functional.data.List;
+import com.shapesecurity.shift.ast.Node;
+import com.shapesecurity.shift.ast.StructuralEquality;
 import com.shapesecurity.shift.ast.property.ObjectProperty;
 import com.shapesecurity.shift.ast.types.Type;
 
@@ -38,8 +41,16 @@ public class ObjectExpression extends PrimaryExpression {
   }
 
   @Override
-  public boolean equals(Object object) {
-    return object instanceof ObjectExpression && this.properties.equals(((ObjectExpression) object).properties);
+  protected boolean equalFields(@NotNull Node other, @NotNull StructuralEquality equality) {
+    return other instanceof ObjectExpression &&
+        equality.equal(this.properties, ((ObjectExpression) other).properties);
+  }
+
+  @Override
+  protected int calcHashCode() {
+    int start = HashCodeBuilder.put(0, "ObjectExpression");
+    start = HashCodeBuilder.put(start, this.properties);
+    return start;
   }
 
   @NotNull
@@ -16,7 +16,10 @@
 
 package com.shapesecurity.shift.ast.expression;
 
+import com.shapesecurity.functional.data.HashCodeBuilder;
 import com.shapesecurity.shift.ast.Expression;
+import com.shapesecurity.shift.ast.Node;
+import com.shapesecurity.shift.ast.StructuralEquality;
 import com.shapesecurity.shift.ast.operators.PostfixOperator;
 import com.shapesecurity.shift.ast.operators.Precedence;
 import com.shapesecurity.shift.ast.types.Type;
@@ -44,9 +47,18 @@ public class PostfixExpression extends UnaryExpression {
   }
 
   @Override
-  public boolean equals(Object object) {
-    return object instanceof PostfixExpression && this.operand.equals(((PostfixExpression) object).operand) &&
-        this.operator.equals(((PostfixExpression) object).operator);
+  protected boolean equalFields(@NotNull Node other, @NotNull StructuralEquality equality) {
+    return other instanceof PostfixExpression &&
+        this.operator == ((PostfixExpression) other).operator &&
+        equality.equal(this.operand, ((PostfixExpression) other).operand);
+  }
+
+  @Override
+  protected int calcHashCode() {
+    int start = HashCodeBuilder.put(0, "PostfixExpression");
+    start = HashCodeBuilder.put(start, this.operator);
+    start = HashCodeBuilder.put(start, this.operand);
+    return start;
   }
 
   @NotNull
@@ -16,7 +16,10 @@
 
 package com.shapesecurity.shift.ast.expression;
 
+import com.shapesecurity.functional.data.HashCodeBuilder;
 import com.shapesecurity.shift.ast.Expression;
+import com.shapesecurity.shift.ast.Node;
+import com.shapesecurity.shift.ast.StructuralEquality;
 import com.shapesecurity.shift.ast.operators.Precedence;
 import com.shapesecurity.shift.ast.operators.PrefixOperator;
 import com.shapesecurity.shift.ast.types.Type;
@@ -44,9 +47,18 @@ public class PrefixExpression extends UnaryExpression {
   }
 
   @Override
-  public boolean equals(Object object) {
-    return object instanceof PrefixExpression && this.operator.equals(((PrefixExpression) object).operator) &&
-        this.operand.equals(((PrefixExpression) object).operand);
+  protected boolean equalFields(@NotNull Node other, @NotNull StructuralEquality equality) {
+    return other instanceof PrefixExpression &&
+        this.operator == ((PrefixExpression) other).operator &&
+        equality.equal(this.operand, ((PrefixExpression) other).operand);
+  }
+
+  @Override
+  protected int calcHashCode() {
+    int start = HashCodeBuilder.put(0, "PrefixExpression");
+    start = HashCodeBuilder.put(start, this.operator);
+    start = HashCodeBuilder.put(start, this.operand);
+    return start;
   }
 
   @NotNull
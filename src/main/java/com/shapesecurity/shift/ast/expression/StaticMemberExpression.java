@@ -16,8 +16,11 @@
 
 package com.shapesecurity.shift.ast.expression;
 
+import com.shapesecurity.functional.data.HashCodeBuilder;
 import com.shapesecurity.shift.ast.Expression;
 import com.shapesecurity.shift.ast.Identifier;
+import com.shapesecurity.shift.ast.Node;
+import com.shapesecurity.shift.ast.StructuralEquality;
 import com.shapesecurity.shift.ast.types.Type;
 
 import org.jetbrains.annotations.NotNull;
@@ -38,10 +41,18 @@ public class StaticMemberExpression extends MemberExpression {
   }
 
   @Override
-  public boolean equals(Object object) {
-    return object instanceof StaticMemberExpression &&
-        this.object.equals(((StaticMemberExpression) object).object) &&
-        this.property.equals(((StaticMemberExpression) object).property);
+  protected boolean equalFields(@NotNull Node other, @NotNull StructuralEquality equality) {
+    return other instanceof StaticMemberExpression &&
+        equality.equal(this.property, ((StaticMemberExpression) other).property) &&
+        equality.equal(this.object, ((StaticMemberExpression) other).object);
+  }
+
+  @Override
+  protected int calcHashCode() {
+    int start = HashCodeBuilder.put(0, "StaticMemberExpression");
+    start = HashCodeBuilder.put(start, this.property);
+    start = HashCodeBuilder.put(start, this.object);
+    return start;
   }
 
   @NotNull
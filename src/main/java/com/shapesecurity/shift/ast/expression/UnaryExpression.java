@@ -30,11 +30,6 @@ public abstract class UnaryExpression extends Expression {
     this.operand = operand;
   }
 
-  @Override
-  public boolean equals(Object object) {
-    return object instanceof UnaryExpression && this.operand.equals(((UnaryExpression) object).operand);
-  }
-
   public Precedence getPrecedence() {
     return Precedence.PRIMARY;
   }
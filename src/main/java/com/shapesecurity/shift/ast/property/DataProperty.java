@@ -16,7 +16,10 @@
 
 package com.shapesecurity.shift.ast.property;
 
+import com.shapesecurity.functional.data.HashCodeBuilder;
 import com.shapesecurity.shift.ast.Expression;
+import com.shapesecurity.shift.ast.Node;
+import com.shapesecurity.shift.ast.StructuralEquality;
 import com.shapesecurity.shift.ast.types.Type;
 
 import org.jetbrains.annotations.NotNull;
@@ -43,9 +46,18 @@ public class DataProperty extends ObjectProperty {
   }
 
   @Override
-  public boolean equals(Object object) {
-    return object instanceof DataProperty && this.name.equals(((DataProperty) object).name) &&
-           this.value.equals(((DataProperty) object).value);
+  protected boolean equalFields(@NotNull Node other, @NotNull StructuralEquality equality) {
+    return other instanceof DataProperty &&
+        equality.equal(this.value, ((DataProperty) other).value) &&
+        equality.equal(this.name, ((DataProperty) other).name);
+  }
+
+  @Override
+  protected int calcHashCode() {
+    int start = HashCodeBuilder.put(0, "DataProperty");
+    start = HashCodeBuilder.put(start, this.value);
+    start = HashCodeBuilder.put(start, this.name);
+    return start;
   }
 
   @NotNull
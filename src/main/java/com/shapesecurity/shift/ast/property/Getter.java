@@ -16,7 +16,10 @@
 
 package com.shapesecurity.shift.ast.property;
 
+import com.shapesecurity.functional.data.HashCodeBuilder;
 import com.shapesecurity.shift.ast.FunctionBody;
+import com.shapesecurity.shift.ast.Node;
+import com.shapesecurity.shift.ast.StructuralEquality;
 import com.shapesecurity.shift.ast.types.Type;
 
 import org.jetbrains.annotations.NotNull;
@@ -39,9 +42,18 @@ public class Getter extends AccessorProperty {
   }
 
   @Override
-  public boolean equals(Object object) {
-    return object instanceof Getter && this.name.equals(((Getter) object).name) &&
-           this.body.equals(((Getter) object).body);
+  protected boolean equalFields(@NotNull Node other, @NotNull StructuralEquality equality) {
+    return other instanceof Getter &&
+        equality.equal(this.body, ((Getter) other).body) &&
+        equality.equal(this.name, ((Getter) other).name);
+  }
+
+  @Override
+  protected int calcHashCode() {
+    int start = HashCodeBuilder.put(0, "Getter");
+    start = HashCodeBuilder.put(start, this.body);
+    start = HashCodeBuilder.put(start, this.name);
+    return start;
   }
 
   @NotNull
@@ -16,8 +16,10 @@
 
 package com.shapesecurity.shift.ast.property;
 
+import com.shapesecurity.functional.data.HashCodeBuilder;
 import com.shapesecurity.shift.ast.Identifier;
 import com.shapesecurity.shift.ast.Node;
+import com.shapesecurity.shift.ast.StructuralEquality;
 import com.shapesecurity.shift.ast.types.Type;
 import com.shapesecurity.shift.utils.D2A;
 import com.shapesecurity.shift.visitor.TransformerP;
@@ -59,9 +61,18 @@ public final class PropertyName extends Node {
   }
 
   @Override
-  public boolean equals(Object object) {
-    return object instanceof PropertyName && this.kind.equals(((PropertyName) object).kind) &&
-           this.value.equals(((PropertyName) object).value);
+  protected boolean equalFields(@NotNull Node other, @NotNull StructuralEquality equality) {
+    return other instanceof PropertyName &&
+        this.value.equals(((PropertyName) other).value) &&
+        this.kind == ((PropertyName) other).kind;
+  }
+
+  @Override
+  protected int calcHashCode() {
+    int start = HashCodeBuilder.put(0, "PropertyName");
+    start = HashCodeBuilder.put(start, this.value);
+    start = HashCodeBuilder.put(start, this.kind);
+    return start;
   }
 
   public static enum PropertyNameKind {
@@ -16,8 +16,11 @@
 
 package com.shapesecurity.shift.ast.property;
 
+import com.shapesecurity.functional.data.HashCodeBuilder;
 import com.shapesecurity.shift.ast.FunctionBody;
 import com.shapesecurity.shift.ast.Identifier;
+import com.shapesecurity.shift.ast.Node;
+import com.shapesecurity.shift.ast.StructuralEquality;
 import com.shapesecurity.shift.ast.types.Type;
 
 import org.jetbrains.annotations.NotNull;
@@ -44,11 +47,20 @@ public class Setter extends AccessorProperty {
   }
 
   @Override
-  public boolean equals(Object object) {
-    return object instanceof Setter &&
-        this.name.equals(((Setter) object).name) &&
-        this.parameter.equals(((Setter) object).parameter) &&
-        this.body.equals(((Setter) object).body);
+  protected boolean equalFields(@NotNull Node other, @NotNull StructuralEquality equality) {
+    return other instanceof Setter &&
+        equality.equal(this.parameter, ((Setter) other).parameter) &&
+        equality.equal(this.body, ((Setter) other).body) &&
+        equality.equal(this.name, ((Setter) other).name);
+  }
+
+  @Override
+  protected int calcHashCode() {
+    int start = HashCodeBuilder.put(0, "Setter");
+    start = HashCodeBuilder.put(start, this.parameter);
+    start = HashCodeBuilder.put(start, this.body);
+    start = HashCodeBuilder.put(start, this.name);
+    return start;
   }
 
   @NotNull
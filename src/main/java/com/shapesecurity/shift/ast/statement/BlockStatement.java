@@ -16,8 +16,11 @@
 
 package com.shapesecurity.shift.ast.statement;
 
+import com.shapesecurity.functional.data.HashCodeBuilder;
 import com.shapesecurity.shift.ast.Block;
+import com.shapesecurity.shift.ast.Node;
 import com.shapesecurity.shift.ast.Statement;
+import com.shapesecurity.shift.ast.StructuralEquality;
 import com.shapesecurity.shift.ast.types.Type;
 
 import org.jetbrains.annotations.NotNull;
@@ -38,8 +41,16 @@ public class BlockStatement extends Statement {
   }
 
   @Override
-  public boolean equals(Object object) {
-    return object instanceof BlockStatement && this.block.equals(((BlockStatement) object).block);
+  protected boolean equalFields(@NotNull Node other, @NotNull StructuralEquality equality) {
+    return other instanceof BlockStatement &&
+        equality.equal(this.block, ((BlockStatement) other).block);
+  }
+
+  @Override
+  protected int calcHashCode() {
+    int start = HashCodeBuilder.put(0, "BlockStatement");
+    start = HashCodeBuilder.put(start, this.block);
+    return start;
   }
 
   @NotNull
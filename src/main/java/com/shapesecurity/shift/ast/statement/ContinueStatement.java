@@ -16,9 +16,12 @@
 
 package com.shapesecurity.shift.ast.statement;
 
+import com.shapesecurity.functional.data.HashCodeBuilder;
 import com.shapesecurity.functional.data.Maybe;
 import com.shapesecurity.shift.ast.Identifier;
+import com.shapesecurity.shift.ast.Node;
 import com.shapesecurity.shift.ast.Statement;
+import com.shapesecurity.shift.ast.StructuralEquality;
 import com.shapesecurity.shift.ast.types.Type;
 
 import org.jetbrains.annotations.NotNull;
@@ -43,8 +46,16 @@ public class ContinueStatement extends Statement {
   }
 
   @Override
-  public boolean equals(Object object) {
-    return object instanceof ContinueStatement && this.label.equals(((ContinueStatement) object).label);
+  protected boolean equalFields(@NotNull Node other, @NotNull StructuralEquality equality) {
+    return other instanceof ContinueStatement &&
+        equality.equal(this.label, ((ContinueStatement) other).label);
+  }
+
+  @Override
+  protected int calcHashCode() {
+    int start = HashCodeBuilder.put(0, "ContinueStatement");
+    start = HashCodeBuilder.put(start, this.label);
+    return start;
   }
 
   @NotNull
@@ -16,7 +16,10 @@
 
 package com.shapesecurity.shift.ast.statement;
 
+import com.shapesecurity.functional.data.HashCodeBuilder;
+import com.shapesecurity.shift.ast.Node;
 import com.shapesecurity.shift.ast.Statement;
+import com.shapesecurity.shift.ast.StructuralEquality;
 import com.shapesecurity.shift.ast.types.Type;
 
 import org.jetbrains.annotations.NotNull;
@@ -30,7 +33,12 @@ public class DebuggerStatement extends Statement {
   }
 
   @Override
-  public boolean equals(Object object) {
-    return object instanceof DebuggerStatement;
+  protected boolean equalFields(@NotNull Node other, @NotNull StructuralEquality equality) {
+    return other instanceof DebuggerStatement;
+  }
+
+  @Override
+  protected int calcHashCode() {
+    return HashCodeBuilder.put(0, "DebuggerStatement");
   }
 }
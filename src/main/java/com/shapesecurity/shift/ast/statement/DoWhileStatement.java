@@ -16,8 +16,11 @@
 
 package com.shapesecurity.shift.ast.statement;
 
+import com.shapesecurity.functional.data.HashCodeBuilder;
 import com.shapesecurity.shift.ast.Expression;
+import com.shapesecurity.shift.ast.Node;
 import com.shapesecurity.shift.ast.Statement;
+import com.shapesecurity.shift.ast.StructuralEquality;
 import com.shapesecurity.shift.ast.types.Type;
 
 import org.jetbrains.annotations.NotNull;
@@ -38,9 +41,18 @@ public class DoWhileStatement extends IterationStatement {
   }
 
   @Override
-  public boolean equals(Object object) {
-    return object instanceof DoWhileStatement && this.body.equals(((DoWhileStatement) object).body) &&
-        this.test.equals(((DoWhileStatement) object).test);
+  protected boolean equalFields(@NotNull Node other, @NotNull StructuralEquality equality) {
+    return other instanceof DoWhileStatement &&
+        equality.equal(this.test, ((DoWhileStatement) other).test) &&
+        equality.equal(this.body, ((DoWhileStatement) other).body);
+  }
+
+  @Override
+  protected int calcHashCode() {
+    int start = HashCodeBuilder.put(0, "DoWhileStatement");
+    start = HashCodeBuilder.put(start, this.test);
+    start = HashCodeBuilder.put(start, this.body);
+    return start;
   }
 
   @NotNull
@@ -17,8 +17,11 @@
 package com.shapesecurity.shift.ast.statement;
 
 import com.shapesecurity.functional.data.Either;
+import com.shapesecurity.functional.data.HashCodeBuilder;
 import com.shapesecurity.shift.ast.Expression;
+import com.shapesecurity.shift.ast.Node;
 import com.shapesecurity.shift.ast.Statement;
+import com.shapesecurity.shift.ast.StructuralEquality;
 import com.shapesecurity.shift.ast.VariableDeclaration;
 import com.shapesecurity.shift.ast.types.Type;
 
@@ -46,11 +49,20 @@ public class ForInStatement extends IterationStatement {
   }
 
   @Override
-  public boolean equals(Object object) {
-    return object instanceof ForInStatement &&
-        this.left.equals(((ForInStatement) object).left) &&
-        this.right.equals(((ForInStatement) object).right) &&
-        this.body.equals(((ForInStatement) object).body);
+  protected boolean equalFields(@NotNull Node other, @NotNull StructuralEquality equality) {
+    return other instanceof ForInStatement &&
+        equality.equal(this.left, ((ForInStatement) other).left) &&
+        equality.equal(this.right, ((ForInStatement) other).right) &&
+        equality.equal(this.body, ((ForInStatement) other).body);
+  }
+
+  @Override
+  protected int calcHashCode() {
+    int start = HashCodeBuilder.put(0, "ForInStatement");
+    start = HashCodeBuilder.put(start, this.left);
+    start = HashCodeBuilder.put(start, this.right);
+    start = HashCodeBuilder.put(start, this.body);
+    return start;
   }
 
   @NotNull
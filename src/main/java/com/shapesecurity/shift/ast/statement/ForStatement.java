@@ -17,9 +17,12 @@
 package com.shapesecurity.shift.ast.statement;
 
 import com.shapesecurity.functional.data.Either;
+import com.shapesecurity.functional.data.HashCodeBuilder;
 import com.shapesecurity.functional.data.Maybe;
 import com.shapesecurity.shift.ast.Expression;
+import com.shapesecurity.shift.ast.Node;
 import com.shapesecurity.shift.ast.Statement;
+import com.shapesecurity.shift.ast.StructuralEquality;
 import com.shapesecurity.shift.ast.VariableDeclaration;
 import com.shapesecurity.shift.ast.types.Type;
 
@@ -51,12 +54,22 @@ public class ForStatement extends IterationStatement {
   }
 
   @Override
-  public boolean equals(Object object) {
-    return object instanceof ForStatement &&
-        this.init.equals(((ForStatement) object).init) &&
-        this.test.equals(((ForStatement) object).test) &&
-        this.update.equals(((ForStatement) object).update) &&
-        this.body.equals(((ForStatement) object).body);
+  protected boolean equalFields(@NotNull Node other, @NotNull StructuralEquality equality) {
+    return other instanceof ForStatement &&
+        equality.equal(this.init, ((ForStatement) other).init) &&
+        equality.equal(this.test, ((ForStatement) other).test) &&
+        equality.equal(this.update, ((ForStatement) other).update) &&
+        equality.equal(this.body, ((ForStatement) other).body);
+  }
+
+  @Override
+  protected int calcHashCode() {
+    int start = HashCodeBuilder.put(0, "ForStatement");
+    start = HashCodeBuilder.put(start, this.init);
+    start = HashCodeBuilder.put(start, this.test);
+    start = HashCodeBuilder.put(start, this.update);
+    start = HashCodeBuilder.put(start, this.body);
+    return start;
   }
 
   @NotNull
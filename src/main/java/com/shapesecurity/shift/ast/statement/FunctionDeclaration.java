@@ -16,11 +16,14 @@
 
 package com.shapesecurity.shift.ast.statement;
 
+import com.shapesecurity.functional.data.HashCodeBuilder;
 import com.shapesecurity.functional.data.List;
 import com.shapesecurity.shift.ast.Function;
 import com.shapesecurity.shift.ast.FunctionBody;
 import com.shapesecurity.shift.ast.Identifier;
+import com.shapesecurity.shift.ast.Node;
 import com.shapesecurity.shift.ast.Statement;
+import com.shapesecurity.shift.ast.StructuralEquality;
 import com.shapesecurity.shift.ast.types.Type;
 
 import org.jetbrains.annotations.NotNull;
@@ -50,11 +53,20 @@ public class FunctionDeclaration extends Statement implements Function {
   }
 
   @Override
-  public boolean equals(Object object) {
-    return object instanceof FunctionDeclaration &&
-        this.name.equals(((FunctionDeclaration) object).name) &&
-        this.parameters.equals(((FunctionDeclaration) object).parameters) &&
-        this.body.equals(((FunctionDeclaration) object).body);
+  protected boolean equalFields(@NotNull Node other, @NotNull StructuralEquality equality) {
+    return other instanceof FunctionDeclaration &&
+        equality.equal(this.name, ((FunctionDeclaration) other).name) &&
+        equality.equal(this.parameters, ((FunctionDeclaration) other).parameters) &&
+        equality.equal(this.body, ((FunctionDeclaration) other).body);
+  }
+
+  @Override
+  protected int calcHashCode() {
+    int start = HashCodeBuilder.put(0, "FunctionDeclaration");
+    start = HashCodeBuilder.put(start, this.name);
+    start = HashCodeBuilder.put(start, this.parameters);
+    start = HashCodeBuilder.put(start, this.body);
+    return start;
   }
 
   @NotNull
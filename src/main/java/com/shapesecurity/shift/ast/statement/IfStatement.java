@@ -16,9 +16,12 @@
 
 package com.shapesecurity.shift.ast.statement;
 
+import com.shapesecurity.functional.data.HashCodeBuilder;
 import com.shapesecurity.functional.data.Maybe;
 import com.shapesecurity.shift.ast.Expression;
+import com.shapesecurity.shift.ast.Node;
 import com.shapesecurity.shift.ast.Statement;
+import com.shapesecurity.shift.ast.StructuralEquality;
 import com.shapesecurity.shift.ast.types.Type;
 
 import org.jetbrains.annotations.NotNull;
@@ -53,11 +56,20 @@ public class IfStatement extends Statement {
   }
 
   @Override
-  public boolean equals(Object object) {
-    return object instanceof IfStatement &&
-        this.test.equals(((IfStatement) object).test) &&
-        this.consequent.equals(((IfStatement) object).consequent) &&
-        this.alternate.equals(((IfStatement) object).alternate);
+  protected boolean equalFields(@NotNull Node other, @NotNull StructuralEquality equality) {
+    return other instanceof IfStatement &&
+        equality.equal(this.test, ((IfStatement) other).test) &&
+        equality.equal(this.consequent, ((IfStatement) other).consequent) &&
+        equality.equal(this.alternate, ((IfStatement) other).alternate);
+  }
+
+  @Override
+  protected int calcHashCode() {
+    int start = HashCodeBuilder.put(0, "IfStatement");
+    start = HashCodeBuilder.put(start, this.test);
+    start = HashCodeBuilder.put(start, this.consequent);
+    start = HashCodeBuilder.put(start, this.alternate);
+    return start;
   }
 
   @NotNull
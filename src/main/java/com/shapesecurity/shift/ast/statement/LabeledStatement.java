@@ -16,8 +16,11 @@
 
 package com.shapesecurity.shift.ast.statement;
 
+import com.shapesecurity.functional.data.HashCodeBuilder;
 import com.shapesecurity.shift.ast.Identifier;
+import com.shapesecurity.shift.ast.Node;
 import com.shapesecurity.shift.ast.Statement;
+import com.shapesecurity.shift.ast.StructuralEquality;
 import com.shapesecurity.shift.ast.types.Type;
 
 import org.jetbrains.annotations.NotNull;
@@ -41,9 +44,18 @@ public class LabeledStatement extends Statement {
   }
 
   @Override
-  public boolean equals(Object object) {
-    return object instanceof LabeledStatement && this.label.equals(((LabeledStatement) object).label) &&
-        this.body.equals(((LabeledStatement) object).body);
+  protected boolean equalFields(@NotNull Node other, @NotNull StructuralEquality equality) {
+    return other instanceof LabeledStatement &&
+        equality.equal(this.label, ((LabeledStatement) other).label) &&
+        equality.equal(this.body, ((LabeledStatement) other).body);
+  }
+
+  @Override
+  protected int calcHashCode() {
+    int start = HashCodeBuilder.put(0, "LabeledStatement");
+    start = HashCodeBuilder.put(start, this.label);
+    start = HashCodeBuilder.put(start, this.body);
+    return start;
   }
 
   @NotNull
@@ -16,9 +16,12 @@
 
 package com.shapesecurity.shift.ast.statement;
 
+import com.shapesecurity.functional.data.HashCodeBuilder;
 import com.shapesecurity.functional.data.Maybe;
 import com.shapesecurity.shift.ast.Expression;
+import com.shapesecurity.shift.ast.Node;
 import com.shapesecurity.shift.ast.Statement;
+import com.shapesecurity.shift.ast.StructuralEquality;
 import com.shapesecurity.shift.ast.types.Type;
 
 import org.jetbrains.annotations.NotNull;
@@ -39,8 +42,16 @@ public class ReturnStatement extends Statement {
   }
 
   @Override
-  public boolean equals(Object object) {
-    return object instanceof ReturnStatement && this.expression.equals(((ReturnStatement) object).expression);
+  protected boolean equalFields(@NotNull Node other, @NotNull StructuralEquality equality) {
+    return other instanceof ReturnStatement &&
+        equality.equal(this.expression, ((ReturnStatement) other).expression);
+  }
+
+  @Override
+  protected int calcHashCode() {
+    int start = HashCodeBuilder.put(0, "ReturnStatement");
+    start = HashCodeBuilder.put(start, this.expression);
+    return start;
   }
 
   @NotNull
@@ -16,9 +16,12 @@
 
 package com.shapesecurity.shift.ast.statement;
 
+import com.shapesecurity.functional.data.HashCodeBuilder;
 import com.shapesecurity.functional.data.List;
 import com.shapesecurity.shift.ast.Expression;
+import com.shapesecurity.shift.ast.Node;
 import com.shapesecurity.shift.ast.Statement;
+import com.shapesecurity.shift.ast.StructuralEquality;
 import com.shapesecurity.shift.ast.SwitchCase;
 import com.shapesecurity.shift.ast.types.Type;
 
@@ -43,9 +46,18 @@ public class SwitchStatement extends Statement {
   }
 
   @Override
-  public boolean equals(Object object) {
-    return object instanceof SwitchStatement && this.discriminant.equals(((SwitchStatement) object).discriminant) &&
-        this.cases.equals(((SwitchStatement) object).cases);
+  protected boolean equalFields(@NotNull Node other, @NotNull StructuralEquality equality) {
+    return other instanceof SwitchStatement &&
+        equality.equal(this.discriminant, ((SwitchStatement) other).discriminant) &&
+        equality.equal(this.cases, ((SwitchStatement) other).cases);
+  }
+
+  @Override
+  protected int calcHashCode() {
+    int start = HashCodeBuilder.put(0, "SwitchStatement");
+    start = HashCodeBuilder.put(start, this.discriminant);
+    start = HashCodeBuilder.put(start, this.cases);
+    return start;
   }
 
   @NotNull
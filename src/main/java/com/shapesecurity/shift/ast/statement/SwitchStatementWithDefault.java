@@ -16,9 +16,12 @@
 
 package com.shapesecurity.shift.ast.statement;
 
+import com.shapesecurity.functional.data.HashCodeBuilder;
 import com.shapesecurity.functional.data.List;
 import com.shapesecurity.shift.ast.Expression;
+import com.shapesecurity.shift.ast.Node;
 import com.shapesecurity.shift.ast.Statement;
+import com.shapesecurity.shift.ast.StructuralEquality;
 import com.shapesecurity.shift.ast.SwitchCase;
 import com.shapesecurity.shift.ast.SwitchDefault;
 import com.shapesecurity.shift.ast.types.Type;
@@ -54,12 +57,22 @@ public class SwitchStatementWithDefault extends Statement {
   }
 
   @Override
-  public boolean equals(Object object) {
-    return object instanceof SwitchStatementWithDefault &&
-        this.discriminant.equals(((SwitchStatementWithDefault) object).discriminant) &&
-        this.preDefaultCases.equals(((SwitchStatementWithDefault) object).preDefaultCases) &&
-        this.defaultCase.equals(((SwitchStatementWithDefault) object).defaultCase) &&
-        this.postDefaultCases.equals(((SwitchStatementWithDefault) object).postDefaultCases);
+  protected boolean equalFields(@NotNull Node other, @NotNull StructuralEquality equality) {
+    return other instanceof SwitchStatementWithDefault &&
+        equality.equal(this.discriminant, ((SwitchStatementWithDefault) other).discriminant) &&
+        equality.equal(this.preDefaultCases, ((SwitchStatementWithDefault) other).preDefaultCases) &&
+        equality.equal(this.defaultCase, ((SwitchStatementWithDefault) other).defaultCase) &&
+        equality.equal(this.postDefaultCases, ((SwitchStatementWithDefault) other).postDefaultCases);
+  }
+
+  @Override
+  protected int calcHashCode() {
+    int start = HashCodeBuilder.put(0, "SwitchStatementWithDefault");
+    start = HashCodeBuilder.put(start, this.discriminant);
+    start = HashCodeBuilder.put(start, this.preDefaultCases);
+    start = HashCodeBuilder.put(start, this.defaultCase);
+    start = HashCodeBuilder.put(start, this.postDefaultCases);
+    return start;
   }
 
   @NotNull
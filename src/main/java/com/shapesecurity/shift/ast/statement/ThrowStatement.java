@@ -16,8 +16,11 @@
 
 package com.shapesecurity.shift.ast.statement;
 
+import com.shapesecurity.functional.data.HashCodeBuilder;
 import com.shapesecurity.shift.ast.Expression;
+import com.shapesecurity.shift.ast.Node;
 import com.shapesecurity.shift.ast.Statement;
+import com.shapesecurity.shift.ast.StructuralEquality;
 import com.shapesecurity.shift.ast.types.Type;
 
 import org.jetbrains.annotations.NotNull;
@@ -38,8 +41,16 @@ public class ThrowStatement extends Statement {
   }
 
   @Override
-  public boolean equals(Object object) {
-    return object instanceof ThrowStatement && this.expression.equals(((ThrowStatement) object).expression);
+  protected boolean equalFields(@NotNull Node other, @NotNull StructuralEquality equality) {
+    return other instanceof ThrowStatement &&
+        equality.equal(this.expression, ((ThrowStatement) other).expression);
+  }
+
+  @Override
+  protected int calcHashCode() {
+    int start = HashCodeBuilder.put(0, "ThrowStatement");
+    start = HashCodeBuilder.put(start, this.expression);
+    return start;
   }
 
   @NotNull
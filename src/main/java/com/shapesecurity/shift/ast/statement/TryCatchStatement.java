@@ -16,9 +16,12 @@
 
 package com.shapesecurity.shift.ast.statement;
 
+import com.shapesecurity.functional.data.HashCodeBuilder;
 import com.shapesecurity.shift.ast.Block;
 import com.shapesecurity.shift.ast.CatchClause;
+import com.shapesecurity.shift.ast.Node;
 import com.shapesecurity.shift.ast.Statement;
+import com.shapesecurity.shift.ast.StructuralEquality;
 import com.shapesecurity.shift.ast.types.Type;
 
 import org.jetbrains.annotations.NotNull;
@@ -42,10 +45,18 @@ public class TryCatchStatement extends Statement {
   }
 
   @Override
-  public boolean equals(Object object) {
-    return object instanceof TryCatchStatement &&
-        this.body.equals(((TryCatchStatement) object).body) &&
-        this.catchClause.equals(((TryCatchStatement) object).catchClause);
+  protected boolean equalFields(@NotNull Node other, @NotNull StructuralEquality equality) {
+    return other instanceof TryCatchStatement &&
+        equality.equal(this.body, ((TryCatchStatement) other).body) &&
+        equality.equal(this.catchClause, ((TryCatchStatement) other).catchClause);
+  }
+
+  @Override
+  protected int calcHashCode() {
+    int start = HashCodeBuilder.put(0, "TryCatchStatement");
+    start = HashCodeBuilder.put(start, this.body);
+    start = HashCodeBuilder.put(start, this.catchClause);
+    return start;
   }
 
   @NotNull
@@ -16,10 +16,13 @@
 
 package com.shapesecurity.shift.ast.statement;
 
+import com.shapesecurity.functional.data.HashCodeBuilder;
 import com.shapesecurity.functional.data.Maybe;
 import com.shapesecurity.shift.ast.Block;
 import com.shapesecurity.shift.ast.CatchClause;
+import com.shapesecurity.shift.ast.Node;
 import com.shapesecurity.shift.ast.Statement;
+import com.shapesecurity.shift.ast.StructuralEquality;
 import com.shapesecurity.shift.ast.types.Type;
 
 import org.jetbrains.annotations.NotNull;
@@ -46,11 +49,20 @@ public class TryFinallyStatement extends Statement {
   }
 
   @Override
-  public boolean equals(Object object) {
-    return object instanceof TryFinallyStatement &&
-        this.body.equals(((TryFinallyStatement) object).body) &&
-        this.catchClause.equals(((TryFinallyStatement) object).catchClause) &&
-        this.finalizer.equals(((TryFinallyStatement) object).finalizer);
+  protected boolean equalFields(@NotNull Node other, @NotNull StructuralEquality equality) {
+    return other instanceof TryFinallyStatement &&
+        equality.equal(this.body, ((TryFinallyStatement) other).body) &&
+        equality.equal(this.catchClause, ((TryFinallyStatement) other).catchClause) &&
+        equality.equal(this.finalizer, ((TryFinallyStatement) other).finalizer);
+  }
+
+  @Override
+  protected int calcHashCode() {
+    int start = HashCodeBuilder.put(0, "TryFinallyStatement");
+    start = HashCodeBuilder.put(start, this.body);
+    start = HashCodeBuilder.put(start, this.catchClause);
+    start = HashCodeBuilder.put(start, this.finalizer);
+    return start;
   }
 
   @NotNull
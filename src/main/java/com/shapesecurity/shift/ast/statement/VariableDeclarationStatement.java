@@ -16,7 +16,10 @@
 
 package com.shapesecurity.shift.ast.statement;
 
+import com.shapesecurity.functional.data.HashCodeBuilder;
+import com.shapesecurity.shift.ast.Node;
 import com.shapesecurity.shift.ast.Statement;
+import com.shapesecurity.shift.ast.StructuralEquality;
 import com.shapesecurity.shift.ast.VariableDeclaration;
 import com.shapesecurity.shift.ast.types.Type;
 
@@ -38,9 +41,16 @@ public class VariableDeclarationStatement extends Statement {
   }
 
   @Override
-  public boolean equals(Object object) {
-    return object instanceof VariableDeclarationStatement && this.declaration.equals(
-        ((VariableDeclarationStatement) object).declaration);
+  protected boolean equalFields(@NotNull Node other, @NotNull StructuralEquality equality) {
+    return other instanceof VariableDeclarationStatement &&
+        equality.equal(this.declaration, ((VariableDeclarationStatement) other).declaration);
+  }
+
+  @Override
+  protected int calcHashCode() {
+    int start = HashCodeBuilder.put(0, "VariableDeclarationStatement");
+    start = HashCodeBuilder.put(start, this.declaration);
+    return start;
   }
 
   @NotNull
@@ -16,8 +16,11 @@
 
 package com.shapesecurity.shift.ast.statement;
 
+import com.shapesecurity.functional.data.HashCodeBuilder;
 import com.shapesecurity.shift.ast.Expression;
+import com.shapesecurity.shift.ast.Node;
 import com.shapesecurity.shift.ast.Statement;
+import com.shapesecurity.shift.ast.StructuralEquality;
 import com.shapesecurity.shift.ast.types.Type;
 
 import org.jetbrains.annotations.NotNull;
@@ -38,9 +41,18 @@ public class WhileStatement extends IterationStatement {
   }
 
   @Override
-  public boolean equals(Object object) {
-    return object instanceof WhileStatement && this.test.equals(((WhileStatement) object).test) &&
-        this.body.equals(((WhileStatement) object).body);
+  protected boolean equalFields(@NotNull Node other, @NotNull StructuralEquality equality) {
+    return other instanceof WhileStatement &&
+        equality.equal(this.test, ((WhileStatement) other).test) &&
+        equality.equal(this.body, ((WhileStatement) other).body);
+  }
+
+  @Override
+  protected int calcHashCode() {
+    int start = HashCodeBuilder.put(0, "WhileStatement");
+    start = HashCodeBuilder.put(start, this.test);
+    start = HashCodeBuilder.put(start, this.body);
+    return start;
   }
 
   @NotNull
@@ -16,8 +16,11 @@
 
 package com.shapesecurity.shift.ast.statement;
 
+import com.shapesecurity.functional.data.HashCodeBuilder;
 import com.shapesecurity.shift.ast.Expression;
+import com.shapesecurity.shift.ast.Node;
 import com.shapesecurity.shift.ast.Statement;
+import com.shapesecurity.shift.ast.StructuralEquality;
 import com.shapesecurity.shift.ast.types.Type;
 
 import org.jetbrains.annotations.NotNull;
@@ -41,9 +44,10 @@ public class WithStatement extends Statement {
   }
 
   @Override
-  public boolean equals(Object obj) {
-    return obj instanceof WithStatement && this.object.equals(((WithStatement) obj).object) &&
-        this.body.equals(((WithStatement) obj).body);
+  protected boolean equalFields(@NotNull Node other, @NotNull StructuralEquality equality) {
+    return other instanceof WithStatement &&
+        equality.equal(this.object, ((WithStatement) other).object) &&
+        equality.equal(this.body, ((WithStatement) other).body);
   }
 
   @NotNull
@@ -63,4 +67,12 @@ public class WithStatement extends Statement {
   public WithStatement setBody(@NotNull Statement body) {
     return new WithStatement(this.object, body);
   }
+
+  @Override
+  protected int calcHashCode() {
+    int start = HashCodeBuilder.put(0, "WithStatement");
+    start = HashCodeBuilder.put(start, this.object);
+    start = HashCodeBuilder.put(start, this.body);
+    return start;
+  }
 }
@@ -190,6 +190,15 @@ public enum Type implements GenType {
     }
   };
 
+  // The types by ordinal; values() returns a new copy on each call.
+  private static final Type[] TYPES = values();
+
+  /** The type whose ordinal is {@code tag}, as held in {@link com.shapesecurity.shift.ast.Node#tag}. */
+  @NotNull
+  public static Type fromTag(int tag) {
+    return TYPES[tag];
+  }
+
   @NotNull
   public Type rawType() {
     return this;
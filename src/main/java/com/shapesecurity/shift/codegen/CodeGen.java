@@ -81,6 +81,7 @@ import com.shapesecurity.shift.ast.statement.TryFinallyStatement;
 import com.shapesecurity.shift.ast.statement.VariableDeclarationStatement;
 import com.shapesecurity.shift.ast.statement.WhileStatement;
 import com.shapesecurity.shift.ast.statement.WithStatement;
+import com.shapesecurity.shift.parser.SourceRange;
 import com.shapesecurity.shift.path.Branch;
 import com.shapesecurity.shift.utils.Utils;
 import com.shapesecurity.shift.visitor.Director;
@@ -177,7 +178,12 @@ public final class CodeGen implements Reducer<CodeRep> {
   @Override
   @NotNull
   public CodeRep reduceLiteralStringExpression(@NotNull LiteralStringExpression node, @NotNull List<Branch> path) {
-    return factory.token(Utils.escapeStringLiteral(node.value));
+    // A parsed literal already in the double quotes used here is emitted as written, without decoding it.
+    SourceRange raw = node.getRaw();
+    if (raw != null && raw.charAt(0) == '"') {
+      return factory.token(raw.toString());
+    }
+    return factory.token(Utils.escapeStringLiteral(node.getValue()));
   }
 
   @Override
@@ -715,7 +721,7 @@ public final class CodeGen implements Reducer<CodeRep> {
       body = factory.empty();
     } else {
       NonEmptyList<CodeRep> seNel = ((NonEmptyList<CodeRep>) statements);
-      body = parenToAvoidBeingDirective(((NonEmptyList<Statement>) node.statements).head, seNel.head);
+      body = parenToAvoidBeingDirective(((NonEmptyList<Statement>) node.getStatements()).head, seNel.head);
       body = seqVA(body, factory.seq(seNel.tail()));
     }
     return seqVA(factory.seq(directives), body);
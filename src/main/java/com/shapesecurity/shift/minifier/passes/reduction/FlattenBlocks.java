@@ -48,8 +48,8 @@ public class FlattenBlocks extends ReductionRule {
   @NotNull
   @Override
   public DirtyState<FunctionBody> transform(@NotNull FunctionBody node) {
-    List<Statement> flattenedStatements = node.statements.bind(flattenBlockStatements);
-    return node.statements.exists(isBlockStatement) ? DirtyState.dirty(new FunctionBody(node.directives,
+    List<Statement> flattenedStatements = node.getStatements().bind(flattenBlockStatements);
+    return node.getStatements().exists(isBlockStatement) ? DirtyState.dirty(new FunctionBody(node.getDirectives(),
         flattenedStatements)) : DirtyState.clean(node);
   }
 
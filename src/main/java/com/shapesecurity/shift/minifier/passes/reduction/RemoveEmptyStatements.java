@@ -58,9 +58,9 @@ public class RemoveEmptyStatements extends ReductionRule {
   @NotNull
   @Override
   public DirtyState<FunctionBody> transform(@NotNull FunctionBody node) {
-    List<Statement> filteredStatements = node.statements.filter(isNotEmptyStatement);
-    return filteredStatements.length == node.statements.length ? DirtyState.clean(node) : DirtyState.dirty(
-        new FunctionBody(node.directives, filteredStatements));
+    List<Statement> filteredStatements = node.getStatements().filter(isNotEmptyStatement);
+    return filteredStatements.length == node.getStatements().length ? DirtyState.clean(node) : DirtyState.dirty(
+        new FunctionBody(node.getDirectives(), filteredStatements));
   }
 
   @NotNull
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2014 Shape Security, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.shapesecurity.shift.parser;
+
+import org.jetbrains.annotations.NotNull;
+
+// Thrown when a function body skimmed by Parser.parseLazily fails to parse on first access.
+public class DeferredJsError extends RuntimeException {
+  private static final long serialVersionUID = 3080379126395417418L;
+  @NotNull
+  private final JsError error;
+
+  public DeferredJsError(@NotNull JsError error) {
+    super(error.getMessage(), error);
+    this.error = error;
+  }
+
+  @NotNull
+  public JsError getError() {
+    return this.error;
+  }
+}
@@ -38,6 +38,7 @@ interface ErrorMessages {
   String ILLEGAL_BREAK = "Illegal break statement";
   String ILLEGAL_RETURN = "Illegal return statement";
   String STRICT_MODE_WITH = "Strict mode code may not include a with statement";
+  String SKIMMED_BODY_MISMATCH = "Function body does not end where it was skimmed to end";
   String STRICT_CATCH_VARIABLE = "Catch variable may not be eval or arguments in strict mode";
   String STRICT_VAR_NAME = "Variable name may not be eval or arguments in strict mode";
   String STRICT_PARAM_NAME = "Parameter name eval or arguments is not allowed in strict mode";
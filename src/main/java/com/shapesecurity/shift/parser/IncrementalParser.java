@@ -0,0 +1,506 @@
+/*
+ * Copyright 2014 Shape Security, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.shapesecurity.shift.parser;
+
+import com.shapesecurity.functional.data.Either;
+import com.shapesecurity.functional.data.List;
+import com.shapesecurity.functional.data.Maybe;
+import com.shapesecurity.functional.data.NonEmptyList;
+import com.shapesecurity.shift.ast.EitherNode;
+import com.shapesecurity.shift.ast.FunctionBody;
+import com.shapesecurity.shift.ast.Identifier;
+import com.shapesecurity.shift.ast.ListNode;
+import com.shapesecurity.shift.ast.MaybeNode;
+import com.shapesecurity.shift.ast.Node;
+import com.shapesecurity.shift.ast.NonEmptyListNode;
+import com.shapesecurity.shift.ast.Script;
+import com.shapesecurity.shift.ast.SourceLocation;
+import com.shapesecurity.shift.ast.Statement;
+import com.shapesecurity.shift.ast.directive.UnknownDirective;
+import com.shapesecurity.shift.ast.directive.UseStrictDirective;
+import com.shapesecurity.shift.ast.expression.LiteralBooleanExpression;
+import com.shapesecurity.shift.ast.expression.LiteralInfinityExpression;
+import com.shapesecurity.shift.ast.expression.LiteralNullExpression;
+import com.shapesecurity.shift.ast.expression.LiteralNumericExpression;
+import com.shapesecurity.shift.ast.expression.LiteralRegExpExpression;
+import com.shapesecurity.shift.ast.expression.LiteralStringExpression;
+import com.shapesecurity.shift.ast.expression.ThisExpression;
+import com.shapesecurity.shift.ast.property.PropertyName;
+import com.shapesecurity.shift.ast.statement.DebuggerStatement;
+import com.shapesecurity.shift.ast.statement.EmptyStatement;
+import com.shapesecurity.shift.ast.statement.ExpressionStatement;
+import com.shapesecurity.shift.ast.types.Type;
+import com.shapesecurity.shift.path.Branch;
+import com.shapesecurity.shift.path.IndexedBranch;
+import com.shapesecurity.shift.path.StaticBranch;
+import com.shapesecurity.shift.utils.Utils;
+
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Reparses a script after an edit to its source. Only the statements of the innermost function body enclosing the
+ * edit that the edit touches are parsed again. The nodes before the edit are shared by the result, and those after it,
+ * whose locations move, are copied without being parsed again.
+ * <p>
+ * The previous script must have been parsed from the old text by {@link Parser#parseWithLocation(CharSequence)} or by
+ * this class. It is not changed, and can still be used or reparsed with another edit.
+ */
+public final class IncrementalParser {
+  private static final StaticBranch[] WRAPPER_BRANCHES = { StaticBranch.JUST, StaticBranch.LEFT, StaticBranch.RIGHT };
+  // The branches of StaticBranch that apply to each node type.
+  private static final ConcurrentHashMap<Type, StaticBranch[]> BRANCHES = new ConcurrentHashMap<>();
+
+  @NotNull
+  private final CharSequence oldText;
+  @NotNull
+  private final CharSequence newText;
+  private final int editStart, editEnd, newEditEnd, delta;
+  // The locations of the previous script, and the overlay on them holding the locations of the result.
+  @NotNull
+  private final LocationTable base;
+  @Nullable
+  private LocationTable locations;
+  // The nodes from the script down to the function body being reparsed, and the branches between them.
+  @NotNull
+  private final ArrayList<Node> pathNodes = new ArrayList<>();
+  @NotNull
+  private final ArrayList<Branch> pathBranches = new ArrayList<>();
+  // The line of the end of the edit in the old and in the new text, and where that line starts in the new text.
+  private int oldEndLine, newEndLine, newEndLineStart;
+
+  private IncrementalParser(
+      @NotNull CharSequence oldText,
+      @NotNull CharSequence newText,
+      int start,
+      int end,
+      @NotNull LocationTable base) {
+    this.oldText = oldText;
+    this.newText = newText;
+    this.editStart = start;
+    this.editEnd = end;
+    this.delta = newText.length() - oldText.length();
+    this.newEditEnd = end + this.delta;
+    this.base = base;
+  }
+
+  /**
+   * Parses the text obtained by replacing the characters of {@code oldText} between {@code start} and {@code end} with
+   * {@code replacement}, reusing the unchanged parts of {@code previous}, the script parsed from {@code oldText}. The
+   * result equals that of {@link Parser#parseWithLocation(CharSequence)} on the new text, locations included; when
+   * the edit cannot be parsed in isolation, that is what is done.
+   */
+  @NotNull
+  public static Script reparse(
+      @NotNull Script previous,
+      @NotNull CharSequence oldText,
+      int start,
+      int end,
+      @NotNull CharSequence replacement) throws JsError {
+    if (start < 0 || start > end || end > oldText.length()) {
+      throw new IndexOutOfBoundsException();
+    }
+    String newText = new StringBuilder(oldText.length() - (end - start) + replacement.length())
+        .append(oldText, 0, start)
+        .append(replacement)
+        .append(oldText, end, oldText.length())
+        .toString();
+    // Parse anew once the tables of previous hold mostly the locations of replaced nodes.
+    LocationTable locations = ((Located) previous).getLocations();
+    Script script = locations == null || locations.isOvergrown() ? null :
+        new IncrementalParser(oldText, newText, start, end, locations).reparse(previous);
+    return script != null ? script : Parser.parseWithLocation(newText);
+  }
+
+  // Returns null when the edit has to be parsed as part of the whole script.
+  @SuppressWarnings("ConstantConditions")
+  @Nullable
+  private Script reparse(@NotNull Script previous) {
+    if (!((Located) previous).hasLoc() || !((Located) previous.body).hasLoc() ||
+        splitsLineBreak(this.oldText, this.editStart) || splitsLineBreak(this.oldText, this.editEnd) ||
+        splitsLineBreak(this.newText, this.editStart) || splitsLineBreak(this.newText, this.newEditEnd)) {
+      return null;
+    }
+    this.pathNodes.add(previous);
+    this.pathNodes.add(previous.body);
+    this.pathBranches.add(StaticBranch.BODY);
+    this.findBody(previous.body);
+    FunctionBody body = (FunctionBody) this.pathNodes.get(this.pathNodes.size() - 1);
+    Located bodyLoc = body;
+    boolean inFunctionBody = this.pathNodes.size() > 2;
+    boolean strict = false;
+    for (Node node : this.pathNodes) {
+      strict = strict || node instanceof FunctionBody && ((FunctionBody) node).isStrict();
+    }
+
+    ArrayList<Statement> statements = new ArrayList<>();
+    for (Statement statement : body.getStatements()) {
+      if (!((Located) statement).hasLoc()) {
+        return null;
+      }
+      statements.add(statement);
+    }
+    // The statements touching the edit, and the one before them, whose end may depend on what follows it.
+    int first = 0;
+    while (first < statements.size() && end(statements.get(first)) < this.editStart) {
+      first++;
+    }
+    int last = statements.size() - 1;
+    while (last >= 0 && start(statements.get(last)) > this.editEnd) {
+      last--;
+    }
+    int lo = Math.max(0, first - 1);
+
+    int index, line, lineStart;
+    if (lo > 0) {
+      Located loc = statements.get(lo);
+      index = loc.getStart();
+      line = loc.getLine();
+      lineStart = loc.getStart() - loc.getColumn();
+    } else if (body.getDirectives().isNotEmpty()) {
+      return null;
+    } else if (inFunctionBody) {
+      index = bodyLoc.getStart() + 1;
+      line = bodyLoc.getLine();
+      lineStart = bodyLoc.getStart() - bodyLoc.getColumn();
+    } else {
+      index = line = lineStart = 0;
+    }
+
+    // Parse until the parser lands on the start of a statement following the edit, or on the end of the body.
+    this.countLines(index, line, lineStart);
+    this.locations = this.base.edit(this.editEnd, this.delta, this.oldEndLine, this.newEndLine, this.newEndLineStart,
+        this.newText);
+    int bodyEnd = end(body) + this.delta;
+    int next = last + 1;
+    ArrayList<Statement> parsed = new ArrayList<>();
+    SourceLocation startLocation;
+    int parsedEnd;
+    try {
+      Parser parser = Parser.withLocation(this.newText, index, line, lineStart, strict, inFunctionBody, this.locations);
+      parser.speculative = true;
+      startLocation = parser.getSourceLocation(parser.getLocation());
+      while (true) {
+        int at = parser.lookahead.slice.start;
+        while (next < statements.size() && start(statements.get(next)) + this.delta < at) {
+          next++;
+        }
+        if (next < statements.size()) {
+          if (start(statements.get(next)) + this.delta == at) {
+            break;
+          }
+        } else if (inFunctionBody ? parser.lookahead.type == TokenType.RBRACE && at == bodyEnd - 1 : parser.eof()) {
+          break;
+        }
+        if (parser.eof() || parser.lookahead.type == TokenType.RBRACE || inFunctionBody && at >= bodyEnd) {
+          return null;
+        }
+        parsed.add(parser.parseSourceElement());
+      }
+      parsedEnd = parser.getSliceBeforeLookahead(index).end;
+    } catch (JsError e) {
+      return null;
+    }
+    if (lo == 0) {
+      // A string literal at the start of a body would be read as a directive.
+      Statement head = !parsed.isEmpty() ? parsed.get(0) : next < statements.size() ? statements.get(next) : null;
+      if (head instanceof ExpressionStatement &&
+          ((ExpressionStatement) head).expression instanceof LiteralStringExpression) {
+        return null;
+      }
+    } else if (!inFunctionBody && parsed.isEmpty() && next == statements.size()) {
+      return null;
+    }
+
+    // Rebuild the path up to the script, with copies of the nodes that follow the edit.
+    for (int i = next; i < statements.size(); i++) {
+      Statement copy = (Statement) this.copy(statements.get(i));
+      if (copy == null) {
+        return null;
+      }
+      parsed.add(copy);
+    }
+    Node[] rebuilt = new Node[this.pathNodes.size()];
+    rebuilt[rebuilt.length - 1] =
+        body.setStatements(List.from(new ArrayList<>(statements.subList(0, lo))).append(List.from(parsed)));
+    for (int k = rebuilt.length - 2; k >= 0; k--) {
+      Node node = this.pathNodes.get(k);
+      ArrayList<Branch> branches = new ArrayList<>();
+      ArrayList<Node> children = new ArrayList<>();
+      children(node, branches, children);
+      for (int i = 0; i < children.size(); i++) {
+        Node child = branches.get(i).equals(this.pathBranches.get(k)) ? rebuilt[k + 1] : this.relocate(children.get(i));
+        if (child == null) {
+          return null;
+        }
+        children.set(i, child);
+      }
+      rebuilt[k] = withChildren(node, branches, children);
+      if (rebuilt[k] == null) {
+        return null;
+      }
+    }
+
+    int scriptLoc = -1;
+    if (!inFunctionBody) {
+      // The script starts at its first token and ends with its last one.
+      int end = next == statements.size() ? parsedEnd : bodyEnd;
+      scriptLoc = lo == 0 ?
+          this.locations.add(startLocation.offset, end, startLocation.line, startLocation.column) :
+          this.locations.add(bodyLoc.getStart(), end, bodyLoc.getLine(), bodyLoc.getColumn());
+    }
+    for (int k = 0; k < rebuilt.length; k++) {
+      Located loc = this.pathNodes.get(k);
+      if (loc.hasLoc()) {
+        ((Located) rebuilt[k]).setLoc(this.locations, scriptLoc >= 0 ? scriptLoc : this.extend(loc));
+      }
+    }
+    LineIndex lines = this.base.getLineIndex();
+    this.locations.setLineIndex(lines != null ?
+        lines.edit(this.editStart, this.editEnd, this.newText, this.newEditEnd) :
+        LineIndex.of(this.newText));
+    return (Script) rebuilt[0];
+  }
+
+  // Extends the path down to the innermost function body strictly enclosing the edit, and returns whether there is one
+  // below node.
+  private boolean findBody(@NotNull Node node) {
+    ArrayList<Branch> branches = new ArrayList<>();
+    ArrayList<Node> children = new ArrayList<>();
+    children(node, branches, children);
+    for (int i = 0; i < children.size(); i++) {
+      Node child = children.get(i);
+      boolean located = ((Located) child).hasLoc();
+      if (located && (start(child) > this.editStart || end(child) < this.editEnd)) {
+        continue;
+      }
+      int size = this.pathNodes.size();
+      this.pathNodes.add(child);
+      this.pathBranches.add(branches.get(i));
+      if (this.findBody(child) ||
+          child instanceof FunctionBody && located && start(child) < this.editStart && this.editEnd < end(child)) {
+        return true;
+      }
+      this.pathNodes.subList(size, this.pathNodes.size()).clear();
+      this.pathBranches.subList(size - 1, this.pathBranches.size()).clear();
+    }
+    return false;
+  }
+
+  // Returns node with copies of the nodes under it that follow the edit, or null if it spans the edit.
+  @Nullable
+  private Node relocate(@NotNull Node node) {
+    if (((Located) node).hasLoc()) {
+      return start(node) >= this.editEnd ? this.copy(node) : end(node) <= this.editEnd ? node : null;
+    }
+    ArrayList<Branch> branches = new ArrayList<>();
+    ArrayList<Node> children = new ArrayList<>();
+    children(node, branches, children);
+    boolean moved = false;
+    for (int i = 0; i < children.size(); i++) {
+      Node child = this.relocate(children.get(i));
+      if (child == null) {
+        return null;
+      }
+      moved = moved || child != children.get(i);
+      children.set(i, child);
+    }
+    return moved ? withChildren(node, branches, children) : node;
+  }
+
+  // Copies node, which follows the edit, and everything under it, at the same location in the overlay, which moves it.
+  @SuppressWarnings("ConstantConditions")
+  @Nullable
+  private Node copy(@NotNull Node node) {
+    ArrayList<Branch> branches = new ArrayList<>();
+    ArrayList<Node> children = new ArrayList<>();
+    children(node, branches, children);
+    for (int i = 0; i < children.size(); i++) {
+      Node child = this.copy(children.get(i));
+      if (child == null) {
+        return null;
+      }
+      children.set(i, child);
+    }
+    Located located = node;
+    Node copy = children.isEmpty() ? located.hasLoc() ? copyLeaf(node) : node : withChildren(node, branches, children);
+    if (copy != null && located.hasLoc()) {
+      ((Located) copy).setLoc(this.locations, located.getLocationIndex());
+    }
+    return copy;
+  }
+
+  // Adds the location of a node starting before the edit and ending after it, in the new text.
+  private int extend(@NotNull Located loc) {
+    return this.locations.add(loc.getStart(), loc.getEnd() + this.delta, loc.getLine(), loc.getColumn());
+  }
+
+  // Finds the lines of the end of the edit, counting from index, which is on the given line in both texts.
+  private void countLines(int index, int line, int lineStart) {
+    this.oldEndLine = line;
+    for (int i = index; i < this.editEnd; i++) {
+      if (isLineBreak(this.oldText, i)) {
+        this.oldEndLine++;
+      }
+    }
+    this.newEndLine = line;
+    this.newEndLineStart = lineStart;
+    for (int i = index; i < this.newEditEnd; i++) {
+      if (isLineBreak(this.newText, i)) {
+        this.newEndLine++;
+        this.newEndLineStart = i + 1;
+      }
+    }
+  }
+
+  // Whether the character at i ends a line, counting CR LF once.
+  private static boolean isLineBreak(@NotNull CharSequence text, int i) {
+    char ch = text.charAt(i);
+    return Utils.isLineTerminator(ch) && !(ch == '\r' && i + 1 < text.length() && text.charAt(i + 1) == '\n');
+  }
+
+  private static boolean splitsLineBreak(@NotNull CharSequence text, int i) {
+    return i > 0 && i < text.length() && text.charAt(i - 1) == '\r' && text.charAt(i) == '\n';
+  }
+
+  private static int start(@NotNull Located node) {
+    return node.getStart();
+  }
+
+  private static int end(@NotNull Located node) {
+    return node.hasLoc() ? node.getEnd() : Integer.MAX_VALUE;
+  }
+
+  // Collects the children of node, with the branches leading to them.
+  private static void children(
+      @NotNull Node node,
+      @NotNull ArrayList<Branch> branches,
+      @NotNull ArrayList<Node> nodes) {
+    if (node instanceof ListNode) {
+      ListNode<?> list = (ListNode<?>) node;
+      int i = 0;
+      for (Object element : list.list) {
+        branches.add(IndexedBranch.from(i++));
+        nodes.add(Branch.wrap(element, list.genType.elementType));
+      }
+    } else if (node instanceof NonEmptyListNode) {
+      NonEmptyListNode<?> list = (NonEmptyListNode<?>) node;
+      int i = 0;
+      for (Object element : list.list) {
+        branches.add(IndexedBranch.from(i++));
+        nodes.add(Branch.wrap(element, list.genType.elementType));
+      }
+    } else {
+      StaticBranch[] candidates = node.type() == Type.Maybe || node.type() == Type.Either ? WRAPPER_BRANCHES :
+          BRANCHES.computeIfAbsent(node.type(), type -> applicableBranches(node));
+      for (StaticBranch branch : candidates) {
+        Node child = branch.view(node);
+        if (child != null) {
+          branches.add(branch);
+          nodes.add(child);
+        }
+      }
+    }
+  }
+
+  // Returns a new node like node with the given children, or null if they cannot be set.
+  @SuppressWarnings("unchecked")
+  @Nullable
+  private static Node withChildren(
+      @NotNull Node node,
+      @NotNull ArrayList<Branch> branches,
+      @NotNull ArrayList<Node> children) {
+    ArrayList<Object> elements = new ArrayList<>(children.size());
+    for (Node child : children) {
+      elements.add(Branch.unwrap(child));
+    }
+    // The branches of the wrappers would wrap the children again.
+    if (node instanceof ListNode) {
+      return new ListNode<>(List.from(elements), ((ListNode<?>) node).genType);
+    } else if (node instanceof NonEmptyListNode) {
+      return new NonEmptyListNode<>((NonEmptyList<Object>) List.from(elements), ((NonEmptyListNode<?>) node).genType);
+    } else if (node instanceof MaybeNode) {
+      return new MaybeNode<>(Maybe.just(elements.get(0)), ((MaybeNode<?>) node).genType);
+    } else if (node instanceof EitherNode) {
+      EitherNode<?, ?> either = (EitherNode<?, ?>) node;
+      return new EitherNode<>(either.either.isLeft() ? Either.left(elements.get(0)) : Either.right(elements.get(0)),
+          either.genType);
+    }
+    Node result = node;
+    for (int i = 0; i < children.size(); i++) {
+      Node next = branches.get(i).set(result, children.get(i));
+      if (next == result) {
+        return null;
+      }
+      result = next;
+    }
+    return result;
+  }
+
+  // Copies a node without children, or returns null if it is not one.
+  @Nullable
+  private static Node copyLeaf(@NotNull Node node) {
+    switch (Type.fromTag(node.tag())) {
+    case Identifier:
+      return new Identifier(((Identifier) node).name);
+    case PropertyName:
+      return new PropertyName((PropertyName) node);
+    case LiteralBooleanExpression:
+      return new LiteralBooleanExpression(((LiteralBooleanExpression) node).value);
+    case LiteralInfinityExpression:
+      return new LiteralInfinityExpression();
+    case LiteralNullExpression:
+      return new LiteralNullExpression();
+    case LiteralNumericExpression:
+      return new LiteralNumericExpression(((LiteralNumericExpression) node).value);
+    case LiteralRegExpExpression:
+      return new LiteralRegExpExpression(((LiteralRegExpExpression) node).value);
+    case LiteralStringExpression: {
+      LiteralStringExpression literal = (LiteralStringExpression) node;
+      SourceRange raw = literal.getRaw();
+      return raw == null ? new LiteralStringExpression(literal.getValue()) :
+          literal.value == null ? new LiteralStringExpression(raw) : new LiteralStringExpression(literal.value, raw);
+    }
+    case ThisExpression:
+      return new ThisExpression();
+    case EmptyStatement:
+      return new EmptyStatement();
+    case DebuggerStatement:
+      return new DebuggerStatement();
+    case UseStrictDirective:
+      return new UseStrictDirective();
+    case UnknownDirective:
+      return new UnknownDirective(((UnknownDirective) node).value);
+    default:
+      return null;
+    }
+  }
+
+  @NotNull
+  private static StaticBranch[] applicableBranches(@NotNull Node node) {
+    ArrayList<StaticBranch> branches = new ArrayList<>();
+    for (StaticBranch branch : StaticBranch.values()) {
+      if (branch.view(node) != null) {
+        branches.add(branch);
+      }
+    }
+    return branches.toArray(new StaticBranch[branches.size()]);
+  }
+}
@@ -29,6 +29,15 @@ public class JsError extends Exception {
     this.description = description;
   }
 
+  // Errors that are caught and discarded by the parser itself skip the cost of filling in a stack trace.
+  JsError(int index, int line, int column, String description, boolean stackTrace) {
+    super(null, null, true, stackTrace);
+    this.index = index;
+    this.line = line;
+    this.column = column;
+    this.description = description;
+  }
+
   public int getIndex() {
     return this.index;
   }
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2014 Shape Security, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.shapesecurity.shift.parser;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A perfect hash table over the ES5 keywords, future reserved words, literals and restricted words, answering the
+ * token type and reserved status of a range of characters in a single probe.
+ */
+public final class Keywords {
+  // 7.6.1 ReservedWord, excluding the null and boolean literals
+  public static final int RESERVED = 1;
+  // 7.6.1.2 FutureReservedWord only within strict mode code
+  public static final int STRICT_RESERVED = 2;
+  // 12.2.1 eval and arguments
+  public static final int RESTRICTED = 4;
+
+  // The hash of a word is a function of its first two characters and its length only, chosen to be collision-free
+  // over the words below.
+  private static final int TABLE_SIZE = 128;
+  private static final int MAX_LENGTH = 10;
+
+  @NotNull
+  private static final String[] WORDS = new String[TABLE_SIZE];
+  @NotNull
+  private static final TokenType[] TYPES = new TokenType[TABLE_SIZE];
+  @NotNull
+  private static final int[] FLAGS = new int[TABLE_SIZE];
+
+  static {
+    // 7.6.1.1 Keywords
+    add("break", TokenType.BREAK, RESERVED);
+    add("case", TokenType.CASE, RESERVED);
+    add("catch", TokenType.CATCH, RESERVED);
+    add("continue", TokenType.CONTINUE, RESERVED);
+    add("debugger", TokenType.DEBUGGER, RESERVED);
+    add("default", TokenType.DEFAULT, RESERVED);
+    add("delete", TokenType.DELETE, RESERVED);
+    add("do", TokenType.DO, RESERVED);
+    add("else", TokenType.ELSE, RESERVED);
+    add("finally", TokenType.FINALLY, RESERVED);
+    add("for", TokenType.FOR, RESERVED);
+    add("function", TokenType.FUNCTION, RESERVED);
+    add("if", TokenType.IF, RESERVED);
+    add("in", TokenType.IN, RESERVED);
+    add("instanceof", TokenType.INSTANCEOF, RESERVED);
+    add("new", TokenType.NEW, RESERVED);
+    add("return", TokenType.RETURN, RESERVED);
+    add("switch", TokenType.SWITCH, RESERVED);
+    add("this", TokenType.THIS, RESERVED);
+    add("throw", TokenType.THROW, RESERVED);
+    add("try", TokenType.TRY, RESERVED);
+    add("typeof", TokenType.TYPEOF, RESERVED);
+    add("var", TokenType.VAR, RESERVED);
+    add("void", TokenType.VOID, RESERVED);
+    add("while", TokenType.WHILE, RESERVED);
+    add("with", TokenType.WITH, RESERVED);
+    // 7.6.1.2 Future Reserved Words
+    add("class", TokenType.FUTURE_RESERVED_WORD, RESERVED);
+    add("const", TokenType.CONST, RESERVED);
+    add("enum", TokenType.FUTURE_RESERVED_WORD, RESERVED);
+    add("export", TokenType.FUTURE_RESERVED_WORD, RESERVED);
+    add("extends", TokenType.FUTURE_RESERVED_WORD, RESERVED);
+    add("import", TokenType.FUTURE_RESERVED_WORD, RESERVED);
+    add("super", TokenType.FUTURE_RESERVED_WORD, RESERVED);
+    add("implements", TokenType.FUTURE_STRICT_RESERVED_WORD, STRICT_RESERVED);
+    add("interface", TokenType.FUTURE_STRICT_RESERVED_WORD, STRICT_RESERVED);
+    add("let", TokenType.LET, STRICT_RESERVED);
+    add("package", TokenType.FUTURE_STRICT_RESERVED_WORD, STRICT_RESERVED);
+    add("private", TokenType.FUTURE_STRICT_RESERVED_WORD, STRICT_RESERVED);
+    add("protected", TokenType.FUTURE_STRICT_RESERVED_WORD, STRICT_RESERVED);
+    add("public", TokenType.FUTURE_STRICT_RESERVED_WORD, STRICT_RESERVED);
+    add("static", TokenType.FUTURE_STRICT_RESERVED_WORD, STRICT_RESERVED);
+    add("yield", TokenType.FUTURE_STRICT_RESERVED_WORD, STRICT_RESERVED);
+    // 7.8.1 Null Literals, 7.8.2 Boolean Literals
+    add("null", TokenType.NULL_LITERAL, 0);
+    add("true", TokenType.TRUE_LITERAL, 0);
+    add("false", TokenType.FALSE_LITERAL, 0);
+    add("eval", TokenType.IDENTIFIER, RESTRICTED);
+    add("arguments", TokenType.IDENTIFIER, RESTRICTED);
+  }
+
+  // static only
+  private Keywords() {
+  }
+
+  private static void add(@NotNull String word, @NotNull TokenType type, int flags) {
+    int slot = hash(word, 0, word.length());
+    if (WORDS[slot] != null) {
+      throw new IllegalStateException("Keyword hash collision between " + WORDS[slot] + " and " + word);
+    }
+    WORDS[slot] = word;
+    TYPES[slot] = type;
+    FLAGS[slot] = flags;
+  }
+
+  private static int hash(@NotNull CharSequence id, int start, int length) {
+    return ((id.charAt(start) + id.charAt(start + 1)) * 4 + length * 3) & (TABLE_SIZE - 1);
+  }
+
+  // Returns the slot of the word id[start, start + length), or -1 if it is not in the table.
+  static int lookup(@NotNull CharSequence id, int start, int length) {
+    if (length < 2 || length > MAX_LENGTH) {
+      return -1;
+    }
+    int slot = hash(id, start, length);
+    String word = WORDS[slot];
+    if (word == null || word.length() != length) {
+      return -1;
+    }
+    for (int i = 0; i < length; i++) {
+      if (id.charAt(start + i) != word.charAt(i)) {
+        return -1;
+      }
+    }
+    return slot;
+  }
+
+  // The token type of the word in the given slot. Strict mode reserved words are FUTURE_STRICT_RESERVED_WORD, and
+  // eval and arguments are IDENTIFIER.
+  @NotNull
+  static TokenType getType(int slot) {
+    return TYPES[slot];
+  }
+
+  static int getFlags(int slot) {
+    return FLAGS[slot];
+  }
+
+  /**
+   * Returns the combination of {@link #RESERVED}, {@link #STRICT_RESERVED} and {@link #RESTRICTED} that applies to
+   * the given word, or 0 if it is none of them.
+   */
+  public static int getFlags(@NotNull CharSequence word) {
+    int slot = lookup(word, 0, word.length());
+    return slot < 0 ? 0 : FLAGS[slot];
+  }
+
+  public static boolean isReservedWord(@NotNull CharSequence word) {
+    return (getFlags(word) & RESERVED) != 0;
+  }
+
+  public static boolean isStrictModeReservedWord(@NotNull CharSequence word) {
+    return (getFlags(word) & (RESERVED | STRICT_RESERVED)) != 0;
+  }
+
+  public static boolean isRestrictedWord(@NotNull CharSequence word) {
+    return (getFlags(word) & RESTRICTED) != 0;
+  }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2014 Shape Security, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.shapesecurity.shift.parser;
+
+import com.shapesecurity.shift.ast.Script;
+import com.shapesecurity.shift.ast.SourceLocation;
+
+import java.util.Arrays;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The offsets at which the lines of a source start, mapping any offset to its line and column by binary search. Lines
+ * and columns are counted from 0, as in {@link SourceLocation}. The parser builds the index of the source while
+ * scanning it; see {@link #of(Script)}.
+ */
+public final class LineIndex {
+  @NotNull
+  private final int[] lineStarts;
+
+  LineIndex(@NotNull int[] lineStarts) {
+    this.lineStarts = lineStarts;
+  }
+
+  /** Scans {@code source} for its line terminators, counting CR LF as one. */
+  @NotNull
+  public static LineIndex of(@NotNull CharSequence source) {
+    int[] lineStarts = new int[16];
+    int count = 1;
+    int length = source.length();
+    for (int i = 0; i < length; i++) {
+      char ch = source.charAt(i);
+      if (ch == '\r' && i + 1 < length && source.charAt(i + 1) == '\n') {
+        i++;
+      } else if (ch != '\n' && ch != '\r' && ch != '\u2028' && ch != '\u2029') {
+        continue;
+      }
+      if (count == lineStarts.length) {
+        lineStarts = Arrays.copyOf(lineStarts, count * 2);
+      }
+      lineStarts[count++] = i + 1;
+    }
+    return new LineIndex(Arrays.copyOf(lineStarts, count));
+  }
+
+  /** Returns the index of the source of a script returned by {@link Parser}, or null for any other script. */
+  @Nullable
+  public static LineIndex of(@NotNull Script script) {
+    LocationTable locations = ((Located) script).getLocations();
+    return locations == null ? null : locations.getLineIndex();
+  }
+
+  public int getLineCount() {
+    return this.lineStarts.length;
+  }
+
+  public int getLineStart(int line) {
+    return this.lineStarts[line];
+  }
+
+  public int getLine(int offset) {
+    int low = 0;
+    int high = this.lineStarts.length - 1;
+    while (low < high) {
+      int mid = (low + high + 1) >>> 1;
+      if (this.lineStarts[mid] <= offset) {
+        low = mid;
+      } else {
+        high = mid - 1;
+      }
+    }
+    return low;
+  }
+
+  public int getColumn(int offset) {
+    return offset - this.lineStarts[this.getLine(offset)];
+  }
+
+  @NotNull
+  public SourceLocation getSourceLocation(int offset) {
+    int line = this.getLine(offset);
+    return new SourceLocation(line, offset - this.lineStarts[line], offset);
+  }
+
+  @NotNull
+  public SourceLocation getSourceLocation(@NotNull SourceRange range) {
+    return this.getSourceLocation(range.start).withSourceRange(range);
+  }
+
+  // The index of the text obtained by replacing the characters between start and end with those of newText between
+  // start and newEnd. The edit must not split a CR LF pair.
+  @NotNull
+  LineIndex edit(int start, int end, @NotNull CharSequence newText, int newEnd) {
+    int delta = newEnd - end;
+    // The lines starting up to the edit are unchanged, and those starting after it move.
+    int before = this.getLine(start) + 1;
+    int after = this.getLine(end) + 1;
+    LineIndex inserted = of(newText.subSequence(start, newEnd));
+    int[] lineStarts = new int[before + inserted.lineStarts.length - 1 + this.lineStarts.length - after];
+    System.arraycopy(this.lineStarts, 0, lineStarts, 0, before);
+    int count = before;
+    for (int i = 1; i < inserted.lineStarts.length; i++) {
+      lineStarts[count++] = start + inserted.lineStarts[i];
+    }
+    for (int i = after; i < this.lineStarts.length; i++) {
+      lineStarts[count++] = this.lineStarts[i] + delta;
+    }
+    return new LineIndex(lineStarts);
+  }
+
+  @Override
+  public boolean equals(Object object) {
+    return object instanceof LineIndex && Arrays.equals(this.lineStarts, ((LineIndex) object).lineStarts);
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(this.lineStarts);
+  }
+}
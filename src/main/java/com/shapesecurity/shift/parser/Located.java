@@ -22,16 +22,50 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 public class Located {
+  // Nodes created by a parser that tracks locations hold the index of their location in its table.
+  @Nullable
+  private LocationTable locations;
+  private int location;
+
+  void setLoc(@NotNull LocationTable locations, int location) {
+    this.locations = locations;
+    this.location = location;
+  }
 
   @Nullable
-  private SourceLocation loc;
+  LocationTable getLocations() {
+    return this.locations;
+  }
+
+  int getLocationIndex() {
+    return this.location;
+  }
+
+  boolean hasLoc() {
+    return this.locations != null && this.location >= 0;
+  }
+
+  // The parts of the location, without materializing it; only valid when hasLoc() is true.
+  int getStart() {
+    return this.locations.start(this.location);
+  }
+
+  int getEnd() {
+    return this.locations.end(this.location);
+  }
+
+  int getLine() {
+    return this.locations.line(this.location);
+  }
 
-  void setLoc(@NotNull SourceLocation loc) {
-    this.loc = loc;
+  int getColumn() {
+    return this.locations.column(this.location);
   }
 
+  // The script returned by a parser that does not track locations has a table without its location, for the line
+  // index.
   @Nullable
   public SourceLocation getLoc() {
-    return loc;
+    return this.hasLoc() ? this.locations.get(this.location) : null;
   }
 }
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2014 Shape Security, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.shapesecurity.shift.parser;
+
+import com.shapesecurity.shift.ast.SourceLocation;
+
+import java.util.Arrays;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+// The locations of the nodes of a parse, packed into a single array as the start, end, line and column of each node.
+// An incremental reparse leaves the table of the previous script as it is and gives the new script an overlay on it,
+// which holds the locations of the reparsed nodes and reads those of the previous table as moved by the edit; a table
+// is not changed once its script is built.
+final class LocationTable {
+  private static final int START = 0, END = 1, LINE = 2, COLUMN = 3, WIDTH = 4;
+  // An edit applies to the locations of the tables below it, those with an index under its limit, that start at or
+  // after its end in the text it was made on.
+  private static final int LIMIT = 0, EDIT_END = 1, DELTA = 2, END_LINE = 3, LINE_DELTA = 4, NEW_END_LINE_START = 5,
+      EDIT_WIDTH = 6;
+  // The number of overlays stacked before they are flattened into a single table, which bounds the cost of a read.
+  private static final int MAX_EDITS = 32;
+  private static final int[] NO_EDITS = {};
+
+  @NotNull
+  private final CharSequence source;
+  // The table this one is an overlay on, holding the locations under baseSize.
+  @Nullable
+  private final LocationTable base;
+  private final int baseSize;
+  // The edits from the first table below this one, oldest first.
+  @NotNull
+  private final int[] edits;
+  // The number of locations of the parse the first table was made by, or -1 in that table.
+  private final int parsedSize;
+  @NotNull
+  private int[] entries;
+  private int size;
+  // Set once the whole source has been scanned.
+  @Nullable
+  private LineIndex lineIndex;
+
+  LocationTable(@NotNull CharSequence source) {
+    this(source, 256);
+  }
+
+  LocationTable(@NotNull CharSequence source, int capacity) {
+    this(source, null, NO_EDITS, -1, capacity);
+  }
+
+  private LocationTable(
+      @NotNull CharSequence source,
+      @Nullable LocationTable base,
+      @NotNull int[] edits,
+      int parsedSize,
+      int capacity) {
+    this.source = source;
+    this.base = base;
+    this.baseSize = base == null ? 0 : base.size();
+    this.edits = edits;
+    this.parsedSize = parsedSize;
+    this.entries = new int[WIDTH * capacity];
+  }
+
+  @Nullable
+  LineIndex getLineIndex() {
+    return this.lineIndex;
+  }
+
+  void setLineIndex(@NotNull LineIndex lineIndex) {
+    this.lineIndex = lineIndex;
+  }
+
+  int size() {
+    return this.baseSize + this.size;
+  }
+
+  // Whether the overlays have added more locations than the first parse, most of which belong to nodes that have since
+  // been replaced.
+  boolean isOvergrown() {
+    return this.parsedSize >= 0 && this.size() > 2 * this.parsedSize;
+  }
+
+  // Adds a location and returns its index.
+  int add(int start, int end, int line, int column) {
+    int i = WIDTH * this.size;
+    if (i == this.entries.length) {
+      this.entries = Arrays.copyOf(this.entries, Math.max(i * 2, WIDTH));
+    }
+    this.entries[i + START] = start;
+    this.entries[i + END] = end;
+    this.entries[i + LINE] = line;
+    this.entries[i + COLUMN] = column;
+    return this.baseSize + this.size++;
+  }
+
+  // Returns an overlay on this table for newText, made from its text by an edit ending at editEnd that added delta
+  // characters. The end of the edit is on endLine before it, and on newEndLine, starting at newEndLineStart, after it.
+  @NotNull
+  LocationTable edit(
+      int editEnd,
+      int delta,
+      int endLine,
+      int newEndLine,
+      int newEndLineStart,
+      @NotNull CharSequence newText) {
+    LocationTable base = this.edits.length == EDIT_WIDTH * MAX_EDITS ? this.flatten() : this;
+    int j = base.edits.length;
+    int[] edits = Arrays.copyOf(base.edits, j + EDIT_WIDTH);
+    edits[j + LIMIT] = base.size();
+    edits[j + EDIT_END] = editEnd;
+    edits[j + DELTA] = delta;
+    edits[j + END_LINE] = endLine;
+    edits[j + LINE_DELTA] = newEndLine - endLine;
+    edits[j + NEW_END_LINE_START] = newEndLineStart;
+    return new LocationTable(newText, base, edits, base.parsedSize >= 0 ? base.parsedSize : base.size(), 64);
+  }
+
+  // Copies the locations of this table and the tables below it into a single table.
+  @NotNull
+  private LocationTable flatten() {
+    int size = this.size();
+    LocationTable flat = new LocationTable(this.source, null, NO_EDITS, this.parsedSize, size);
+    for (int index = 0; index < size; index++) {
+      flat.add(this.start(index), this.end(index), this.line(index), this.column(index));
+    }
+    if (this.lineIndex != null) {
+      flat.setLineIndex(this.lineIndex);
+    }
+    return flat;
+  }
+
+  int start(int index) {
+    return this.field(index, START);
+  }
+
+  int end(int index) {
+    return this.field(index, END);
+  }
+
+  int line(int index) {
+    return this.field(index, LINE);
+  }
+
+  int column(int index) {
+    return this.field(index, COLUMN);
+  }
+
+  @NotNull
+  SourceLocation get(int index) {
+    int start = this.start(index);
+    return new SourceLocation(this.line(index), this.column(index), start)
+        .withSourceRange(new SourceRange(start, this.end(index), this.source));
+  }
+
+  // Reads a location from the table holding it, and applies the edits made since.
+  @SuppressWarnings("ConstantConditions")
+  private int field(int index, int field) {
+    if (index >= this.baseSize) {
+      return this.entries[WIDTH * (index - this.baseSize) + field];
+    }
+    LocationTable owner = this.base;
+    while (index < owner.baseSize) {
+      owner = owner.base;
+    }
+    int i = WIDTH * (index - owner.baseSize);
+    int start = owner.entries[i + START];
+    int end = owner.entries[i + END];
+    int line = owner.entries[i + LINE];
+    int column = owner.entries[i + COLUMN];
+    for (int j = owner.edits.length; j < this.edits.length; j += EDIT_WIDTH) {
+      if (index < this.edits[j + LIMIT] && start >= this.edits[j + EDIT_END]) {
+        start += this.edits[j + DELTA];
+        end += this.edits[j + DELTA];
+        if (line == this.edits[j + END_LINE]) {
+          column = start - this.edits[j + NEW_END_LINE_START];
+        }
+        line += this.edits[j + LINE_DELTA];
+      }
+    }
+    return field == START ? start : field == END ? end : field == LINE ? line : column;
+  }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2014 Shape Security, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.shapesecurity.shift.parser;
+
+import java.util.HashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import org.jetbrains.annotations.NotNull;
+
+// Picks the function bodies of a script worth parsing concurrently from a quick tokenization, and submits them.
+//
+// The picks are only hints: the tokenization guesses regular expressions rather than being directed by the grammar,
+// and each body is parsed assuming a strictness read off the nearest directive prologue. The parser uses a result
+// only when it reaches a body at exactly that offset in exactly that context, and parses the body itself otherwise.
+final class ParallelBodies {
+  // Bodies shorter than this, in characters, are not worth a task.
+  static final int MIN_BODY_LENGTH = 4096;
+
+  @NotNull
+  private final CharSequence source;
+  @NotNull
+  private final TokenBuffer tokens;
+  @NotNull
+  private final int[] matchingBrace;
+  @NotNull
+  private final ForkJoinPool pool;
+  private final int maxBodyLength;
+  @NotNull
+  private final SymbolTable symbols;
+  @NotNull
+  private final HashMap<Integer, ForkJoinTask<Parser.ParsedBody>> tasks = new HashMap<>();
+
+  private ParallelBodies(
+      @NotNull CharSequence source,
+      @NotNull TokenBuffer tokens,
+      @NotNull int[] matchingBrace,
+      @NotNull ForkJoinPool pool,
+      @NotNull SymbolTable symbols) {
+    this.source = source;
+    this.tokens = tokens;
+    this.matchingBrace = matchingBrace;
+    this.pool = pool;
+    this.symbols = symbols;
+    this.maxBodyLength = Math.max(MIN_BODY_LENGTH, source.length() / pool.getParallelism());
+  }
+
+  @NotNull
+  static HashMap<Integer, ForkJoinTask<Parser.ParsedBody>> submit(
+      @NotNull CharSequence source,
+      @NotNull ForkJoinPool pool,
+      @NotNull SymbolTable symbols) {
+    if (source.length() < 2 * MIN_BODY_LENGTH) {
+      return new HashMap<>();
+    }
+    TokenBuffer tokens;
+    try {
+      tokens = Tokenizer.tokenizeCompact(source);
+    } catch (JsError e) {
+      // The parser will report it.
+      return new HashMap<>();
+    }
+    int[] matchingBrace = matchBraces(tokens);
+    if (matchingBrace == null) {
+      return new HashMap<>();
+    }
+    ParallelBodies bodies = new ParallelBodies(source, tokens, matchingBrace, pool, symbols);
+    bodies.pick(0, tokens.size(), bodies.hasUseStrict(0));
+    return bodies.tasks;
+  }
+
+  // Maps the index of every brace token to the index of its partner, or returns null if they are unbalanced.
+  private static int[] matchBraces(@NotNull TokenBuffer tokens) {
+    int[] matching = new int[tokens.size()];
+    int[] open = new int[16];
+    int depth = 0;
+    for (int i = 0; i < tokens.size(); i++) {
+      TokenType type = tokens.getType(i);
+      if (type == TokenType.LBRACE) {
+        if (depth == open.length) {
+          int[] grown = new int[depth * 2];
+          System.arraycopy(open, 0, grown, 0, depth);
+          open = grown;
+        }
+        open[depth++] = i;
+      } else if (type == TokenType.RBRACE) {
+        if (depth == 0) {
+          return null;
+        }
+        int o = open[--depth];
+        matching[o] = i;
+        matching[i] = o;
+      }
+    }
+    return depth == 0 ? matching : null;
+  }
+
+  // Picks bodies among the tokens in [from, to), descending into bodies too large to make a single task. Returns
+  // whether anything was picked.
+  private boolean pick(int from, int to, boolean strict) {
+    boolean picked = false;
+    for (int i = from; i < to; i++) {
+      if (this.tokens.getType(i) != TokenType.FUNCTION) {
+        continue;
+      }
+      int body = this.findBody(i);
+      if (body < 0) {
+        continue;
+      }
+      int end = this.matchingBrace[body];
+      int length = this.tokens.getEnd(end) - this.tokens.getStart(body);
+      if (length >= MIN_BODY_LENGTH) {
+        boolean bodyStrict = strict || this.hasUseStrict(body + 1);
+        if (length <= this.maxBodyLength || !this.pick(body + 1, end, bodyStrict)) {
+          this.submit(this.tokens.getStart(body), strict);
+        }
+        picked = true;
+      }
+      i = end;
+    }
+    return picked;
+  }
+
+  // Finds the opening brace of the body of the function whose keyword is token i, or returns -1.
+  private int findBody(int i) {
+    int size = this.tokens.size();
+    i++;
+    if (i < size && this.tokens.getType(i) == TokenType.IDENTIFIER) {
+      i++;
+    }
+    if (i >= size || this.tokens.getType(i) != TokenType.LPAREN) {
+      return -1;
+    }
+    i++;
+    while (i < size && (this.tokens.getType(i) == TokenType.IDENTIFIER || this.tokens.getType(i) == TokenType.COMMA)) {
+      i++;
+    }
+    if (i + 1 >= size || this.tokens.getType(i) != TokenType.RPAREN || this.tokens.getType(i + 1) != TokenType.LBRACE) {
+      return -1;
+    }
+    return i + 1;
+  }
+
+  // Whether the directive prologue starting at token i appears to contain a use strict directive.
+  private boolean hasUseStrict(int i) {
+    int size = this.tokens.size();
+    for (; i < size && this.tokens.getType(i) == TokenType.STRING; i++) {
+      int next = i + 1;
+      if (next < size && this.tokens.getType(next) == TokenType.SEMICOLON) {
+        next++;
+      } else if (next < size && this.tokens.getType(next) != TokenType.RBRACE
+          && !this.tokens.hasLineTerminatorBefore(next)) {
+        return false;
+      }
+      if (this.isUseStrict(i)) {
+        return true;
+      }
+      i = next - 1;
+    }
+    return false;
+  }
+
+  private boolean isUseStrict(int i) {
+    int start = this.tokens.getStart(i);
+    String directive = "use strict";
+    if (this.tokens.getEnd(i) - start != directive.length() + 2) {
+      return false;
+    }
+    for (int j = 0; j < directive.length(); j++) {
+      if (this.source.charAt(start + 1 + j) != directive.charAt(j)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void submit(int index, boolean strict) {
+    this.tasks.put(index, this.pool.submit(() -> Parser.parseFunctionBodyAt(this.source, index, strict, this.symbols)));
+  }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2014 Shape Security, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.shapesecurity.shift.parser;
+
+import com.shapesecurity.shift.ast.Node;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Receives the productions of a script as {@link Parser#parse(CharSequence, ParseListener)} parses them, for analyses
+ * that only need to see each node once.
+ * <p>
+ * Nodes are passed to {@link #node(Node, SourceRange)} as they are completed, children before their parents. The
+ * parser drops each statement once it has been passed, so the statement lists of the function bodies, blocks and
+ * switch cases passed are empty; their statements will have been passed before them.
+ */
+public interface ParseListener {
+  /** Called at the opening brace of the body of a function, after its name and parameters. */
+  default void enterFunctionBody(int start) {
+  }
+
+  /** Called after the closing brace of the body of a function, before the body itself is passed to node. */
+  default void exitFunctionBody(int start, int end) {
+  }
+
+  /** Called with each identifier, whether it names a variable, a label, a function, a parameter or a property. */
+  default void identifier(@NotNull String name, @NotNull SourceRange range) {
+  }
+
+  /** Called with each node once parsed, with the range of source it was parsed from. */
+  default void node(@NotNull Node node, @NotNull SourceRange range) {
+  }
+}
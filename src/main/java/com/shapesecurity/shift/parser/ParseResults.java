@@ -0,0 +1,200 @@
+/*
+ * Copyright 2014 Shape Security, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.shapesecurity.shift.parser;
+
+import com.shapesecurity.functional.data.Either;
+import com.shapesecurity.shift.ast.Script;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The scripts parsed by {@link Parser#parseAll(java.util.Collection, Executor)} or
+ * {@link Parser#parseAllFiles(java.util.Collection, Executor)}, in the order of their sources, with the time taken.
+ */
+public final class ParseResults {
+  @NotNull
+  private final List<Either<Throwable, Script>> results;
+  // The time taken to parse each source, in nanoseconds, sorted.
+  @NotNull
+  private final long[] sortedTimes;
+  private final long totalSize;
+  private final long elapsedNanos;
+
+  private ParseResults(
+      @NotNull List<Either<Throwable, Script>> results,
+      @NotNull long[] sortedTimes,
+      long totalSize,
+      long elapsedNanos) {
+    this.results = results;
+    this.sortedTimes = sortedTimes;
+    this.totalSize = totalSize;
+    this.elapsedNanos = elapsedNanos;
+  }
+
+  // Parses each of sources, which are texts or paths, on executor, and waits for all of them to be parsed.
+  @NotNull
+  static ParseResults parse(@NotNull Object[] sources, @NotNull Executor executor) throws IOException {
+    int count = sources.length;
+    // Each task sets its own element, and the latch publishes them all.
+    List<Either<Throwable, Script>> results = new ArrayList<>(Collections.nCopies(count, null));
+    long[] times = new long[count];
+    long[] sizes = new long[count];
+    IOException[] readFailures = new IOException[count];
+    Error[] fatalErrors = new Error[count];
+    CountDownLatch done = new CountDownLatch(count);
+    long start = System.nanoTime();
+    for (int i = 0; i < count; i++) {
+      int index = i;
+      try {
+        executor.execute(() -> {
+          Object source = sources[index];
+          long parseStart = System.nanoTime();
+          try {
+            Script script;
+            if (source instanceof Path) {
+              sizes[index] = Files.size((Path) source);
+              script = Parser.parse((Path) source);
+            } else {
+              sizes[index] = ((CharSequence) source).length();
+              script = Parser.parse((CharSequence) source);
+            }
+            results.set(index, Either.right(script));
+          } catch (IOException e) {
+            readFailures[index] = e;
+          } catch (Exception | StackOverflowError e) {
+            // A syntax error, or a source nested too deeply for the stack, is the result of that source alone.
+            results.set(index, Either.left(e));
+          } catch (Error e) {
+            fatalErrors[index] = e;
+          } finally {
+            times[index] = System.nanoTime() - parseStart;
+            done.countDown();
+          }
+        });
+      } catch (RejectedExecutionException e) {
+        results.set(index, Either.left(e));
+        done.countDown();
+      }
+    }
+    await(done);
+    long elapsedNanos = System.nanoTime() - start;
+
+    for (Error error : fatalErrors) {
+      if (error != null) {
+        throw error;
+      }
+    }
+    // A file that cannot be read is not a result of parsing.
+    for (IOException failure : readFailures) {
+      if (failure != null) {
+        throw failure;
+      }
+    }
+    Arrays.sort(times);
+    long totalSize = 0;
+    for (long size : sizes) {
+      totalSize += size;
+    }
+    return new ParseResults(Collections.unmodifiableList(results), times, totalSize, elapsedNanos);
+  }
+
+  // Waits for the latch without giving up on interruption, which is restored afterwards. A ForkJoinPool worker that
+  // waits lets its pool start another worker, so the tasks it waits for can still run.
+  private static void await(@NotNull CountDownLatch latch) {
+    ForkJoinPool.ManagedBlocker blocker = new ForkJoinPool.ManagedBlocker() {
+      @Override
+      public boolean block() throws InterruptedException {
+        latch.await();
+        return true;
+      }
+
+      @Override
+      public boolean isReleasable() {
+        return latch.getCount() == 0;
+      }
+    };
+    boolean interrupted = false;
+    while (true) {
+      try {
+        ForkJoinPool.managedBlock(blocker);
+        break;
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * The script parsed from each source, or what was thrown parsing it, in the order of the sources: a {@link JsError}
+   * for a syntax error, any other exception, a {@link StackOverflowError} on a deeply nested source, or the
+   * {@link RejectedExecutionException} of a source the executor would not parse.
+   */
+  @NotNull
+  public List<Either<Throwable, Script>> getResults() {
+    return this.results;
+  }
+
+  public int getCount() {
+    return this.results.size();
+  }
+
+  /** The total length of the sources: the number of characters of texts and the number of bytes of files. */
+  public long getTotalSize() {
+    return this.totalSize;
+  }
+
+  /** The time from the start of the first parse to the end of the last. */
+  public long getElapsedNanos() {
+    return this.elapsedNanos;
+  }
+
+  public double getSourcesPerSecond() {
+    return this.getCount() * 1e9 / Math.max(this.elapsedNanos, 1);
+  }
+
+  /** The sources parsed per second, measured in the units of {@link #getTotalSize()}. */
+  public double getSizePerSecond() {
+    return this.totalSize * 1e9 / Math.max(this.elapsedNanos, 1);
+  }
+
+  /**
+   * The time within which the given percentage of the sources were parsed, each on its own; for example
+   * {@code getParseTimePercentile(99)} is the 99th percentile parse time. Returns 0 if there were no sources.
+   */
+  public long getParseTimePercentile(double percentage) {
+    if (this.sortedTimes.length == 0) {
+      return 0;
+    }
+    int rank = (int) Math.ceil(percentage / 100 * this.sortedTimes.length);
+    return this.sortedTimes[Math.min(Math.max(rank, 1), this.sortedTimes.length) - 1];
+  }
+}
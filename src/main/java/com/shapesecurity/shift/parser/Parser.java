@@ -28,6 +28,7 @@ import static com.shapesecurity.shift.parser.ErrorMessages.LABEL_REDECLARATION;
 import static com.shapesecurity.shift.parser.ErrorMessages.MULTIPLE_DEFAULTS_IN_SWITCH;
 import static com.shapesecurity.shift.parser.ErrorMessages.NEWLINE_AFTER_THROW;
 import static com.shapesecurity.shift.parser.ErrorMessages.NO_CATCH_OR_FINALLY;
+import static com.shapesecurity.shift.parser.ErrorMessages.SKIMMED_BODY_MISMATCH;
 import static com.shapesecurity.shift.parser.ErrorMessages.STRICT_CATCH_VARIABLE;
 import static com.shapesecurity.shift.parser.ErrorMessages.STRICT_DELETE;
 import static com.shapesecurity.shift.parser.ErrorMessages.STRICT_DUPLICATE_PROPERTY;
@@ -55,8 +56,8 @@ import com.shapesecurity.shift.ast.Expression;
 import com.shapesecurity.shift.ast.FunctionBody;
 import com.shapesecurity.shift.ast.Identifier;
 import com.shapesecurity.shift.ast.Node;
+import com.shapesecurity.shift.ast.NodeInterner;
 import com.shapesecurity.shift.ast.Script;
-import com.shapesecurity.shift.ast.SourceLocation;
 import com.shapesecurity.shift.ast.Statement;
 import com.shapesecurity.shift.ast.SwitchCase;
 import com.shapesecurity.shift.ast.SwitchDefault;
@@ -89,7 +90,6 @@ import com.shapesecurity.shift.ast.expression.ThisExpression;
 import com.shapesecurity.shift.ast.operators.AssignmentOperator;
 import com.shapesecurity.shift.ast.operators.BinaryOperator;
 import com.shapesecurity.shift.ast.operators.PostfixOperator;
-import com.shapesecurity.shift.ast.operators.Precedence;
 import com.shapesecurity.shift.ast.operators.PrefixOperator;
 import com.shapesecurity.shift.ast.property.DataProperty;
 import com.shapesecurity.shift.ast.property.Getter;
@@ -124,9 +124,25 @@ import com.shapesecurity.shift.parser.token.NumericLiteralToken;
 import com.shapesecurity.shift.parser.token.StringLiteralToken;
 import com.shapesecurity.shift.utils.Utils;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -138,9 +154,90 @@ public class Parser extends Tokenizer {
   private boolean inSwitch;
   private boolean inFunctionBody;
   private boolean allowIn = true;
+  // Function bodies being parsed concurrently, by the offset of their opening brace.
+  @Nullable
+  private HashMap<Integer, ForkJoinTask<ParsedBody>> parallelBodies;
+  private int parallelBodiesTaken;
+  private boolean lazyFunctionBodies;
+  // Set when only checking the syntax: the statements of statement lists are dropped as soon as they are parsed.
+  private boolean validating;
+  @Nullable
+  private ParseListener listener;
+  // Set when hash-consing: each node is replaced by its canonical instance as soon as it is complete.
+  @Nullable
+  private NodeInterner interner;
+  // The left operands, operators and start locations of the binary expressions being parsed. A nested call of
+  // parseBinaryExpression uses the entries above those of the calls enclosing it.
+  @NotNull
+  private Expression[] operands = new Expression[16];
+  @NotNull
+  private BinaryOperator[] operandOperators = new BinaryOperator[16];
+  @NotNull
+  private int[] operandLocations = new int[16];
+  private int operandCount;
+
+  private static final int INITIAL_READ_BUFFER_SIZE = 8192;
+  // Stands for the absence of a location where the parser keeps the offset of a token.
+  private static final int NO_LOCATION = -1;
+
+  // The binary operator of each token type, by ordinal, and the precedence of each binary operator.
+  private static final BinaryOperator[] BINARY_OPERATORS = new BinaryOperator[TokenType.values().length];
+  private static final int[] BINARY_PRECEDENCES = new int[BinaryOperator.values().length];
+
+  static {
+    TokenType[] types = {
+        TokenType.OR, TokenType.AND, TokenType.BIT_OR, TokenType.BIT_XOR, TokenType.BIT_AND, TokenType.EQ,
+        TokenType.NE, TokenType.EQ_STRICT, TokenType.NE_STRICT, TokenType.LT, TokenType.GT, TokenType.LTE,
+        TokenType.GTE, TokenType.INSTANCEOF, TokenType.IN, TokenType.SHL, TokenType.SHR, TokenType.SHR_UNSIGNED,
+        TokenType.ADD, TokenType.SUB, TokenType.MUL, TokenType.DIV, TokenType.MOD };
+    BinaryOperator[] operators = {
+        BinaryOperator.LogicalOr, BinaryOperator.LogicalAnd, BinaryOperator.BitwiseOr, BinaryOperator.BitwiseXor,
+        BinaryOperator.BitwiseAnd, BinaryOperator.Equal, BinaryOperator.NotEqual, BinaryOperator.StrictEqual,
+        BinaryOperator.StrictNotEqual, BinaryOperator.LessThan, BinaryOperator.GreaterThan,
+        BinaryOperator.LessThanEqual, BinaryOperator.GreaterThanEqual, BinaryOperator.Instanceof, BinaryOperator.In,
+        BinaryOperator.Left, BinaryOperator.Right, BinaryOperator.UnsignedRight, BinaryOperator.Plus,
+        BinaryOperator.Minus, BinaryOperator.Mul, BinaryOperator.Div, BinaryOperator.Rem };
+    for (int i = 0; i < types.length; i++) {
+      BINARY_OPERATORS[types[i].ordinal()] = operators[i];
+    }
+    for (BinaryOperator operator : BinaryOperator.values()) {
+      BINARY_PRECEDENCES[operator.ordinal()] = operator.getPrecedence().ordinal();
+    }
+  }
+
+  private Parser(@NotNull CharSequence source, @NotNull SymbolTable symbols) throws JsError {
+    super(true, source, 0, 0, 0, symbols);
+  }
+
+  private Parser(
+      @NotNull CharSequence source,
+      int index,
+      int line,
+      int lineStart,
+      boolean strict,
+      boolean allowIn,
+      @NotNull SymbolTable symbols) throws JsError {
+    super(true, source, index, line, lineStart, symbols);
+    this.strict = strict;
+    this.allowIn = allowIn;
+  }
+
+  // A parser to be reset onto each source it parses.
+  @NotNull
+  static Parser reusable(@NotNull SymbolTable symbols) throws JsError {
+    return new Parser("", symbols);
+  }
 
-  private Parser(@NotNull String source) throws JsError {
-    super(true, source);
+  @Override
+  void reset(@NotNull CharSequence source) throws JsError {
+    this.labelSet.clear();
+    this.inIteration = false;
+    this.inSwitch = false;
+    this.inFunctionBody = false;
+    this.allowIn = true;
+    Arrays.fill(this.operands, 0, this.operandCount, null);
+    this.operandCount = 0;
+    super.reset(source);
   }
 
   @Nullable
@@ -182,21 +279,237 @@ public class Parser extends Tokenizer {
   }
 
   @NotNull
-  public static Script parse(@NotNull String text) throws JsError {
-    return new Parser(text).parse();
+  public static Script parse(@NotNull CharSequence text) throws JsError {
+    return parse(text, new SymbolTable());
+  }
+
+  /**
+   * Parses like {@link #parse(CharSequence)}, interning identifier names and string literal values in {@code symbols}.
+   */
+  @NotNull
+  public static Script parse(@NotNull CharSequence text, @NotNull SymbolTable symbols) throws JsError {
+    return new Parser(text, symbols).parse();
+  }
+
+  /**
+   * Parses like {@link #parse(CharSequence)}, but hash-conses the tree in {@code interner}: each repeated subtree, such
+   * as {@code void 0} or an identical small function, is a single shared instance, and equal nodes are identical.
+   */
+  @NotNull
+  public static Script parse(@NotNull CharSequence text, @NotNull NodeInterner interner) throws JsError {
+    Parser parser = new Parser(text, new SymbolTable());
+    parser.interner = interner;
+    return parser.parse();
+  }
+
+  /**
+   * Parses the whole content of {@code reader}. The characters are read into a single buffer that the tokenizer
+   * scans directly, so no intermediate {@link String} copy of the source is made.
+   */
+  @NotNull
+  public static Script parse(@NotNull Reader reader) throws IOException, JsError {
+    return parse(readFully(reader));
+  }
+
+  @NotNull
+  public static Script parse(@NotNull ReadableByteChannel channel, @NotNull Charset charset)
+      throws IOException, JsError {
+    return parse(Channels.newReader(channel, charset.newDecoder(), -1));
+  }
+
+  /**
+   * Parses a UTF-8 encoded file. The file is memory-mapped rather than read onto the heap; see
+   * {@link #parse(ByteBuffer)}. The tree does not read the mapping, so the file may change once this returns.
+   */
+  @NotNull
+  public static Script parse(@NotNull Path path) throws IOException, JsError {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      return parse(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    }
+  }
+
+  /**
+   * Parses the UTF-8 encoded bytes between the buffer's position and limit. ASCII input, which is most JavaScript, is
+   * scanned in place with one byte per character; other input is decoded once without going through a
+   * {@link String}. The tree keeps copies of the source text it needs, so the buffer may change once this returns.
+   */
+  @NotNull
+  public static Script parse(@NotNull ByteBuffer utf8) throws JsError {
+    return parse(Utf8Source.of(utf8));
+  }
+
+  /**
+   * Parses each of {@code texts} like {@link #parse(CharSequence)}, concurrently on the common fork/join pool; see
+   * {@link #parseAll(Collection, Executor)}.
+   */
+  @NotNull
+  public static ParseResults parseAll(@NotNull Collection<? extends CharSequence> texts) {
+    return parseAll(texts, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Parses each of {@code texts} like {@link #parse(CharSequence)}, concurrently on {@code executor}, and waits for all
+   * of them. A syntax error, any other exception, or a stack overflow thrown parsing one text is its result and does
+   * not affect the others, as is the rejection of a text by the executor; any other error is rethrown once every
+   * text has been parsed.
+   */
+  @NotNull
+  public static ParseResults parseAll(
+      @NotNull Collection<? extends CharSequence> texts,
+      @NotNull Executor executor) {
+    try {
+      return ParseResults.parse(texts.toArray(), executor);
+    } catch (IOException e) {
+      // Only reading files fails this way.
+      throw new AssertionError(e);
+    }
+  }
+
+  /**
+   * Parses each of the UTF-8 encoded files at {@code paths} like {@link #parse(Path)}, concurrently on
+   * {@code executor}, and waits for all of them. A syntax error, any other exception, or a stack overflow thrown
+   * parsing one file is its result and does not affect the others, as is the rejection of a file by the executor; a
+   * file that cannot be read, or any other error, fails the whole call once every other file has been parsed.
+   */
+  @NotNull
+  public static ParseResults parseAllFiles(@NotNull Collection<Path> paths, @NotNull Executor executor)
+      throws IOException {
+    return ParseResults.parse(paths.toArray(), executor);
+  }
+
+  /**
+   * Parses like {@link #parse(CharSequence)}, but parses large function bodies concurrently on the common fork/join
+   * pool; see {@link #parseInParallel(CharSequence, ForkJoinPool)}.
+   */
+  @NotNull
+  public static Script parseInParallel(@NotNull CharSequence text) throws JsError {
+    return parseInParallel(text, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Parses like {@link #parse(CharSequence)}, but parses large function bodies concurrently on {@code pool} while the
+   * calling thread parses the rest. The result, or the error thrown, is the same as that of the sequential parse.
+   */
+  @NotNull
+  public static Script parseInParallel(@NotNull CharSequence text, @NotNull ForkJoinPool pool) throws JsError {
+    return parseInParallel(text, pool, new AtomicInteger());
+  }
+
+  // As parseInParallel, adding to bodiesTaken the number of bodies whose concurrent parse made it into the result.
+  @NotNull
+  static Script parseInParallel(
+      @NotNull CharSequence text,
+      @NotNull ForkJoinPool pool,
+      @NotNull AtomicInteger bodiesTaken) throws JsError {
+    SymbolTable symbols = SymbolTable.concurrent(Integer.MAX_VALUE);
+    HashMap<Integer, ForkJoinTask<ParsedBody>> bodies = ParallelBodies.submit(text, pool, symbols);
+    Parser parser = new Parser(text, symbols);
+    parser.parallelBodies = bodies;
+    try {
+      return parser.parse();
+    } finally {
+      bodiesTaken.addAndGet(parser.parallelBodiesTaken);
+      for (ForkJoinTask<ParsedBody> task : bodies.values()) {
+        task.cancel(false);
+      }
+    }
+  }
+
+  /**
+   * Parses like {@link #parse(CharSequence)}, but only skims function bodies: their tokens are scanned and their braces
+   * matched, and each body is parsed when its directives or statements are first accessed. Syntax errors the skim
+   * cannot see are thrown then, wrapped in a {@link DeferredJsError}. The bodies are parsed from {@code text}, which
+   * must not change while the tree is in use.
+   */
+  @NotNull
+  public static Script parseLazily(@NotNull CharSequence text) throws JsError {
+    Parser parser = new Parser(text, new SymbolTable());
+    parser.lazyFunctionBodies = true;
+    return parser.parse();
+  }
+
+  /**
+   * Parses {@code text} without building its tree, passing its productions to {@code listener} instead. The memory
+   * used is that of the statements being parsed and their enclosing functions, however large the script. The error
+   * thrown is that {@link #parse(CharSequence)} would throw.
+   */
+  public static void parse(@NotNull CharSequence text, @NotNull ParseListener listener) throws JsError {
+    Parser parser = new Parser(text, new SymbolTable());
+    parser.validating = true;
+    parser.listener = listener;
+    parser.parseProgramBody();
+  }
+
+  /**
+   * Checks the syntax of {@code text}, returning the error {@link #parse(CharSequence)} would throw, or null if there
+   * is none. The grammar and early errors checked are those of a parse, but no tree is built: each statement is
+   * dropped as soon as it is parsed.
+   */
+  @Nullable
+  public static JsError validateSyntax(@NotNull CharSequence text) {
+    try {
+      Parser parser = new Parser(text, new SymbolTable());
+      parser.validating = true;
+      parser.parseProgramBody();
+      return null;
+    } catch (JsError e) {
+      return e;
+    }
+  }
+
+  // Parses the function body opening at index on its own, or returns null if that fails under the given context.
+  @Nullable
+  static ParsedBody parseFunctionBodyAt(
+      @NotNull CharSequence source,
+      int index,
+      boolean strict,
+      @NotNull SymbolTable symbols) {
+    try {
+      Parser parser = new Parser(source, index, 0, 0, strict, true, symbols);
+      parser.speculative = true;
+      return new ParsedBody(parser, parser.parseFunctionBody(), strict, true);
+    } catch (JsError | RuntimeException e) {
+      return null;
+    }
   }
 
   @NotNull
-  public static Script parseWithLocation(@NotNull String text) throws JsError {
-    return new Parser(text) {
-      @NotNull
-      @Override
-      protected <T extends Node> T markLocation(@NotNull SourceLocation startLocation, @NotNull T node) {
-        int start = startLocation.offset;
-        ((Located) node).setLoc(startLocation.withSourceRange(this.getSliceBeforeLookahead(start)));
-        return node;
+  static CharBuffer readFully(@NotNull Reader reader) throws IOException {
+    char[] buffer = new char[INITIAL_READ_BUFFER_SIZE];
+    int length = 0;
+    int read;
+    while ((read = reader.read(buffer, length, buffer.length - length)) != -1) {
+      length += read;
+      if (length == buffer.length) {
+        buffer = Arrays.copyOf(buffer, buffer.length * 2);
       }
-    }.parse();
+    }
+    return CharBuffer.wrap(buffer, 0, length);
+  }
+
+  /**
+   * Parses like {@link #parse(CharSequence)}, giving each node its location. The source ranges of the locations are
+   * views of {@code text}, which must not change while they are in use.
+   */
+  @NotNull
+  public static Script parseWithLocation(@NotNull CharSequence text) throws JsError {
+    return new LocationParser(text, 0, 0, 0, false, new SymbolTable(), new LocationTable(text)).parse();
+  }
+
+  // A parser that marks locations in the given table, positioned at index within source to parse the statements of a
+  // function body, or of the script if inFunctionBody is false.
+  @NotNull
+  static Parser withLocation(
+      @NotNull CharSequence source,
+      int index,
+      int line,
+      int lineStart,
+      boolean strict,
+      boolean inFunctionBody,
+      @NotNull LocationTable locations) throws JsError {
+    Parser parser = new LocationParser(source, index, line, lineStart, strict, new SymbolTable(), locations);
+    parser.inFunctionBody = inFunctionBody;
+    return parser;
   }
 
   @NotNull
@@ -228,21 +541,28 @@ public class Parser extends Tokenizer {
   }
 
   @NotNull
-  protected <T extends Node> T markLocation(@NotNull SourceLocation startLocation, @NotNull T node) {
-    return node;
+  protected <T extends Node> T markLocation(int startLocation, @NotNull T node) {
+    if (this.listener != null) {
+      SourceRange range = this.getSliceBeforeLookahead(startLocation);
+      if (node instanceof Identifier) {
+        this.listener.identifier(((Identifier) node).name, range);
+      }
+      this.listener.node(node, range);
+    }
+    return this.interner == null ? node : this.interner.intern(node);
   }
 
   @NotNull
   private List<Directive> parseDirective(
       @NotNull Statement[] sourceElements,
-      @Nullable SourceLocation firstRestricted) throws JsError {
+      int firstRestricted) throws JsError {
 
     if (this.lookahead.type != TokenType.STRING) {
       return List.nil();
     }
 
     Token token = this.lookahead;
-    SourceLocation startLocation = this.getLocation();
+    int startLocation = this.getLocation();
     Statement stmt = this.parseSourceElement();
     if (stmt instanceof ExpressionStatement) {
       Expression expr = ((ExpressionStatement) stmt).expression;
@@ -250,14 +570,14 @@ public class Parser extends Tokenizer {
         String directive = token.slice.toString();
         if ("\"use strict\"".equals(directive) || "'use strict'".equals(directive)) {
           this.strict = true;
-          if (firstRestricted != null) {
+          if (firstRestricted != NO_LOCATION) {
             throw this.createErrorWithToken(firstRestricted, STRICT_OCTAL_LITERAL);
           }
           return List.cons(this.markLocation(startLocation, new UseStrictDirective()), this.parseDirective(
               sourceElements,
-              null));
+              NO_LOCATION));
         } else {
-          if (firstRestricted == null && token.octal) {
+          if (firstRestricted == NO_LOCATION && token.octal) {
             firstRestricted = startLocation;
           }
           String value = directive.substring(1, directive.length() - 1);
@@ -273,54 +593,265 @@ public class Parser extends Tokenizer {
 
   @NotNull
   Script parse() throws JsError {
-    SourceLocation startLocation = this.getLocation();
+    int startLocation = this.getLocation();
     this.strict = false;
 
     FunctionBody body = this.parseProgramBody();
 
-    return this.markLocation(startLocation, new Script(body));
+    Script script = this.markLocation(startLocation, new Script(body));
+    LocationTable locations = ((Located) script).getLocations();
+    if (locations == null) {
+      // The table only carries the line index, and does not keep the source, which may be a mapped file.
+      locations = new LocationTable("", 0);
+      ((Located) script).setLoc(locations, -1);
+    }
+    locations.setLineIndex(this.getLineIndex());
+    return script;
   }
 
   @NotNull
   private FunctionBody parseProgramBody() throws JsError {
-    SourceLocation startLocation = this.getLocation();
+    int startLocation = this.getLocation();
 
     Statement[] firstStatement = new Statement[1];
-    List<Directive> directives = this.parseDirective(firstStatement, null);
+    List<Directive> directives = this.parseDirective(firstStatement, NO_LOCATION);
 
     List<Statement> statements = this.parseSourceElements();
-    if (firstStatement[0] != null) {
+    if (firstStatement[0] != null && !this.validating) {
       statements = List.cons(firstStatement[0], statements);
     }
 
     return this.markLocation(startLocation, new FunctionBody(directives, statements));
   }
 
+  // Takes the concurrently parsed body at the lookahead, if there is one and it was parsed in the current context.
+  @Nullable
+  private FunctionBody takeParallelBody() throws JsError {
+    ForkJoinTask<ParsedBody> task = this.parallelBodies.remove(this.lookahead.slice.start);
+    if (task == null) {
+      return null;
+    }
+    ParsedBody parsed = task.join();
+    if (parsed == null || parsed.strict != this.strict || parsed.allowIn != this.allowIn) {
+      return null;
+    }
+    this.resumeAfter(parsed.parser);
+    this.parallelBodiesTaken++;
+    return parsed.body;
+  }
+
+  // Whether a slash after the given tokens starts a regular expression (REGEXP) or a division (DIV), or null if that
+  // depends on more than the tokens. beforeParen is the token before the parenthesis closed by a previous RPAREN.
+  @Nullable
+  private static TokenType slashAfter(
+      @NotNull TokenType previous,
+      @Nullable TokenType beforePrevious,
+      @Nullable TokenType beforeParen) {
+    if (beforePrevious == TokenType.PERIOD) {
+      // A property name, even if it is a keyword.
+      return TokenType.DIV;
+    }
+    switch (previous) {
+    case IDENTIFIER:
+    case NUMBER:
+    case STRING:
+    case REGEXP:
+    case NULL_LITERAL:
+    case TRUE_LITERAL:
+    case FALSE_LITERAL:
+    case THIS:
+    case RBRACK:
+      return TokenType.DIV;
+    case RPAREN:
+      // The condition of a statement is followed by a statement, any other parenthesized list by an operator.
+      return beforeParen == TokenType.IF || beforeParen == TokenType.WHILE || beforeParen == TokenType.FOR ||
+          beforeParen == TokenType.WITH ? TokenType.REGEXP : TokenType.DIV;
+    case RBRACE:
+    case INC:
+    case DEC:
+      return null;
+    case RETURN:
+    case TYPEOF:
+    case INSTANCEOF:
+    case IN:
+    case NEW:
+    case DELETE:
+    case VOID:
+    case THROW:
+    case CASE:
+    case DO:
+    case ELSE:
+      return TokenType.REGEXP;
+    default:
+      return previous.klass == TokenClass.Punctuator ? TokenType.REGEXP : null;
+    }
+  }
+
+  // Whether a token on a new line after a string literal statement continues it rather than ending it.
+  private static boolean continuesExpression(@NotNull TokenType type) {
+    switch (type) {
+    case LBRACE:
+    case INC:
+    case DEC:
+    case NOT:
+    case BIT_NOT:
+      return false;
+    case IN:
+    case INSTANCEOF:
+      return true;
+    default:
+      return type.klass == TokenClass.Punctuator;
+    }
+  }
+
+  // Skims a function body, reading only its directive prologue and matching its braces, and returns a body that is
+  // parsed in the current context on first access. Returns null, with the lookahead scanned past, if a division cannot
+  // be told from a regular expression by the preceding tokens, or if the skim fails.
+  @Nullable
+  private FunctionBody skimFunctionBody() throws JsError {
+    int startLocation = this.getLocation();
+    boolean previousStrict = this.strict;
+    boolean previousSpeculative = this.speculative;
+    boolean allowIn = this.allowIn;
+    boolean hasUseStrict = false;
+    Token rbrace;
+    this.speculative = true;
+    try {
+      this.expect(TokenType.LBRACE);
+      TokenType previous = TokenType.LBRACE;
+      while (this.match(TokenType.STRING)) {
+        String directive = this.lex().slice.toString();
+        previous = TokenType.STRING;
+        if (!this.match(TokenType.SEMICOLON) && !this.match(TokenType.RBRACE) &&
+            !(this.hasLineTerminatorBeforeNext && !continuesExpression(this.lookahead.type))) {
+          break;
+        }
+        if ("\"use strict\"".equals(directive) || "'use strict'".equals(directive)) {
+          hasUseStrict = true;
+          this.strict = true;
+        }
+        if (this.match(TokenType.SEMICOLON)) {
+          this.lex();
+          previous = TokenType.SEMICOLON;
+        }
+      }
+      int depth = 1;
+      TokenType beforePrevious = null;
+      // The tokens before the parentheses still open, and the one before the parenthesis closed last.
+      ArrayList<TokenType> beforeParens = new ArrayList<>();
+      TokenType beforeParen = null;
+      while (true) {
+        TokenType type = this.lookahead.type;
+        if (type == TokenType.LBRACE) {
+          depth++;
+        } else if (type == TokenType.RBRACE && --depth == 0) {
+          rbrace = this.lex();
+          break;
+        } else if (type == TokenType.LPAREN) {
+          beforeParens.add(previous);
+        } else if (type == TokenType.RPAREN) {
+          if (beforeParens.isEmpty()) {
+            return null;
+          }
+          beforeParen = beforeParens.remove(beforeParens.size() - 1);
+        } else if (type == TokenType.DIV || type == TokenType.ASSIGN_DIV) {
+          TokenType slash = slashAfter(previous, beforePrevious, beforeParen);
+          if (slash == null) {
+            return null;
+          } else if (slash == TokenType.REGEXP) {
+            this.lookahead = this.rescanRegExp();
+            type = TokenType.REGEXP;
+          }
+        } else if (type == TokenType.EOS) {
+          return null;
+        }
+        this.lex();
+        beforePrevious = previous;
+        previous = type;
+      }
+    } catch (JsError e) {
+      return null;
+    } finally {
+      this.strict = previousStrict;
+      this.speculative = previousSpeculative;
+    }
+
+    boolean isStrict = hasUseStrict;
+    CharSequence source = this.source;
+    int index = startLocation;
+    int line = this.lineOf(index);
+    int lineStart = this.lineStartOf(index);
+    int end = rbrace.slice.end;
+    SymbolTable symbols = this.symbols;
+    return this.markLocation(startLocation, new FunctionBody(isStrict, () -> {
+      try {
+        Parser parser = new Parser(source, index, line, lineStart, previousStrict, allowIn, symbols.forOtherThread());
+        parser.lazyFunctionBodies = true;
+        FunctionBody body = parser.parseEagerFunctionBody();
+        if (parser.getSliceBeforeLookahead(index).end != end || body.isStrict() != isStrict) {
+          throw parser.createErrorWithToken(startLocation, SKIMMED_BODY_MISMATCH);
+        }
+        return body;
+      } catch (JsError e) {
+        throw new DeferredJsError(e);
+      }
+    }));
+  }
+
   @NotNull
   private FunctionBody parseFunctionBody() throws JsError {
+    if (this.parallelBodies != null) {
+      FunctionBody parallelBody = this.takeParallelBody();
+      if (parallelBody != null) {
+        return parallelBody;
+      }
+    }
+    if (this.lazyFunctionBodies) {
+      Mark mark = this.mark();
+      FunctionBody body = this.skimFunctionBody();
+      if (body != null) {
+        return body;
+      }
+      // The skim is only a guess at where the body ends, so the body is parsed as it is now.
+      this.rewind(mark);
+    }
+    return this.parseEagerFunctionBody();
+  }
+
+  @NotNull
+  private FunctionBody parseEagerFunctionBody() throws JsError {
     boolean previousStrict = this.strict;
-    SourceLocation startLocation = this.getLocation();
+    int startLocation = this.getLocation();
 
     this.expect(TokenType.LBRACE);
+    if (this.listener != null) {
+      this.listener.enterFunctionBody(startLocation);
+    }
 
     Statement[] firstStatement = new Statement[1];
-    List<Directive> directives = this.parseDirective(firstStatement, null);
+    List<Directive> directives = this.parseDirective(firstStatement, NO_LOCATION);
     HashSet<String> oldLabelSet = this.labelSet;
     boolean oldInIteration = this.inIteration;
     boolean oldInSwitch = this.inSwitch;
     boolean oldInFunctionBody = this.inFunctionBody;
 
-    this.labelSet = new HashSet<>();
+    // Labels do not cross function boundaries; the set is left empty by a body parsed without error.
+    if (!oldLabelSet.isEmpty()) {
+      this.labelSet = new HashSet<>();
+    }
     this.inIteration = false;
     this.inSwitch = false;
     this.inFunctionBody = true;
 
     List<Statement> statements = this.parseSourceElementsInFunctionBody();
-    if (firstStatement[0] != null) {
+    if (firstStatement[0] != null && !this.validating) {
       statements = List.cons(firstStatement[0], statements);
     }
 
     this.expect(TokenType.RBRACE);
+    if (this.listener != null) {
+      this.listener.exitFunctionBody(startLocation, this.getIndexBeforeLookahead());
+    }
     FunctionBody body = this.markLocation(startLocation, new FunctionBody(directives, statements));
 
     this.labelSet = oldLabelSet;
@@ -333,6 +864,11 @@ public class Parser extends Tokenizer {
 
   @NotNull
   private List<Statement> parseSourceElements() throws JsError {
+    if (this.validating) {
+      while (!this.eof()) {
+        this.parseSourceElement();
+      }
+    }
     if (this.eof()) {
       return List.nil();
     }
@@ -341,6 +877,11 @@ public class Parser extends Tokenizer {
 
   @NotNull
   private List<Statement> parseSourceElementsInFunctionBody() throws JsError {
+    if (this.validating) {
+      while (!this.eof() && !this.match(TokenType.RBRACE)) {
+        this.parseSourceElement();
+      }
+    }
     if (this.eof() || this.match(TokenType.RBRACE)) {
       return List.nil();
     }
@@ -348,7 +889,7 @@ public class Parser extends Tokenizer {
   }
 
   @NotNull
-  private Statement parseSourceElement() throws JsError {
+  Statement parseSourceElement() throws JsError {
     if (this.lookahead.type.klass == TokenClass.Keyword) {
       switch (this.lookahead.type) {
       case FUNCTION:
@@ -363,7 +904,7 @@ public class Parser extends Tokenizer {
 
   @NotNull
   private VariableDeclarationStatement parseVariableDeclarationStatement() throws JsError {
-    SourceLocation startLocation = this.getLocation();
+    int startLocation = this.getLocation();
     VariableDeclaration declaration = this.parseVariableDeclaration();
     this.consumeSemicolon();
 
@@ -371,7 +912,7 @@ public class Parser extends Tokenizer {
   }
 
   @NotNull
-  private ParamsInfo parseParams(@Nullable SourceLocation firstRestricted) throws JsError {
+  private ParamsInfo parseParams(int firstRestricted) throws JsError {
     ParamsInfo info = new ParamsInfo();
     info.firstRestricted = firstRestricted;
     this.expect(TokenType.LPAREN);
@@ -381,7 +922,7 @@ public class Parser extends Tokenizer {
 
       while (!this.eof()) {
         Token token = this.lookahead;
-        SourceLocation location = this.getLocation();
+        int location = this.getLocation();
         Identifier param = this.parseVariableIdentifier();
         String key = param.name;
         if (this.strict) {
@@ -393,11 +934,11 @@ public class Parser extends Tokenizer {
             info.stricted = location;
             info.message = STRICT_PARAM_DUPE;
           }
-        } else if (info.firstRestricted == null) {
+        } else if (info.firstRestricted == NO_LOCATION) {
           if (token instanceof IdentifierLikeToken && Utils.isRestrictedWord(param.name)) {
             info.firstRestricted = location;
             info.message = STRICT_PARAM_NAME;
-          } else if (STRICT_MODE_RESERVED_WORD.contains(key)) {
+          } else if ((Keywords.getFlags(key) & Keywords.STRICT_RESERVED) != 0) {
             info.firstRestricted = location;
             info.message = STRICT_RESERVED_WORD;
           } else if (paramSet.contains(key)) {
@@ -420,13 +961,13 @@ public class Parser extends Tokenizer {
 
   @NotNull
   private FunctionDeclaration parseFunctionDeclaration() throws JsError {
-    SourceLocation startLocation = this.getLocation();
+    int startLocation = this.getLocation();
     this.expect(TokenType.FUNCTION);
 
     Token token = this.lookahead;
-    SourceLocation location = this.getLocation();
+    int location = this.getLocation();
     Identifier id = this.parseVariableIdentifier();
-    SourceLocation firstRestricted = null;
+    int firstRestricted = NO_LOCATION;
     String message = null;
     if (this.strict) {
       if (token instanceof IdentifierLikeToken && Utils.isRestrictedWord(id.name)) {
@@ -436,7 +977,7 @@ public class Parser extends Tokenizer {
       if (token instanceof IdentifierLikeToken && Utils.isRestrictedWord(id.name)) {
         firstRestricted = location;
         message = STRICT_FUNCTION_NAME;
-      } else if (STRICT_MODE_RESERVED_WORD.contains(id.name)) {
+      } else if ((Keywords.getFlags(id.name) & Keywords.STRICT_RESERVED) != 0) {
         firstRestricted = location;
         message = STRICT_RESERVED_WORD;
       }
@@ -450,10 +991,10 @@ public class Parser extends Tokenizer {
 
     boolean previousStrict = this.strict;
     FunctionBody body = this.parseFunctionBody();
-    if ((this.strict || body.isStrict()) && firstRestricted != null) {
+    if ((this.strict || body.isStrict()) && firstRestricted != NO_LOCATION) {
       throw this.createError(message, firstRestricted);
     }
-    if ((this.strict || body.isStrict()) && info.stricted != null && message != null) {
+    if ((this.strict || body.isStrict()) && info.stricted != NO_LOCATION && message != null) {
       throw this.createError(message, info.stricted);
     }
     this.strict = previousStrict;
@@ -505,7 +1046,7 @@ public class Parser extends Tokenizer {
     case WITH:
       return this.parseWithStatement();
     default:
-      SourceLocation startLocation = this.getLocation();
+      int startLocation = this.getLocation();
       Expression expr = this.parseExpression();
 
       // 12.12 Labelled Statements;
@@ -529,7 +1070,7 @@ public class Parser extends Tokenizer {
   }
 
   private BlockStatement parseBlockStatement() throws JsError {
-    SourceLocation startLocation = this.getLocation();
+    int startLocation = this.getLocation();
     return this.markLocation(startLocation, new BlockStatement(this.parseBlock()));
   }
 
@@ -563,7 +1104,7 @@ public class Parser extends Tokenizer {
     default:
       throw new RuntimeException("not reached");
     }
-    SourceLocation startLocation = this.getLocation();
+    int startLocation = this.getLocation();
     this.lex();
     NonEmptyList<VariableDeclarator> variableDeclarators = this.parseVariableDeclaratorList();
     return this.markLocation(startLocation, new VariableDeclaration(kind, variableDeclarators));
@@ -571,7 +1112,7 @@ public class Parser extends Tokenizer {
 
   @NotNull
   private Identifier parseVariableIdentifier() throws JsError {
-    SourceLocation startLocation = this.getLocation();
+    int startLocation = this.getLocation();
 
     Token token = this.lookahead;
     if (!(token instanceof IdentifierToken)) {
@@ -579,19 +1120,19 @@ public class Parser extends Tokenizer {
     }
     this.lex();
 
-    return this.markLocation(startLocation, new Identifier(String.valueOf(token.getValueString())));
+    return this.markLocation(startLocation, new Identifier(this.symbols.intern(token.getValueString())));
   }
 
   @NotNull
   private EmptyStatement parseEmptyStatement() throws JsError {
-    SourceLocation startLocation = this.getLocation();
+    int startLocation = this.getLocation();
     this.expect(TokenType.SEMICOLON);
     return this.markLocation(startLocation, new EmptyStatement());
   }
 
   @NotNull
   private Block parseBlock() throws JsError {
-    SourceLocation startLocation = this.getLocation();
+    int startLocation = this.getLocation();
     this.expect(TokenType.LBRACE);
 
     List<Statement> body = this.parseStatementList();
@@ -603,7 +1144,7 @@ public class Parser extends Tokenizer {
 
   @NotNull
   private ExpressionStatement parseExpressionStatement() throws JsError {
-    SourceLocation startLocation = this.getLocation();
+    int startLocation = this.getLocation();
     Expression expr = this.parseExpression();
     this.consumeSemicolon();
     return this.markLocation(startLocation, new ExpressionStatement(expr));
@@ -611,7 +1152,7 @@ public class Parser extends Tokenizer {
 
   @NotNull
   private BreakStatement parseBreakStatement() throws JsError {
-    SourceLocation startLocation = this.getLocation();
+    int startLocation = this.getLocation();
     this.expect(TokenType.BREAK);
 
     // Catch the very common case first: immediately a semicolon (U+003B).
@@ -654,7 +1195,7 @@ public class Parser extends Tokenizer {
 
   @NotNull
   private ContinueStatement parseContinueStatement() throws JsError {
-    SourceLocation startLocation = this.getLocation();
+    int startLocation = this.getLocation();
     this.expect(TokenType.CONTINUE);
 
     // Catch the very common case first: immediately a semicolon (U+003B).
@@ -695,7 +1236,7 @@ public class Parser extends Tokenizer {
 
   @NotNull
   private DebuggerStatement parseDebuggerStatement() throws JsError {
-    SourceLocation startLocation = this.getLocation();
+    int startLocation = this.getLocation();
     this.expect(TokenType.DEBUGGER);
     this.consumeSemicolon();
     return this.markLocation(startLocation, new DebuggerStatement());
@@ -703,7 +1244,7 @@ public class Parser extends Tokenizer {
 
   @NotNull
   private DoWhileStatement parseDoWhileStatement() throws JsError {
-    SourceLocation startLocation = this.getLocation();
+    int startLocation = this.getLocation();
     this.expect(TokenType.DO);
     boolean oldInIteration = this.inIteration;
     this.inIteration = true;
@@ -724,7 +1265,7 @@ public class Parser extends Tokenizer {
 
   @NotNull
   private Statement parseForStatement() throws JsError {
-    SourceLocation startLocation = this.getLocation();
+    int startLocation = this.getLocation();
 
     this.expect(TokenType.FOR);
     this.expect(TokenType.LPAREN);
@@ -823,7 +1364,7 @@ public class Parser extends Tokenizer {
 
   @NotNull
   private IfStatement parseIfStatement() throws JsError {
-    SourceLocation startLocation = this.getLocation();
+    int startLocation = this.getLocation();
     this.expect(TokenType.IF);
     this.expect(TokenType.LPAREN);
     Expression test = this.parseExpression();
@@ -843,7 +1384,7 @@ public class Parser extends Tokenizer {
 
   @NotNull
   private ReturnStatement parseReturnStatement() throws JsError {
-    SourceLocation startLocation = this.getLocation();
+    int startLocation = this.getLocation();
     Maybe<Expression> argument = Maybe.nothing();
 
     this.expect(TokenType.RETURN);
@@ -867,7 +1408,7 @@ public class Parser extends Tokenizer {
 
   @NotNull
   private WithStatement parseWithStatement() throws JsError {
-    SourceLocation startLocation = this.getLocation();
+    int startLocation = this.getLocation();
     if (this.strict) {
       throw this.createError(STRICT_MODE_WITH);
     }
@@ -883,7 +1424,7 @@ public class Parser extends Tokenizer {
 
   @NotNull
   private Statement parseSwitchStatement() throws JsError {
-    SourceLocation startLocation = this.getLocation();
+    int startLocation = this.getLocation();
 
     this.expect(TokenType.SWITCH);
     this.expect(TokenType.LPAREN);
@@ -930,7 +1471,7 @@ public class Parser extends Tokenizer {
 
   @NotNull
   private ThrowStatement parseThrowStatement() throws JsError {
-    SourceLocation startLocation = this.getLocation();
+    int startLocation = this.getLocation();
 
     this.expect(TokenType.THROW);
 
@@ -947,7 +1488,7 @@ public class Parser extends Tokenizer {
 
   @NotNull
   private Statement parseTryStatement() throws JsError {
-    SourceLocation startLocation = this.getLocation();
+    int startLocation = this.getLocation();
     this.expect(TokenType.TRY);
     Block block = this.parseBlock();
 
@@ -973,7 +1514,7 @@ public class Parser extends Tokenizer {
 
   @NotNull
   private WhileStatement parseWhileStatement() throws JsError {
-    SourceLocation startLocation = this.getLocation();
+    int startLocation = this.getLocation();
     this.expect(TokenType.WHILE);
     this.expect(TokenType.LPAREN);
     return this.markLocation(startLocation, new WhileStatement(this.parseExpression(),
@@ -982,7 +1523,7 @@ public class Parser extends Tokenizer {
   }
 
   private Expression parseExpression() throws JsError {
-    SourceLocation startLocation = this.getLocation();
+    int startLocation = this.getLocation();
 
     Expression expr = this.parseAssignmentExpression();
 
@@ -1004,7 +1545,7 @@ public class Parser extends Tokenizer {
 
   @NotNull
   private VariableDeclarator parseVariableDeclarator() throws JsError {
-    SourceLocation startLocation = this.getLocation();
+    int startLocation = this.getLocation();
 
     Identifier id = this.parseVariableIdentifier();
 
@@ -1025,6 +1566,11 @@ public class Parser extends Tokenizer {
   // ECMAScript 5 does not allow FunctionDeclarations in block statements, but no
   // implementations comply to this restriction.
   private List<Statement> parseStatementList() throws JsError {
+    if (this.validating) {
+      while (!this.eof() && !this.match(TokenType.RBRACE)) {
+        this.parseSourceElement();
+      }
+    }
     if (this.eof()) {
       return List.nil();
     }
@@ -1037,14 +1583,14 @@ public class Parser extends Tokenizer {
 
   @NotNull
   private SwitchCase parseSwitchCase() throws JsError {
-    SourceLocation startLocation = this.getLocation();
+    int startLocation = this.getLocation();
     this.expect(TokenType.CASE);
     return this.markLocation(startLocation, new SwitchCase(this.parseExpression(), this.parseSwitchCaseBody()));
   }
 
   @NotNull
   private SwitchDefault parseSwitchDefault() throws JsError {
-    SourceLocation startLocation = this.getLocation();
+    int startLocation = this.getLocation();
     this.expect(TokenType.DEFAULT);
     return this.markLocation(startLocation, new SwitchDefault(this.parseSwitchCaseBody()));
   }
@@ -1055,6 +1601,12 @@ public class Parser extends Tokenizer {
   }
 
   private List<Statement> parseStatementListInSwitchCaseBody() throws JsError {
+    if (this.validating) {
+      while (!this.eof() && !this.match(TokenType.RBRACE) && !this.match(TokenType.DEFAULT) &&
+          !this.match(TokenType.CASE)) {
+        this.parseSourceElement();
+      }
+    }
     if (this.eof() || this.match(TokenType.RBRACE) || this.match(TokenType.DEFAULT) || this.match(TokenType.CASE)) {
       return List.nil();
     }
@@ -1063,7 +1615,7 @@ public class Parser extends Tokenizer {
 
   @NotNull
   private CatchClause parseCatchClause() throws JsError {
-    SourceLocation startLocation = this.getLocation();
+    int startLocation = this.getLocation();
 
     this.expect(TokenType.CATCH);
     this.expect(TokenType.LPAREN);
@@ -1087,7 +1639,7 @@ public class Parser extends Tokenizer {
 
   @NotNull
   private Expression parseAssignmentExpression() throws JsError {
-    SourceLocation startLocation = this.getLocation();
+    int startLocation = this.getLocation();
 
     boolean startsWithGroup = this.match(TokenType.LPAREN);
     Expression node = this.parseConditionalExpression();
@@ -1156,7 +1708,7 @@ public class Parser extends Tokenizer {
 
   @NotNull
   private Expression parseConditionalExpression() throws JsError {
-    SourceLocation startLocation = this.getLocation();
+    int startLocation = this.getLocation();
     Expression expr = this.parseBinaryExpression();
     if (this.match(TokenType.CONDITIONAL)) {
       this.lex();
@@ -1174,91 +1726,42 @@ public class Parser extends Tokenizer {
 
   @Nullable
   private BinaryOperator lookupBinaryOperator(@NotNull TokenType type) {
-    switch (type) {
-    case OR:
-      return BinaryOperator.LogicalOr;
-    case AND:
-      return BinaryOperator.LogicalAnd;
-    case BIT_OR:
-      return BinaryOperator.BitwiseOr;
-    case BIT_XOR:
-      return BinaryOperator.BitwiseXor;
-    case BIT_AND:
-      return BinaryOperator.BitwiseAnd;
-    case EQ:
-      return BinaryOperator.Equal;
-    case NE:
-      return BinaryOperator.NotEqual;
-    case EQ_STRICT:
-      return BinaryOperator.StrictEqual;
-    case NE_STRICT:
-      return BinaryOperator.StrictNotEqual;
-    case LT:
-      return BinaryOperator.LessThan;
-    case GT:
-      return BinaryOperator.GreaterThan;
-    case LTE:
-      return BinaryOperator.LessThanEqual;
-    case GTE:
-      return BinaryOperator.GreaterThanEqual;
-    case INSTANCEOF:
-      return BinaryOperator.Instanceof;
-    case IN:
-      return this.allowIn ? BinaryOperator.In : null;
-    case SHL:
-      return BinaryOperator.Left;
-    case SHR:
-      return BinaryOperator.Right;
-    case SHR_UNSIGNED:
-      return BinaryOperator.UnsignedRight;
-    case ADD:
-      return BinaryOperator.Plus;
-    case SUB:
-      return BinaryOperator.Minus;
-    case MUL:
-      return BinaryOperator.Mul;
-    case DIV:
-      return BinaryOperator.Div;
-    case MOD:
-      return BinaryOperator.Rem;
-    default:
+    if (type == TokenType.IN && !this.allowIn) {
       return null;
     }
+    return BINARY_OPERATORS[type.ordinal()];
   }
 
   @NotNull
   private Expression parseBinaryExpression() throws JsError {
-    SourceLocation location = this.getLocation();
+    int location = this.getLocation();
     Expression left = this.parseUnaryExpression();
-    Token token = this.lookahead;
-    BinaryOperator operator = this.lookupBinaryOperator(token.type);
+    BinaryOperator operator = this.lookupBinaryOperator(this.lookahead.type);
     if (operator == null) {
       return left;
     }
 
     this.lex();
 
-    List<ExprStackItem> stack = List.nil();
-    stack = stack.cons(new ExprStackItem(location, left, operator));
+    // This call's entries of the operand stack are those above base.
+    int base = this.operandCount;
+    this.pushOperand(location, left, operator);
     location = this.getLocation();
     Expression expr = this.parseUnaryExpression();
 
     operator = this.lookupBinaryOperator(this.lookahead.type);
     while (operator != null) {
-      Precedence precedence = operator.getPrecedence();
+      int precedence = BINARY_PRECEDENCES[operator.ordinal()];
       // Reduce: make a binary expression from the three topmost entries.
-      while ((stack.isNotEmpty()) && (precedence.ordinal() <= ((NonEmptyList<ExprStackItem>) stack).head.precedence)) {
-        ExprStackItem stackItem = ((NonEmptyList<ExprStackItem>) stack).head;
-        BinaryOperator stackOperator = stackItem.operator;
-        left = stackItem.left;
-        stack = ((NonEmptyList<ExprStackItem>) stack).tail();
-        location = stackItem.startLocation;
-        expr = this.markLocation(stackItem.startLocation, new BinaryExpression(stackOperator, left, expr));
+      while (this.operandCount > base &&
+          precedence <= BINARY_PRECEDENCES[this.operandOperators[this.operandCount - 1].ordinal()]) {
+        location = this.operandLocations[this.operandCount - 1];
+        expr = this.reduceOperand(expr);
       }
 
       // Shift.
       this.lex();
-      stack = stack.cons(new ExprStackItem(location, expr, operator));
+      this.pushOperand(location, expr, operator);
       location = this.getLocation();
       expr = this.parseUnaryExpression();
 
@@ -1266,8 +1769,31 @@ public class Parser extends Tokenizer {
     }
 
     // Final reduce to clean-up the stack.
-    return stack.foldLeft((expr1, stackItem) -> this.markLocation(
-        stackItem.startLocation, new BinaryExpression(stackItem.operator, stackItem.left, expr1)), expr);
+    while (this.operandCount > base) {
+      expr = this.reduceOperand(expr);
+    }
+    return expr;
+  }
+
+  private void pushOperand(int location, @NotNull Expression left, @NotNull BinaryOperator operator) {
+    int i = this.operandCount++;
+    if (i == this.operands.length) {
+      this.operands = Arrays.copyOf(this.operands, i * 2);
+      this.operandOperators = Arrays.copyOf(this.operandOperators, i * 2);
+      this.operandLocations = Arrays.copyOf(this.operandLocations, i * 2);
+    }
+    this.operands[i] = left;
+    this.operandOperators[i] = operator;
+    this.operandLocations[i] = location;
+  }
+
+  // Pops the topmost entry, applying its operator to its operand and right.
+  @NotNull
+  private Expression reduceOperand(@NotNull Expression right) {
+    int i = --this.operandCount;
+    Expression left = this.operands[i];
+    this.operands[i] = null;
+    return this.markLocation(this.operandLocations[i], new BinaryExpression(this.operandOperators[i], left, right));
   }
 
   @NotNull
@@ -1275,7 +1801,7 @@ public class Parser extends Tokenizer {
     if (this.lookahead.type.klass != TokenClass.Punctuator && this.lookahead.type.klass != TokenClass.Keyword) {
       return this.parsePostfixExpression();
     }
-    SourceLocation startLocation = this.getLocation();
+    int startLocation = this.getLocation();
     PrefixOperator operator = lookupPrefixOperator(this.lookahead.type);
     if (operator == null) {
       return this.parsePostfixExpression();
@@ -1307,7 +1833,7 @@ public class Parser extends Tokenizer {
 
   @NotNull
   private Expression parsePostfixExpression() throws JsError {
-    SourceLocation startLocation = this.getLocation();
+    int startLocation = this.getLocation();
 
     boolean startsWithGroup = this.match(TokenType.LPAREN);
     Expression expr = this.parseLeftHandSideExpressionAllowCall();
@@ -1336,7 +1862,7 @@ public class Parser extends Tokenizer {
 
   @NotNull
   private Expression parseLeftHandSideExpressionAllowCall() throws JsError {
-    SourceLocation startLocation = this.getLocation();
+    int startLocation = this.getLocation();
     boolean previousAllowIn = this.allowIn;
     this.allowIn = true;
     Expression expr = this.match(TokenType.NEW) ? this.parseNewExpression() : this.parsePrimaryExpression();
@@ -1360,7 +1886,7 @@ public class Parser extends Tokenizer {
 
   @NotNull
   private Expression parseLeftHandSideExpression() throws JsError {
-    SourceLocation startLocation = this.getLocation();
+    int startLocation = this.getLocation();
 
     assert this.allowIn;
 
@@ -1390,7 +1916,7 @@ public class Parser extends Tokenizer {
 
   @NotNull
   private Expression parseNewExpression() throws JsError {
-    SourceLocation startLocation = this.getLocation();
+    int startLocation = this.getLocation();
     this.expect(TokenType.NEW);
     Expression callee = this.parseLeftHandSideExpression();
     return this.markLocation(startLocation, new NewExpression(callee,
@@ -1404,7 +1930,7 @@ public class Parser extends Tokenizer {
       return this.parseGroupExpression();
     }
 
-    SourceLocation startLocation = this.getLocation();
+    int startLocation = this.getLocation();
 
     switch (this.lookahead.type.klass) {
     case Ident:
@@ -1448,7 +1974,7 @@ public class Parser extends Tokenizer {
 
   @NotNull
   private Expression parseNumericLiteral() throws JsError {
-    SourceLocation startLocation = this.getLocation();
+    int startLocation = this.getLocation();
     if (this.strict && this.lookahead.octal) {
       throw this.createError(STRICT_OCTAL_LITERAL);
     }
@@ -1462,18 +1988,24 @@ public class Parser extends Tokenizer {
 
   @NotNull
   private LiteralStringExpression parseStringLiteral() throws JsError {
-    SourceLocation startLocation = this.getLocation();
+    int startLocation = this.getLocation();
     if (this.strict && this.lookahead.octal) {
       throw this.createError(STRICT_OCTAL_LITERAL);
     }
-    Token token2 = this.lex();
-    return this.markLocation(startLocation, new LiteralStringExpression(String.valueOf(token2.getValueString())));
+    StringLiteralToken token = (StringLiteralToken) this.lex();
+    // The tree may outlive a source other than a String unchanged, so the text kept for the literal is copied out.
+    SourceRange raw = this.source instanceof String ? token.slice :
+        new SourceRange(0, token.slice.length(), token.slice.toString());
+    LiteralStringExpression literal = token.isDecoded() ?
+        new LiteralStringExpression(token.getValueString(), raw) :
+        new LiteralStringExpression(raw);
+    return this.markLocation(startLocation, literal);
   }
 
   @NotNull
   private Identifier parseIdentifier() throws JsError {
-    SourceLocation startLocation = this.getLocation();
-    return this.markLocation(startLocation, new Identifier(String.valueOf(this.lex().getValueString())));
+    int startLocation = this.getLocation();
+    return this.markLocation(startLocation, new Identifier(this.symbols.intern(this.lex().getValueString())));
   }
 
   @NotNull
@@ -1501,14 +2033,14 @@ public class Parser extends Tokenizer {
 
   @NotNull
   private Identifier parseNonComputedProperty() throws JsError {
-    SourceLocation startLocation = this.getLocation();
+    int startLocation = this.getLocation();
 
     Token token = this.lex();
 
     if (!(token instanceof IdentifierLikeToken)) {
       throw this.createUnexpected(token);
     } else {
-      return this.markLocation(startLocation, new Identifier(String.valueOf(token.getValueString())));
+      return this.markLocation(startLocation, new Identifier(this.symbols.intern(token.getValueString())));
     }
   }
 
@@ -1522,16 +2054,16 @@ public class Parser extends Tokenizer {
 
   @NotNull
   private FunctionExpression parseFunctionExpression() throws JsError {
-    SourceLocation startLocation = this.getLocation();
+    int startLocation = this.getLocation();
 
     this.expect(TokenType.FUNCTION);
 
     Identifier id = null;
     String message = null;
-    SourceLocation firstRestricted = null;
+    int firstRestricted = NO_LOCATION;
     if (!this.match(TokenType.LPAREN)) {
       Token token = this.lookahead;
-      SourceLocation location = this.getLocation();
+      int location = this.getLocation();
       id = this.parseVariableIdentifier();
       if (token instanceof IdentifierLikeToken) {
         if (this.strict) {
@@ -1558,10 +2090,10 @@ public class Parser extends Tokenizer {
     boolean previousStrict = this.strict;
     FunctionBody body = this.parseFunctionBody();
     if (message != null) {
-      if ((this.strict || body.isStrict()) && info.firstRestricted != null) {
+      if ((this.strict || body.isStrict()) && info.firstRestricted != NO_LOCATION) {
         throw this.createErrorWithToken(info.firstRestricted, message);
       }
-      if ((this.strict || body.isStrict()) && info.stricted != null) {
+      if ((this.strict || body.isStrict()) && info.stricted != NO_LOCATION) {
         throw this.createErrorWithToken(info.stricted, message);
       }
     }
@@ -1572,7 +2104,7 @@ public class Parser extends Tokenizer {
 
   @NotNull
   private ArrayExpression parseArrayExpression() throws JsError {
-    SourceLocation startLocation = this.getLocation();
+    int startLocation = this.getLocation();
 
     this.expect(TokenType.LBRACK);
 
@@ -1605,7 +2137,7 @@ public class Parser extends Tokenizer {
 
   @NotNull
   private ObjectExpression parseObjectExpression() throws JsError {
-    SourceLocation startLocation = this.getLocation();
+    int startLocation = this.getLocation();
 
     this.expect(TokenType.LBRACE);
 
@@ -1677,9 +2209,9 @@ public class Parser extends Tokenizer {
     // Eof and Punctuator tokens are already filtered out.
 
     PropertyName propertyName;
-    SourceLocation location = this.getLocation();
+    int location = this.getLocation();
     if (token instanceof StringLiteralToken) {
-      propertyName = new PropertyName(this.parseStringLiteral().value);
+      propertyName = new PropertyName(this.parseStringLiteral().getValue());
     } else if (token instanceof NumericLiteralToken) {
       Expression expression = this.parseNumericLiteral();
       if (expression instanceof LiteralInfinityExpression) {
@@ -1699,20 +2231,24 @@ public class Parser extends Tokenizer {
   @NotNull
   private ObjectProperty parseObjectProperty() throws JsError {
     Token token = this.lookahead;
-    SourceLocation startLocation = this.getLocation();
+    int startLocation = this.getLocation();
 
     if (token.type == TokenType.IDENTIFIER) {
-      PropertyName key = this.parseObjectPropertyKey();
       String name = token.toString();
-      if (name.length() == 3) {
-        // Property Assignment: Getter and Setter.
-        if ("get".equals(name) && !this.match(TokenType.COLON)) {
+      PropertyName key;
+      // Property Assignment: Getter and Setter.
+      if (name.length() == 3 && ("get".equals(name) || "set".equals(name))) {
+        this.lex();
+        if (this.match(TokenType.COLON)) {
+          Identifier identifier = this.markLocation(startLocation, new Identifier(this.symbols.intern(name)));
+          key = this.markLocation(startLocation, new PropertyName(identifier));
+        } else if ("get".equals(name)) {
           key = this.parseObjectPropertyKey();
           this.expect(TokenType.LPAREN);
           this.expect(TokenType.RPAREN);
           FunctionBody body = this.parseFunctionBody();
           return this.markLocation(startLocation, new Getter(key, body));
-        } else if ("set".equals(name) && !this.match(TokenType.COLON)) {
+        } else {
           key = this.parseObjectPropertyKey();
           this.expect(TokenType.LPAREN);
           token = this.lookahead;
@@ -1729,6 +2265,8 @@ public class Parser extends Tokenizer {
             return this.markLocation(startLocation, new Setter(key, param, body));
           }
         }
+      } else {
+        key = this.parseObjectPropertyKey();
       }
 
       this.expect(TokenType.COLON);
@@ -1773,27 +2311,52 @@ public class Parser extends Tokenizer {
   private static class ParamsInfo {
     @NotNull
     final ArrayList<Identifier> params = new ArrayList<>();
-    @Nullable
-    SourceLocation stricted;
-    @Nullable
-    SourceLocation firstRestricted;
+    int stricted = NO_LOCATION;
+    int firstRestricted = NO_LOCATION;
     @Nullable
     String message;
   }
 
-  private static class ExprStackItem {
-    final SourceLocation startLocation;
+  private static final class LocationParser extends Parser {
+    @NotNull
+    private final LocationTable locations;
+
+    private LocationParser(
+        @NotNull CharSequence source,
+        int index,
+        int line,
+        int lineStart,
+        boolean strict,
+        @NotNull SymbolTable symbols,
+        @NotNull LocationTable locations) throws JsError {
+      super(source, index, line, lineStart, strict, true, symbols);
+      this.locations = locations;
+    }
+
+    @NotNull
+    @Override
+    protected <T extends Node> T markLocation(int startLocation, @NotNull T node) {
+      int line = this.lineOf(startLocation);
+      int column = startLocation - this.lineStartOf(startLocation);
+      int location = this.locations.add(startLocation, this.getIndexBeforeLookahead(), line, column);
+      ((Located) node).setLoc(this.locations, location);
+      return node;
+    }
+  }
+
+  static final class ParsedBody {
     @NotNull
-    final Expression left;
+    final Parser parser;
     @NotNull
-    final BinaryOperator operator;
-    final int precedence;
-
-    ExprStackItem(@NotNull SourceLocation startLocation, @NotNull Expression left, @NotNull BinaryOperator operator) {
-      this.startLocation = startLocation;
-      this.left = left;
-      this.operator = operator;
-      this.precedence = operator.getPrecedence().ordinal();
+    final FunctionBody body;
+    final boolean strict;
+    final boolean allowIn;
+
+    ParsedBody(@NotNull Parser parser, @NotNull FunctionBody body, boolean strict, boolean allowIn) {
+      this.parser = parser;
+      this.body = body;
+      this.strict = strict;
+      this.allowIn = allowIn;
     }
   }
 }
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2014 Shape Security, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.shapesecurity.shift.parser;
+
+import com.shapesecurity.shift.ast.Script;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A parser that is reset onto each source it parses, for callers that parse many small scripts. Its tokenizer buffers,
+ * label set and symbol table are kept from one parse to the next, so a parse only allocates the nodes it returns.
+ * Scripts parsed by the same instance share the strings of their identifier names and string literal values.
+ * <p>
+ * An instance must only be used by one thread at a time; {@link #forCurrentThread()} returns one per thread.
+ */
+public final class ReusableParser {
+  // The number of names kept in the symbol table of an instance created without one.
+  private static final int DEFAULT_MAX_SYMBOLS = 1 << 14;
+
+  private static final ThreadLocal<ReusableParser> PER_THREAD = ThreadLocal.withInitial(ReusableParser::new);
+
+  @NotNull
+  private final Parser parser;
+
+  public ReusableParser() {
+    this(SymbolTable.bounded(DEFAULT_MAX_SYMBOLS));
+  }
+
+  /** Creates a parser interning identifier names and string literal values in {@code symbols}. */
+  public ReusableParser(@NotNull SymbolTable symbols) {
+    try {
+      this.parser = Parser.reusable(symbols);
+    } catch (JsError e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  /** The instance for the calling thread. */
+  @NotNull
+  public static ReusableParser forCurrentThread() {
+    return PER_THREAD.get();
+  }
+
+  /** Parses {@code text} like {@link Parser#parse(CharSequence)}. */
+  @NotNull
+  public Script parse(@NotNull CharSequence text) throws JsError {
+    try {
+      this.parser.reset(text);
+      return this.parser.parse();
+    } finally {
+      this.release();
+    }
+  }
+
+  // Drops the references the parser holds to the last text it parsed.
+  private void release() {
+    try {
+      this.parser.reset("");
+    } catch (JsError e) {
+      throw new AssertionError(e);
+    }
+  }
+}
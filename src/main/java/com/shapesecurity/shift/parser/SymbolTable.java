@@ -0,0 +1,197 @@
+/*
+ * Copyright 2014 Shape Security, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.shapesecurity.shift.parser;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Interns the identifier names and string literal values of parsed scripts, so that repeated names such as
+ * {@code prototype} or {@code length} share a single {@link String}. A name is looked up directly in the characters it
+ * is scanned from, and a {@link String} is only created the first time it is seen.
+ *
+ * <p>By default the parser uses a fresh table for each parse. A table created with {@link #concurrent(int)} can be
+ * passed to {@link Parser#parse(CharSequence, SymbolTable)} to share names across parses and threads. Looking up a name
+ * that is already in a concurrent table takes no lock; only adding a name does.
+ *
+ * <p>A table holding {@code maxSize} names is full: it never evicts, so the names it already holds stay interned, and
+ * names it has not seen are returned as new uninterned strings.
+ */
+public final class SymbolTable {
+  private static final int INITIAL_CAPACITY = 256;
+
+  private final boolean concurrent;
+  private final int maxSize;
+  // Replaced as a whole when growing, so that a lock-free reader always sees names and hashes of the same size.
+  @NotNull
+  private volatile Slots slots = new Slots(INITIAL_CAPACITY);
+  private int size;
+  @Nullable
+  private volatile SymbolTable forOtherThreads;
+
+  /** Creates an unbounded table for use by a single thread. */
+  public SymbolTable() {
+    this(false, Integer.MAX_VALUE);
+  }
+
+  private SymbolTable(boolean concurrent, int maxSize) {
+    this.concurrent = concurrent;
+    this.maxSize = maxSize;
+  }
+
+  /** Creates a table that may be shared by concurrent parses, which stops adding names once it holds {@code maxSize}. */
+  @NotNull
+  public static SymbolTable concurrent(int maxSize) {
+    return new SymbolTable(true, maxSize);
+  }
+
+  // A table for a single thread that stops adding names once it holds maxSize of them.
+  @NotNull
+  static SymbolTable bounded(int maxSize) {
+    return new SymbolTable(false, maxSize);
+  }
+
+  // The table to use for work that may run on another thread than the one using this table. A single-threaded table
+  // hands the same concurrent table to all such work, so that names are interned across it.
+  @NotNull
+  SymbolTable forOtherThread() {
+    if (this.concurrent) {
+      return this;
+    }
+    SymbolTable shared = this.forOtherThreads;
+    if (shared == null) {
+      synchronized (this) {
+        shared = this.forOtherThreads;
+        if (shared == null) {
+          shared = this.forOtherThreads = concurrent(this.maxSize);
+        }
+      }
+    }
+    return shared;
+  }
+
+  public int size() {
+    return this.size;
+  }
+
+  @NotNull
+  public String intern(@NotNull CharSequence chars) {
+    return this.intern(chars, 0, chars.length());
+  }
+
+  /** Returns the canonical {@link String} with the characters of {@code chars} in [start, end). */
+  @NotNull
+  public String intern(@NotNull CharSequence chars, int start, int end) {
+    int hash = 0;
+    for (int i = start; i < end; i++) {
+      hash = 31 * hash + chars.charAt(i);
+    }
+    if (this.concurrent) {
+      // A reader racing with an insertion may miss the new name, or see it before its hash; either way it falls
+      // through to the locked lookup below, which is exact.
+      String name = this.slots.lookup(hash, chars, start, end);
+      if (name != null) {
+        return name;
+      }
+      synchronized (this) {
+        return this.lookupOrAdd(hash, chars, start, end);
+      }
+    }
+    return this.lookupOrAdd(hash, chars, start, end);
+  }
+
+  @NotNull
+  private String lookupOrAdd(int hash, @NotNull CharSequence chars, int start, int end) {
+    Slots slots = this.slots;
+    int mask = slots.names.length - 1;
+    int slot = (hash ^ (hash >>> 16)) & mask;
+    String name;
+    while ((name = slots.names[slot]) != null) {
+      if (slots.hashes[slot] == hash && regionEquals(name, chars, start, end)) {
+        return name;
+      }
+      slot = (slot + 1) & mask;
+    }
+    name = chars.subSequence(start, end).toString();
+    if (this.size >= this.maxSize) {
+      return name;
+    }
+    slots.hashes[slot] = hash;
+    slots.names[slot] = name;
+    if (++this.size * 2 > slots.names.length) {
+      this.slots = slots.grow();
+    }
+    return name;
+  }
+
+  private static boolean regionEquals(@NotNull String name, @NotNull CharSequence chars, int start, int end) {
+    if (name.length() != end - start) {
+      return false;
+    }
+    for (int i = start; i < end; i++) {
+      if (name.charAt(i - start) != chars.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static final class Slots {
+    @NotNull
+    final String[] names;
+    @NotNull
+    final int[] hashes;
+
+    Slots(int capacity) {
+      this.names = new String[capacity];
+      this.hashes = new int[capacity];
+    }
+
+    // Never more than half full, so probing always reaches an empty slot even in a stale view.
+    @Nullable
+    String lookup(int hash, @NotNull CharSequence chars, int start, int end) {
+      int mask = this.names.length - 1;
+      int slot = (hash ^ (hash >>> 16)) & mask;
+      String name;
+      while ((name = this.names[slot]) != null) {
+        if (this.hashes[slot] == hash && regionEquals(name, chars, start, end)) {
+          return name;
+        }
+        slot = (slot + 1) & mask;
+      }
+      return null;
+    }
+
+    @NotNull
+    Slots grow() {
+      Slots grown = new Slots(this.names.length * 2);
+      int mask = grown.names.length - 1;
+      for (int i = 0; i < this.names.length; i++) {
+        if (this.names[i] != null) {
+          int hash = this.hashes[i];
+          int slot = (hash ^ (hash >>> 16)) & mask;
+          while (grown.names[slot] != null) {
+            slot = (slot + 1) & mask;
+          }
+          grown.names[slot] = this.names[i];
+          grown.hashes[slot] = hash;
+        }
+      }
+      return grown;
+    }
+  }
+}
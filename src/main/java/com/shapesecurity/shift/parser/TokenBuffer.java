@@ -0,0 +1,145 @@
+/*
+ * Copyright 2014 Shape Security, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.shapesecurity.shift.parser;
+
+import java.util.Arrays;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A token sequence stored as parallel primitive arrays: one entry per token holding its type, its source range and
+ * its flags. Built by {@link Tokenizer#tokenizeCompact(CharSequence)}.
+ *
+ * <p>This is a standalone tokenizer API for tools that only need the token stream, such as highlighters or indexers,
+ * and for the pre-pass of {@link Parser#parseInParallel} that locates function bodies. {@link Parser} does not read
+ * it: the parser tells a regular expression from a division by the syntactic context of each {@code /}, which a
+ * buffer built ahead of time cannot know, so it still scans its tokens on demand.
+ */
+public final class TokenBuffer {
+  private static final byte OCTAL = 1;
+  private static final byte LINE_TERMINATOR_BEFORE = 2;
+
+  @NotNull
+  private byte[] types;
+  @NotNull
+  private int[] starts;
+  @NotNull
+  private int[] ends;
+  @NotNull
+  private byte[] flags;
+  private int size;
+
+  TokenBuffer(int capacity) {
+    this.types = new byte[capacity];
+    this.starts = new int[capacity];
+    this.ends = new int[capacity];
+    this.flags = new byte[capacity];
+  }
+
+  void add(@NotNull TokenType type, int start, int end, boolean octal, boolean lineTerminatorBefore) {
+    if (this.size == this.types.length) {
+      int capacity = this.size * 2 + 16;
+      this.types = Arrays.copyOf(this.types, capacity);
+      this.starts = Arrays.copyOf(this.starts, capacity);
+      this.ends = Arrays.copyOf(this.ends, capacity);
+      this.flags = Arrays.copyOf(this.flags, capacity);
+    }
+    this.types[this.size] = (byte) type.ordinal();
+    this.starts[this.size] = start;
+    this.ends[this.size] = end;
+    this.flags[this.size] = (byte) ((octal ? OCTAL : 0) | (lineTerminatorBefore ? LINE_TERMINATOR_BEFORE : 0));
+    this.size++;
+  }
+
+  public int size() {
+    return this.size;
+  }
+
+  @NotNull
+  public TokenType getType(int i) {
+    return TokenType.TOKEN_SUB_TYPES[this.types[this.checkIndex(i)]];
+  }
+
+  public int getStart(int i) {
+    return this.starts[this.checkIndex(i)];
+  }
+
+  public int getEnd(int i) {
+    return this.ends[this.checkIndex(i)];
+  }
+
+  /** Whether token {@code i} is a numeric or string literal using octal syntax. */
+  public boolean isOctal(int i) {
+    return (this.flags[this.checkIndex(i)] & OCTAL) != 0;
+  }
+
+  public boolean hasLineTerminatorBefore(int i) {
+    return (this.flags[this.checkIndex(i)] & LINE_TERMINATOR_BEFORE) != 0;
+  }
+
+  @NotNull
+  public Cursor cursor() {
+    return new Cursor();
+  }
+
+  private int checkIndex(int i) {
+    if (i < 0 || i >= this.size) {
+      throw new IndexOutOfBoundsException(String.valueOf(i));
+    }
+    return i;
+  }
+
+  /** Walks the buffer front to back: {@code while (cursor.next()) { ... cursor.type() ... }}. */
+  public final class Cursor {
+    private int index = -1;
+
+    private Cursor() {
+    }
+
+    public boolean next() {
+      if (this.index < TokenBuffer.this.size) {
+        this.index++;
+      }
+      return this.index < TokenBuffer.this.size;
+    }
+
+    public int index() {
+      return this.index;
+    }
+
+    @NotNull
+    public TokenType type() {
+      return TokenBuffer.this.getType(this.index);
+    }
+
+    public int start() {
+      return TokenBuffer.this.getStart(this.index);
+    }
+
+    public int end() {
+      return TokenBuffer.this.getEnd(this.index);
+    }
+
+    public boolean isOctal() {
+      return TokenBuffer.this.isOctal(this.index);
+    }
+
+    public boolean hasLineTerminatorBefore() {
+      return TokenBuffer.this.hasLineTerminatorBefore(this.index);
+    }
+  }
+}
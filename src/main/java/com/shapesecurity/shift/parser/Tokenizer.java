@@ -41,14 +41,20 @@ import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashSet;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 public class Tokenizer {
-  static final HashSet<String> STRICT_MODE_RESERVED_WORD = new HashSet<>(Arrays.asList("implements",
-      "interface", "package", "private", "protected", "public", "static", "yield", "let"));
+  // The characters below 0x80 that skipMultiLineComment has to look at.
+  private static final boolean[] MULTI_LINE_COMMENT_STOP = new boolean[0x80];
+
+  static {
+    MULTI_LINE_COMMENT_STOP['*'] = true;
+    MULTI_LINE_COMMENT_STOP['\n'] = true;
+    MULTI_LINE_COMMENT_STOP['\r'] = true;
+  }
+
   private static final TokenType[] ONE_CHAR_PUNCTUATOR =
       new TokenType[]{TokenType.ILLEGAL, TokenType.ILLEGAL, TokenType.ILLEGAL, TokenType.ILLEGAL, TokenType.ILLEGAL,
                       TokenType.ILLEGAL, TokenType.ILLEGAL, TokenType.ILLEGAL, TokenType.ILLEGAL, TokenType.ILLEGAL,
@@ -97,44 +103,118 @@ public class Tokenizer {
                     true, true, true, true, true, true, true, true, true, true, true, true, true, true, true, true,
                     true, true, true, true, false, false, false, false, false};
   @NotNull
-  final String source;
-  private final boolean directed;
+  CharSequence source;
+  // Whether a parser tells regular expressions from divisions; if not, the tokenizer guesses from the preceding tokens.
+  boolean directed;
   @NotNull
   protected Token lookahead;
   boolean hasLineTerminatorBeforeNext;
   boolean strict;
   boolean collectingToken;
+  // Set when the errors thrown are caught and discarded rather than reported, so they are created without a stack
+  // trace.
+  boolean speculative;
   private int index, line, lineStart;
   private int lastIndex, lastLine, lastLineStart;
   private int startIndex, startLine, startLineStart;
 
-  @Nullable
-  private SourceRange lastWhitespace;
+  // Values of the token most recently scanned by advance(), read back by createToken().
+  private double tokenNumber;
+  private boolean tokenOctal;
+  private boolean tokenEscaped;
+  @NotNull
+  private StringBuilder tokenString = new StringBuilder();
+  @NotNull
+  final SymbolTable symbols;
+
   @Nullable
   private Token prevToken;
   @Nullable
+  private TokenType prevType;
+  @Nullable
   private TokenType curlyCheckToken;
   @Nullable
   private TokenType funcCheckToken;
   @Nullable
   private TokenType parenCheckToken;
 
-  private SourceLocation cachedSourceLocation;
-  private int lastCachedSourceLocation = -1;
+  // The offsets of the starts of the lines scanned so far, the first of them being that of line firstLine.
+  @NotNull
+  private int[] lineStarts = new int[64];
+  private int lineCount = 1;
+  private int firstLine;
+
+  // Decimal digits are accumulated in a long while it is below MAX_EXACT_DECIMAL, so that one more digit fits.
+  private static final long MAX_EXACT_DECIMAL = 100_000_000_000_000_000L;
+  // Integers up to 2^53, and powers of ten up to 10^22, are exact doubles.
+  private static final long MAX_EXACT_DOUBLE = 1L << 53;
+  private static final int MAX_EXACT_POWER_OF_TEN = 22;
+  private static final double[] POWERS_OF_TEN = new double[MAX_EXACT_POWER_OF_TEN + 1];
+
+  static {
+    POWERS_OF_TEN[0] = 1;
+    for (int i = 1; i <= MAX_EXACT_POWER_OF_TEN; i++) {
+      POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+    }
+  }
 
-  public Tokenizer(@NotNull String source) throws JsError {
+  // String literals without escapes up to this length have their value interned when scanned, and longer ones have it
+  // copied out; literals with escapes are decoded on first use.
+  private static final int MAX_INTERNED_STRING_LENGTH = 32;
+
+  // The largest scratch buffers kept by a tokenizer that is reset onto a new source.
+  private static final int MAX_RETAINED_TOKEN_STRING = 1 << 12;
+  private static final int MAX_RETAINED_LINE_STARTS = 1 << 12;
+
+  public Tokenizer(@NotNull CharSequence source) throws JsError {
     this(false, source);
   }
 
-  Tokenizer(boolean directed, @NotNull String source) throws JsError {
+  Tokenizer(boolean directed, @NotNull CharSequence source) throws JsError {
+    this(directed, source, 0, 0, 0, new SymbolTable());
+  }
+
+  // Starts at index, which must be the start of a token or of the whitespace before one, on the given line.
+  Tokenizer(
+      boolean directed,
+      @NotNull CharSequence source,
+      int index,
+      int line,
+      int lineStart,
+      @NotNull SymbolTable symbols) throws JsError {
     this.directed = directed;
     this.source = source;
+    this.symbols = symbols;
+    this.index = index;
+    this.line = line;
+    this.lineStart = lineStart;
+    this.firstLine = line;
+    this.lineStarts[0] = lineStart;
     this.lookahead = this.collectToken();
     this.hasLineTerminatorBeforeNext = false;
   }
 
+  // Fills buffer with the tokens of source without ever materializing a lookahead token.
+  @SuppressWarnings("ConstantConditions")
+  private Tokenizer(@NotNull CharSequence source, @NotNull TokenBuffer buffer) throws JsError {
+    this.directed = false;
+    this.source = source;
+    this.symbols = new SymbolTable();
+    this.lookahead = null;
+    TokenType type = this.collectTokenType();
+    while (type != TokenType.EOS) {
+      boolean octal = this.tokenOctal && (type == TokenType.NUMBER || type == TokenType.STRING);
+      buffer.add(type, this.startIndex, this.index, octal, this.hasLineTerminatorBeforeNext);
+      TokenType prevType2 = this.prevType;
+      this.prevType = type;
+      this.hasLineTerminatorBeforeNext = false;
+      type = this.collectTokenType();
+      this.updateCheckTokens(prevType2);
+    }
+  }
+
   @NotNull
-  public static ArrayList<Token> tokenize(@NotNull String source) throws JsError {
+  public static ArrayList<Token> tokenize(@NotNull CharSequence source) throws JsError {
     Tokenizer tokenizer = new Tokenizer(source);
     ArrayList<Token> result = new ArrayList<>();
     while (tokenizer.lookahead.type != TokenType.EOS) {
@@ -143,293 +223,17 @@ public class Tokenizer {
     return result;
   }
 
-  private static boolean cse2(@NotNull CharSequence id, char ch1, char ch2) {
-    return id.charAt(1) == ch1 && id.charAt(2) == ch2;
-  }
-
-  private static boolean cse3(@NotNull CharSequence id, char ch1, char ch2, char ch3) {
-    return id.charAt(1) == ch1 && id.charAt(2) == ch2 && id.charAt(3) == ch3;
-  }
-
-  private static boolean cse4(@NotNull CharSequence id, char ch1, char ch2, char ch3, char ch4) {
-    return id.charAt(1) == ch1 && id.charAt(2) == ch2 && id.charAt(3) == ch3 && id.charAt(4) == ch4;
-  }
-
-  private static boolean cse5(@NotNull CharSequence id, char ch1, char ch2, char ch3, char ch4, char ch5) {
-    return id.charAt(1) == ch1 && id.charAt(2) == ch2 && id.charAt(3) == ch3 && id.charAt(4) == ch4 && id.charAt(5)
-        == ch5;
-  }
-
-  private static boolean cse6(@NotNull CharSequence id, char ch1, char ch2, char ch3, char ch4, char ch5, char ch6) {
-    return id.charAt(1) == ch1 && id.charAt(2) == ch2 && id.charAt(3) == ch3 && id.charAt(4) == ch4 && id.charAt(5)
-        == ch5
-        && id.charAt(6) == ch6;
-  }
-
-  private static boolean cse7(
-      @NotNull CharSequence id,
-      char ch1,
-      char ch2,
-      char ch3,
-      char ch4,
-      char ch5,
-      char ch6,
-      char ch7) {
-    return id.charAt(1) == ch1 && id.charAt(2) == ch2 && id.charAt(3) == ch3 && id.charAt(4) == ch4 && id.charAt(5)
-        == ch5
-        && id.charAt(6) == ch6 && id.charAt(7) == ch7;
-  }
-
-  // 7.6.1.1 Keywords
-  @SuppressWarnings("ConfusingElseBranch")
+  /**
+   * Tokenizes {@code source} like {@link #tokenize(CharSequence)}, but records each token as a type, a range and flags
+   * in the primitive arrays of a {@link TokenBuffer} instead of allocating a {@link Token} per token. As in
+   * {@link #tokenize(CharSequence)}, a {@code /} is taken for a regular expression by a heuristic on the previous
+   * tokens, so this is not the token stream the parser sees.
+   */
   @NotNull
-  private TokenType getKeyword(@NotNull CharSequence id) {
-    // 'const' is specialized as Keyword in V8.
-    // 'yield' and 'let' are for compatibility with SpiderMonkey and ES.next.
-    // Some others are from future reserved words.
-
-    if (id.length() == 1 || id.length() > 10) {
-      return TokenType.ILLEGAL;
-    }
-    switch (id.length()) {
-    case 2:
-      switch (id.charAt(0)) {
-      case 'i':
-        switch (id.charAt(1)) {
-        case 'f':
-          return TokenType.IF;
-        case 'n':
-          return TokenType.IN;
-        default:
-          break;
-        }
-        break;
-      case 'd':
-        if (id.charAt(1) == 'o') {
-          return TokenType.DO;
-        }
-        break;
-      default:
-        break;
-      }
-      break;
-    case 3:
-      switch (id.charAt(0)) {
-      case 'v':
-        if (cse2(id, 'a', 'r')) {
-          return TokenType.VAR;
-        }
-        break;
-      case 'f':
-        if (cse2(id, 'o', 'r')) {
-          return TokenType.FOR;
-        }
-        break;
-      case 'n':
-        if (cse2(id, 'e', 'w')) {
-          return TokenType.NEW;
-        }
-        break;
-      case 't':
-        if (cse2(id, 'r', 'y')) {
-          return TokenType.TRY;
-        }
-        break;
-      case 'l':
-        if (cse2(id, 'e', 't')) {
-          return TokenType.LET;
-        }
-        break;
-      default:
-        break;
-      }
-      break;
-    case 4:
-      switch (id.charAt(0)) {
-      case 't':
-        if (cse3(id, 'h', 'i', 's')) {
-          return TokenType.THIS;
-        }
-        break;
-      case 'e':
-        if (cse3(id, 'l', 's', 'e')) {
-          return TokenType.ELSE;
-        } else if (cse3(id, 'n', 'u', 'm')) {
-          return TokenType.FUTURE_RESERVED_WORD;
-        }
-        break;
-      case 'c':
-        if (cse3(id, 'a', 's', 'e')) {
-          return TokenType.CASE;
-        }
-        break;
-      case 'v':
-        if (cse3(id, 'o', 'i', 'd')) {
-          return TokenType.VOID;
-        }
-        break;
-      case 'w':
-        if (cse3(id, 'i', 't', 'h')) {
-          return TokenType.WITH;
-        }
-        break;
-      default:
-        break;
-      }
-      break;
-    case 5:
-      switch (id.charAt(0)) {
-      case 'w': // WHILE
-        if (cse4(id, 'h', 'i', 'l', 'e')) {
-          return TokenType.WHILE;
-        }
-        break;
-      case 'b': // BREAK
-        if (cse4(id, 'r', 'e', 'a', 'k')) {
-          return TokenType.BREAK;
-        }
-        break;
-      case 'c': // CATCH
-        if (cse4(id, 'a', 't', 'c', 'h')) {
-          return TokenType.CATCH;
-        } else if (cse4(id, 'o', 'n', 's', 't')) {
-          return TokenType.CONST;
-        } else if (cse4(id, 'l', 'a', 's', 's')) {
-          return TokenType.FUTURE_RESERVED_WORD;
-        }
-        break;
-      case 't': // THROW
-        if (cse4(id, 'h', 'r', 'o', 'w')) {
-          return TokenType.THROW;
-        }
-        break;
-      case 'y': // YIELD
-        if (cse4(id, 'i', 'e', 'l', 'd')) {
-          return this.strict ? TokenType.FUTURE_STRICT_RESERVED_WORD : TokenType.ILLEGAL;
-        }
-        break;
-      case 's': // SUPER
-        if (cse4(id, 'u', 'p', 'e', 'r')) {
-          return TokenType.FUTURE_RESERVED_WORD;
-        }
-        break;
-      default:
-        break;
-      }
-      break;
-    case 6:
-      switch (id.charAt(0)) {
-      case 'r':
-        if (cse5(id, 'e', 't', 'u', 'r', 'n')) {
-          return TokenType.RETURN;
-        }
-        break;
-      case 't':
-        if (cse5(id, 'y', 'p', 'e', 'o', 'f')) {
-          return TokenType.TYPEOF;
-        }
-        break;
-      case 'd':
-        if (cse5(id, 'e', 'l', 'e', 't', 'e')) {
-          return TokenType.DELETE;
-        }
-        break;
-      case 's':
-        if (cse5(id, 'w', 'i', 't', 'c', 'h')) {
-          return TokenType.SWITCH;
-        } else if (this.strict && cse5(id, 't', 'a', 't', 'i', 'c')) {
-          return TokenType.FUTURE_STRICT_RESERVED_WORD;
-        }
-        break;
-      case 'e':
-        if (cse5(id, 'x', 'p', 'o', 'r', 't')) {
-          return TokenType.FUTURE_RESERVED_WORD;
-        }
-        break;
-      case 'i':
-        if (cse5(id, 'm', 'p', 'o', 'r', 't')) {
-          return TokenType.FUTURE_RESERVED_WORD;
-        }
-        break;
-      case 'p':
-        if (this.strict && cse5(id, 'u', 'b', 'l', 'i', 'c')) {
-          return TokenType.FUTURE_STRICT_RESERVED_WORD;
-        }
-        break;
-      default:
-        break;
-      }
-      break;
-    case 7:
-      switch (id.charAt(0)) {
-      case 'd': // default
-        if (cse6(id, 'e', 'f', 'a', 'u', 'l', 't')) {
-          return TokenType.DEFAULT;
-        }
-        break;
-      case 'f': // finally
-        if (cse6(id, 'i', 'n', 'a', 'l', 'l', 'y')) {
-          return TokenType.FINALLY;
-        }
-        break;
-      case 'e': // extends
-        if (cse6(id, 'x', 't', 'e', 'n', 'd', 's')) {
-          return TokenType.FUTURE_RESERVED_WORD;
-        }
-        break;
-      case 'p':
-        if (this.strict) {
-          String s = id.toString();
-          if ("private".equals(s) || "package".equals(s)) {
-            return TokenType.FUTURE_STRICT_RESERVED_WORD;
-          }
-        }
-        break;
-      default:
-        break;
-      }
-      break;
-    case 8:
-      switch (id.charAt(0)) {
-      case 'f':
-        if (cse7(id, 'u', 'n', 'c', 't', 'i', 'o', 'n')) {
-          return TokenType.FUNCTION;
-        }
-        break;
-      case 'c':
-        if (cse7(id, 'o', 'n', 't', 'i', 'n', 'u', 'e')) {
-          return TokenType.CONTINUE;
-        }
-        break;
-      case 'd':
-        if (cse7(id, 'e', 'b', 'u', 'g', 'g', 'e', 'r')) {
-          return TokenType.DEBUGGER;
-        }
-        break;
-      default:
-        break;
-      }
-      break;
-    case 9:
-      if (this.strict && (id.charAt(0) == 'p' || id.charAt(0) == 'i')) {
-        String s = id.toString();
-        if ("protected".equals(s) || "interface".equals(s)) {
-          return TokenType.FUTURE_STRICT_RESERVED_WORD;
-        }
-      }
-      break;
-    case 10:
-      String s = id.toString();
-      if ("instanceof".equals(s)) {
-        return TokenType.INSTANCEOF;
-      } else if (this.strict && "implements".equals(s)) {
-        return TokenType.FUTURE_STRICT_RESERVED_WORD;
-      }
-      break;
-    default:
-      break;
-    }
-    return TokenType.ILLEGAL;
+  public static TokenBuffer tokenizeCompact(@NotNull CharSequence source) throws JsError {
+    TokenBuffer buffer = new TokenBuffer(source.length() / 4 + 16);
+    new Tokenizer(source, buffer);
+    return buffer;
   }
 
   @NotNull
@@ -467,25 +271,79 @@ public class Tokenizer {
   JsError createError(@NotNull String message, @NotNull Object... args) {
     String msg = String.format(message, args);
     if (this.collectingToken) {
-      return new JsError(this.index, this.line + 1, this.index - this.lineStart, msg);
+      return new JsError(this.index, this.line + 1, this.index - this.lineStart, msg, !this.speculative);
     } else {
-      return new JsError(this.startIndex, this.startLine + 1, this.startIndex - this.startLineStart, msg);
+      return new JsError(
+          this.startIndex,
+          this.startLine + 1,
+          this.startIndex - this.startLineStart,
+          msg,
+          !this.speculative);
     }
   }
 
   @NotNull
-  JsError createErrorWithToken(@NotNull SourceLocation location, @NotNull String message, @NotNull Object... args) {
+  JsError createErrorWithToken(int location, @NotNull String message, @NotNull Object... args) {
     String msg = String.format(message, args);
-    return new JsError(location.offset, location.line + 1, location.column, msg);
+    int line = this.lineOf(location);
+    return new JsError(location, line + 1, location - this.lineStartOf(location), msg, !this.speculative);
   }
 
-  @NotNull
-  SourceLocation getLocation() {
-    if (this.lastCachedSourceLocation != this.index) {
-      this.cachedSourceLocation = new SourceLocation(this.startLine, this.startIndex - this.startLineStart, this.startIndex);
-      this.lastCachedSourceLocation = this.index;
+  // The offset of the lookahead token, where the productions the parser starts next begin.
+  int getLocation() {
+    return this.startIndex;
+  }
+
+  private void addLineStart(int lineStart) {
+    // Rescanning a token can visit a line again.
+    if (lineStart > this.lineStarts[this.lineCount - 1]) {
+      if (this.lineCount == this.lineStarts.length) {
+        this.lineStarts = Arrays.copyOf(this.lineStarts, this.lineCount * 2);
+      }
+      this.lineStarts[this.lineCount++] = lineStart;
+    }
+  }
+
+  // The index in lineStarts of the line containing offset, which must not be past the tokens scanned so far.
+  private int lineIndexOf(int offset) {
+    int high = this.lineCount - 1;
+    if (offset >= this.lineStarts[high]) {
+      return high;
     }
-    return this.cachedSourceLocation;
+    int low = 0;
+    while (low < high) {
+      int mid = (low + high + 1) >>> 1;
+      if (this.lineStarts[mid] <= offset) {
+        low = mid;
+      } else {
+        high = mid - 1;
+      }
+    }
+    return low;
+  }
+
+  int lineOf(int offset) {
+    return this.firstLine + this.lineIndexOf(offset);
+  }
+
+  int lineStartOf(int offset) {
+    return this.lineStarts[this.lineIndexOf(offset)];
+  }
+
+  @NotNull
+  SourceLocation getSourceLocation(int offset) {
+    return new SourceLocation(this.lineOf(offset), offset - this.lineStartOf(offset), offset);
+  }
+
+  // The index of the lines scanned so far, which is that of the whole source once it is all scanned from the start.
+  @NotNull
+  LineIndex getLineIndex() {
+    return new LineIndex(Arrays.copyOf(this.lineStarts, this.lineCount));
+  }
+
+  // The end of the last token consumed.
+  int getIndexBeforeLookahead() {
+    return this.lastIndex;
   }
 
   @NotNull
@@ -499,65 +357,84 @@ public class Tokenizer {
   }
 
   private void skipSingleLineComment(int offset) {
-    this.index += offset;
-    while (this.index < this.source.length()) {
-      char ch = this.source.charAt(this.index);
-      this.index++;
-      if (Utils.isLineTerminator(ch)) {
+    CharSequence source = this.source;
+    int length = source.length();
+    int i = this.index + offset;
+    while (i < length) {
+      char ch = source.charAt(i++);
+      // Most characters are above '\r' and below U+2028, and can be passed over with two comparisons.
+      if (ch > '\r' && ch < '\u2028' || ch > '\u2029') {
+        continue;
+      }
+      if (ch == '\n' || ch == '\r' || ch >= '\u2028') {
         this.hasLineTerminatorBeforeNext = true;
-        if (ch == '\r' && this.index < this.source.length() && this.source.charAt(this.index) == '\n') {
-          this.index++;
+        if (ch == '\r' && i < length && source.charAt(i) == '\n') {
+          i++;
         }
-        this.lineStart = this.index;
+        this.index = i;
+        this.lineStart = i;
         this.line++;
+        this.addLineStart(i);
         return;
       }
     }
+    this.index = i;
   }
 
   private void skipMultiLineComment() throws JsError {
-    this.index += 2;
-    int length = this.source.length();
-    int i = this.index;
+    CharSequence source = this.source;
+    int length = source.length();
+    int i = this.index + 2;
+    // The line is tracked locally and stored once the comment is skipped.
+    int line = this.line;
+    int lineStart = this.lineStart;
+    boolean hasLineTerminator = false;
     while (i < length) {
-      char ch = this.source.charAt(i);
-      if (ch < 0x80) {
-        switch (ch) {
-        case '*':
-          // Block comment ends with '*/'.
-          if (i + 1 < length && this.source.charAt(i + 1) == '/') {
-            this.index = i + 2;
-            return;
-          }
-          i++;
-          break;
-        case '\n':
-          this.hasLineTerminatorBeforeNext = true;
-          i++;
-          this.lineStart = i;
-          this.line++;
-          break;
-        case '\r':
-          this.hasLineTerminatorBeforeNext = true;
-          if (i < length - 1 && this.source.charAt(i + 1) == '\n') {
-            i++;
-          }
-          i++;
-          this.lineStart = i;
-          this.line++;
-          break;
-        default:
+      char ch = source.charAt(i);
+      if (ch < 0x80 ? !MULTI_LINE_COMMENT_STOP[ch] : ch != 0x2028 && ch != 0x2029) {
+        i++;
+        continue;
+      }
+      switch (ch) {
+      case '*':
+        // Block comment ends with '*/'.
+        if (i + 1 < length && source.charAt(i + 1) == '/') {
+          this.index = i + 2;
+          this.line = line;
+          this.lineStart = lineStart;
+          this.hasLineTerminatorBeforeNext |= hasLineTerminator;
+          return;
+        }
+        i++;
+        break;
+      case '\n':
+        hasLineTerminator = true;
+        i++;
+        lineStart = i;
+        line++;
+        this.addLineStart(i);
+        break;
+      case '\r':
+        hasLineTerminator = true;
+        if (i < length - 1 && source.charAt(i + 1) == '\n') {
           i++;
         }
-      } else if (ch == 0x2028 || ch == 0x2029) {
         i++;
-        this.lineStart = i;
-        this.line++;
-      } else {
+        lineStart = i;
+        line++;
+        this.addLineStart(i);
+        break;
+      default:
         i++;
+        lineStart = i;
+        line++;
+        this.addLineStart(i);
       }
     }
     this.index = i;
+    this.line = line;
+    this.lineStart = lineStart;
+    this.hasLineTerminatorBeforeNext |= hasLineTerminator;
     throw this.createILLEGAL();
   }
 
@@ -567,7 +444,9 @@ public class Tokenizer {
 
     while (this.index < length) {
       char ch = this.source.charAt(this.index);
-      if (Utils.isWhitespace(ch)) {
+      if (ch == ' ' || ch == '\t') {
+        this.index++;
+      } else if (Utils.isWhitespace(ch)) {
         this.index++;
       } else if (Utils.isLineTerminator(ch)) {
         this.hasLineTerminatorBeforeNext = true;
@@ -577,6 +456,7 @@ public class Tokenizer {
         }
         this.lineStart = this.index;
         this.line++;
+        this.addLineStart(this.index);
         isLineStart = true;
       } else if (ch == '/') {
         if (this.index + 1 >= length) {
@@ -664,7 +544,8 @@ public class Tokenizer {
       throw this.createILLEGAL();
     }
 
-    StringBuilder id = new StringBuilder();
+    StringBuilder id = this.tokenString;
+    id.setLength(0);
 
     if (ch == '\\') {
       if (this.source.charAt(this.index) != 'u') {
@@ -711,18 +592,14 @@ public class Tokenizer {
     return id;
   }
 
-  @NotNull
-  private CharSequence getIdentifier() throws JsError {
-    int start = this.index;
-    this.index++;
+  // Scans an identifier without escapes in place; returns false, without moving, if an escape is found.
+  private boolean scanPlainIdentifier() {
     int l = this.source.length();
-    int i = this.index;
+    int i = this.index + 1;
     while (i < l) {
       char ch = this.source.charAt(i);
       if (ch == '\\') {
-        // Go back and try the hard one.
-        this.index = start;
-        return this.getEscapedIdentifier();
+        return false;
       } else if (Utils.isIdentifierPart(ch)) {
         i++;
       } else {
@@ -730,43 +607,38 @@ public class Tokenizer {
       }
     }
     this.index = i;
-    return this.getSlice(start);
+    return true;
   }
 
   @NotNull
-  private Token scanIdentifier() throws JsError {
+  private TokenType scanIdentifier() throws JsError {
     int start = this.index;
+    if (this.source.charAt(start) != '\\' && this.scanPlainIdentifier()) {
+      return this.getIdentifierType(this.source, start, this.index - start);
+    }
 
     // Backslash (U+005C) starts an escaped character.
-    CharSequence id = this.source.charAt(this.index) == '\\' ? this.getEscapedIdentifier() : this.getIdentifier();
+    CharSequence id = this.getEscapedIdentifier();
+    return this.getIdentifierType(id, 0, id.length());
+  }
 
+  @NotNull
+  private TokenType getIdentifierType(@NotNull CharSequence id, int start, int length) {
     // There is no keyword or literal with only one character.
     // Thus, it must be an identifier.
-    SourceRange slice = this.getSlice(start);
-
-    if ((id.length() == 1)) {
-      return new IdentifierToken(slice);
+    if (length == 1) {
+      return TokenType.IDENTIFIER;
     }
 
-    TokenType subType = this.getKeyword(id);
-    if (subType != TokenType.ILLEGAL) {
-      return new KeywordToken(subType, slice);
-    }
-
-    if (id.length() == 4) {
-      id = id.toString();
-      if ("null".equals(id)) {
-        return new NullLiteralToken(slice);
-      } else if ("true".equals(id)) {
-        return new TrueLiteralToken(slice);
-      }
+    int slot = Keywords.lookup(id, start, length);
+    if (slot < 0) {
+      return TokenType.IDENTIFIER;
     }
-
-    if (id.length() == 5 && "false".equals(id.toString())) {
-      return new FalseLiteralToken(slice);
+    TokenType type = Keywords.getType(slot);
+    if (type == TokenType.FUTURE_STRICT_RESERVED_WORD && !this.strict) {
+      return TokenType.IDENTIFIER;
     }
-
-    return new IdentifierToken(slice);
+    return type;
   }
 
   @NotNull
@@ -878,16 +750,23 @@ public class Tokenizer {
 
   // 7.7 Punctuators
   @NotNull
-  private Token scanPunctuator() {
-    int start = this.index;
+  private TokenType scanPunctuator() {
     TokenType subType = this.scanPunctuatorHelper();
     this.index += subType.toString().length();
-    return new PunctuatorToken(subType, this.getSlice(start));
+    return subType;
+  }
+
+  @NotNull
+  private TokenType numericLiteral(double value, boolean octal) {
+    this.tokenNumber = value;
+    this.tokenOctal = octal;
+    return TokenType.NUMBER;
   }
 
   @NotNull
-  private Token scanHexLiteral(int start) throws JsError {
-    BigInteger value = BigInteger.ZERO;
+  private TokenType scanHexLiteral() throws JsError {
+    long value = 0;
+    boolean exact = true;
     int i = this.index;
     while (i < this.source.length()) {
       char ch = this.source.charAt(i);
@@ -895,8 +774,11 @@ public class Tokenizer {
       if (hex == -1) {
         break;
       }
-      value = value.shiftLeft(4);
-      value = value.add(BigInteger.valueOf(hex));
+      if (value < 1L << 59) {
+        value = value << 4 | hex;
+      } else {
+        exact = false;
+      }
       i++;
     }
 
@@ -908,22 +790,28 @@ public class Tokenizer {
       throw this.createILLEGAL();
     }
 
+    double result = exact ? value : this.integerValue(this.index, i, 16);
     this.index = i;
 
-    return new NumericLiteralToken(this.getSlice(start), value.doubleValue());
+    return this.numericLiteral(result, false);
   }
 
   @NotNull
-  private Token scanOctalLiteral(int start) throws JsError {
-    BigInteger value = BigInteger.ZERO;
+  private TokenType scanOctalLiteral() throws JsError {
+    long value = 0;
+    boolean exact = true;
+    int start = this.index;
     while (this.index < this.source.length()) {
       char ch = this.source.charAt(this.index);
       if (!('0' <= ch && ch <= '7')) {
         break;
       }
       this.index++;
-      value = value.shiftLeft(3);
-      value = value.add(BigInteger.valueOf(ch - '0'));
+      if (value < 1L << 60) {
+        value = value << 3 | ch - '0';
+      } else {
+        exact = false;
+      }
     }
 
     if (this.index < this.source.length() && (Utils.isIdentifierStart(this.source.charAt(this.index)) || Utils
@@ -931,16 +819,17 @@ public class Tokenizer {
       throw this.createILLEGAL();
     }
 
-    return new NumericLiteralToken(this.getSlice(start), value.doubleValue(), true);
+    return this.numericLiteral(exact ? value : this.integerValue(start, this.index, 8), true);
   }
 
   @NotNull
-  private Token scanNumericLiteral() throws JsError {
-    @NotNull
-    BigInteger value = BigInteger.ZERO;
+  private TokenType scanNumericLiteral() throws JsError {
+    // The digits scanned, ignoring the decimal point, while they fit in a long; exact is cleared once they do not.
+    long value = 0;
+    boolean exact = true;
+    int start = this.index;
     char ch = this.source.charAt(this.index);
     // assert(ch == '.' || '0' <= ch && ch <= '9')
-    int start = this.index;
 
     if (ch == '0') {
       this.index++;
@@ -948,22 +837,25 @@ public class Tokenizer {
         ch = this.source.charAt(this.index);
         if (ch == 'x' || ch == 'X') {
           this.index++;
-          return this.scanHexLiteral(start);
+          return this.scanHexLiteral();
         } else if ('0' <= ch && ch <= '9') {
-          return this.scanOctalLiteral(start);
+          return this.scanOctalLiteral();
         }
       } else {
-        return new NumericLiteralToken(this.getSlice(start), 0);
+        return this.numericLiteral(0, false);
       }
     } else if (ch != '.') {
       // Must be '1'..'9'
       ch = this.source.charAt(this.index);
       while ('0' <= ch && ch <= '9') {
-        value = value.multiply(BigInteger.TEN);
-        value = value.add(BigInteger.valueOf(ch - '0'));
+        if (value < MAX_EXACT_DECIMAL) {
+          value = value * 10 + (ch - '0');
+        } else {
+          exact = false;
+        }
         this.index++;
         if (this.index == this.source.length()) {
-          return new NumericLiteralToken(this.getSlice(start), value.doubleValue());
+          return this.numericLiteral(exact ? value : this.decimalValue(start, this.index, 0), false);
         }
         ch = this.source.charAt(this.index);
       }
@@ -973,21 +865,25 @@ public class Tokenizer {
     if (ch == '.') {
       this.index++;
       if (this.index == this.source.length()) {
-        return new NumericLiteralToken(this.getSlice(start), value.doubleValue());
+        return this.numericLiteral(exact ? value : this.decimalValue(start, this.index, 0), false);
       }
 
       ch = this.source.charAt(this.index);
       while ('0' <= ch && ch <= '9') {
         e++;
-        value = value.multiply(BigInteger.TEN);
-        value = value.add(BigInteger.valueOf(ch - '0'));
+        if (value < MAX_EXACT_DECIMAL) {
+          value = value * 10 + (ch - '0');
+        } else {
+          exact = false;
+        }
         this.index++;
         if (this.index == this.source.length()) {
-          return new NumericLiteralToken(this.getSlice(start), new BigDecimal(value, e).doubleValue());
+          return this.numericLiteral(this.decimalValue(exact, value, start, this.index, e), false);
         }
         ch = this.source.charAt(this.index);
       }
     }
+    int end = this.index;
 
     // EOF not reached here
     if (ch == 'e' || ch == 'E') {
@@ -1028,101 +924,90 @@ public class Tokenizer {
       throw this.createILLEGAL();
     }
 
-    return new NumericLiteralToken(this.getSlice(start), new BigDecimal(value, e).doubleValue());
+    return this.numericLiteral(this.decimalValue(exact, value, start, end, e), false);
+  }
+
+  // The value of the digits in [start, end), ignoring a decimal point, divided by 10^scale. The digits are those of
+  // value if exact is set; the result is then computed without BigDecimal when that is exact.
+  private double decimalValue(boolean exact, long value, int start, int end, int scale) {
+    if (exact) {
+      if (value == 0 || scale == 0) {
+        return value;
+      }
+      if (value <= MAX_EXACT_DOUBLE && scale >= -MAX_EXACT_POWER_OF_TEN && scale <= MAX_EXACT_POWER_OF_TEN) {
+        // Both operands are exact, so the result is rounded once, as that of BigDecimal is.
+        return scale >= 0 ? value / POWERS_OF_TEN[scale] : value * POWERS_OF_TEN[-scale];
+      }
+    }
+    return this.decimalValue(start, end, scale);
+  }
+
+  private double decimalValue(int start, int end, int scale) {
+    StringBuilder digits = this.tokenString;
+    digits.setLength(0);
+    for (int i = start; i < end; i++) {
+      char ch = this.source.charAt(i);
+      if (ch != '.') {
+        digits.append(ch);
+      }
+    }
+    if (digits.length() == 0) {
+      return 0;
+    }
+    return new BigDecimal(new BigInteger(digits.toString()), scale).doubleValue();
+  }
+
+  // The value of the digits in [start, end) in the given radix.
+  private double integerValue(int start, int end, int radix) {
+    return new BigInteger(this.source.subSequence(start, end).toString(), radix).doubleValue();
   }
 
   // 7.8.4 String Literals
+  // The literal is only scanned; its value is decoded from its source text when first needed.
   @NotNull
-  private Token scanStringLiteral() throws JsError {
-    StringBuilder str = new StringBuilder();
-
+  private TokenType scanStringLiteral() throws JsError {
     char quote = this.source.charAt(this.index);
     //	assert((quote == '\'' || quote == '"'),
     //		'String literal must starts with a quote')
 
-    int start = this.index;
     this.index++;
 
     boolean octal = false;
+    boolean escaped = false;
     while (this.index < this.source.length()) {
       char ch = this.source.charAt(this.index);
       if (ch == quote) {
         this.index++;
-        return new StringLiteralToken(this.getSlice(start), str.toString(), octal);
+        this.tokenOctal = octal;
+        this.tokenEscaped = escaped;
+        return TokenType.STRING;
       } else if (ch == '\\') {
+        escaped = true;
         this.index++;
         if (this.index == this.source.length()) {
           throw this.createILLEGAL();
         }
         ch = this.source.charAt(this.index);
         if (!Utils.isLineTerminator(ch)) {
-          switch (ch) {
-          case 'n':
-            str.append('\n');
-            this.index++;
-            break;
-          case 'r':
-            str.append('\r');
-            this.index++;
-            break;
-          case 't':
-            str.append('\t');
-            this.index++;
-            break;
-          case 'u':
-          case 'x':
-            int restore = this.index;
-            int unescaped;
-            this.index++;
-            if (this.index >= this.source.length()) {
-              throw this.createILLEGAL();
+          if ('0' <= ch && ch <= '7') {
+            octal = true;
+            int octLen = 1;
+            // 3 digits are only allowed when string starts
+            // with 0, 1, 2, 3
+            if ('0' <= ch && ch <= '3') {
+              octLen = 0;
             }
-            unescaped = ch == 'u' ? this.scanHexEscape4() : this.scanHexEscape2();
-            if (unescaped >= 0) {
-              str.append((char) unescaped);
-            } else {
-              this.index = restore;
-              str.append(ch);
+            while (octLen < 3 && '0' <= ch && ch <= '7') {
+              octLen++;
               this.index++;
-            }
-            break;
-          case 'b':
-            str.append('\b');
-            this.index++;
-            break;
-          case 'f':
-            str.append('\f');
-            this.index++;
-            break;
-          case 'v':
-            str.append('\u000B');
-            this.index++;
-            break;
-          default:
-            if ('0' <= ch && ch <= '7') {
-              octal = true;
-              int octLen = 1;
-              // 3 digits are only allowed when string starts
-              // with 0, 1, 2, 3
-              if ('0' <= ch && ch <= '3') {
-                octLen = 0;
-              }
-              int code = 0;
-              while (octLen < 3 && '0' <= ch && ch <= '7') {
-                code *= 8;
-                octLen++;
-                code += ch - '0';
-                this.index++;
-                if (this.index == this.source.length()) {
-                  throw this.createILLEGAL();
-                }
-                ch = this.source.charAt(this.index);
+              if (this.index == this.source.length()) {
+                throw this.createILLEGAL();
               }
-              str.append((char) code);
-            } else {
-              str.append(ch);
-              this.index++;
+              ch = this.source.charAt(this.index);
             }
+          } else {
+            // Hexadecimal escapes need no checking: an invalid one stands for its letter and digits.
+            this.index++;
           }
         } else {
           this.hasLineTerminatorBeforeNext = true;
@@ -1132,11 +1017,11 @@ public class Tokenizer {
           }
           this.lineStart = this.index;
           this.line++;
+          this.addLineStart(this.index);
         }
       } else if (Utils.isLineTerminator(ch)) {
         throw this.createILLEGAL();
       } else {
-        str.append(ch);
         this.index++;
       }
     }
@@ -1151,17 +1036,22 @@ public class Tokenizer {
     this.line = this.startLine;
     this.lineStart = this.startLineStart;
     this.collectingToken = true;
-    this.lookahead = this.scanRegExp();
+    this.lookahead = this.createToken(this.scanRegExp(), this.startIndex);
     this.collectingToken = false;
     return this.lookahead;
   }
 
   @NotNull
-  private Token scanRegExp() throws JsError {
-    int start = this.index;
+  private TokenType scanRegExp() throws JsError {
+    if (!this.skipRegExp()) {
+      throw this.createError(ErrorMessages.UNTERMINATED_REG_EXP);
+    }
+    return TokenType.REGEXP;
+  }
 
-    StringBuilder str = new StringBuilder();
-    str.append('/');
+  // Moves past the regular expression starting at the index and returns true, or returns false with the index where
+  // it is found unterminated.
+  private boolean skipRegExp() {
     this.index++;
 
     boolean terminated = false;
@@ -1169,17 +1059,14 @@ public class Tokenizer {
     while (this.index < this.source.length()) {
       char ch = this.source.charAt(this.index);
       if (ch == '\\') {
-        str.append(ch);
         this.index++;
-        ch = this.source.charAt(this.index);
         // ECMA-262 7.8.5
-        if (Utils.isLineTerminator(ch)) {
-          throw this.createError(ErrorMessages.UNTERMINATED_REG_EXP);
+        if (this.index == this.source.length() || Utils.isLineTerminator(this.source.charAt(this.index))) {
+          return false;
         }
-        str.append(ch);
         this.index++;
       } else if (Utils.isLineTerminator(ch)) {
-        throw this.createError(ErrorMessages.UNTERMINATED_REG_EXP);
+        return false;
       } else {
         if (classMarker) {
           if (ch == ']') {
@@ -1188,20 +1075,18 @@ public class Tokenizer {
         } else {
           if (ch == '/') {
             terminated = true;
-            str.append(ch);
             this.index++;
             break;
           } else if (ch == '[') {
             classMarker = true;
           }
         }
-        str.append(ch);
         this.index++;
       }
     }
 
     if (!terminated) {
-      throw this.createError(ErrorMessages.UNTERMINATED_REG_EXP);
+      return false;
     }
 
     while (this.index < this.source.length()) {
@@ -1210,29 +1095,28 @@ public class Tokenizer {
         break;
       }
       this.index++;
-      str.append(ch);
     }
-    return new RegularExpressionLiteralToken(this.getSlice(start), str.toString());
+    return true;
   }
 
   private boolean guessRegexp() {
     // Using the following algorithm:
     // https://github.com/mozilla/sweet.js/wiki/design
 
-    if (this.prevToken == null) {
+    if (this.prevType == null) {
       // Nothing before that: it cannot be a division.
       return true;
     }
 
-    if (this.prevToken.type.klass == TokenClass.Keyword) {
+    if (this.prevType.klass == TokenClass.Keyword) {
       return true;
     }
 
-    if (this.prevToken.type.klass == TokenClass.Punctuator) {
-      if (this.prevToken.type == TokenType.RBRACK) {
+    if (this.prevType.klass == TokenClass.Punctuator) {
+      if (this.prevType == TokenType.RBRACK) {
         return false;
       }
-      if (this.prevToken.type == TokenType.RPAREN) {
+      if (this.prevType == TokenType.RPAREN) {
         if (this.parenCheckToken != null) {
           switch (this.parenCheckToken) {
           case IF:
@@ -1246,7 +1130,7 @@ public class Tokenizer {
         }
         return false;
       }
-      if (this.prevToken.type == TokenType.RBRACE) {
+      if (this.prevType == TokenType.RBRACE) {
         if (this.curlyCheckToken == null) {
           return true;
         }
@@ -1336,7 +1220,7 @@ public class Tokenizer {
   }
 
   @NotNull
-  private Token advance() throws JsError {
+  private TokenType advance() throws JsError {
     char ch = this.source.charAt(this.index);
 
     if (ch < 0x80) {
@@ -1371,11 +1255,10 @@ public class Tokenizer {
         if (!this.directed) {
           int index = this.index;
           if (this.guessRegexp()) {
-            try {
-              return this.scanRegExp();
-            } catch (JsError ignored) {
-              this.index = index;
+            if (this.skipRegExp()) {
+              return TokenType.REGEXP;
             }
+            this.index = index;
           }
         }
         return this.scanPunctuator();
@@ -1394,10 +1277,52 @@ public class Tokenizer {
     return this.lookahead.type == TokenType.EOS;
   }
 
+  @NotNull
+  private Token createToken(@NotNull TokenType type, int start) {
+    SourceRange slice = this.getSlice(start);
+    switch (type.klass) {
+    case Ident:
+      return new IdentifierToken(slice);
+    case Keyword:
+      return new KeywordToken(type, slice);
+    case NullLiteral:
+      return new NullLiteralToken(slice);
+    case BooleanLiteral:
+      return type == TokenType.TRUE_LITERAL ? new TrueLiteralToken(slice) : new FalseLiteralToken(slice);
+    case NumericLiteral:
+      return new NumericLiteralToken(slice, this.tokenNumber, this.tokenOctal);
+    case StringLiteral:
+      if (this.tokenEscaped) {
+        return new StringLiteralToken(slice, this.tokenOctal);
+      }
+      return new StringLiteralToken(slice, slice.end - slice.start - 2 <= MAX_INTERNED_STRING_LENGTH ?
+          this.symbols.intern(this.source, start + 1, slice.end - 1) :
+          this.source.subSequence(start + 1, slice.end - 1).toString(), false);
+    case RegularExpression:
+      return new RegularExpressionLiteralToken(slice, slice.toString());
+    case Eof:
+      return new EOFToken(slice);
+    default:
+      return new PunctuatorToken(type, slice);
+    }
+  }
+
   @NotNull
   private Token collectToken() throws JsError {
-    this.collectingToken = true;
     int start = this.index;
+    TokenType type = this.collectTokenType();
+    if (type == TokenType.EOS) {
+      return this.createToken(type, start);
+    }
+    Token token = this.createToken(type, this.startIndex);
+    token.leadingWhitespace = new SourceRange(start, this.startIndex, this.source);
+    return token;
+  }
+
+  // Scans the next token, leaving its range in startIndex..index and its value, if any, in the token* fields.
+  @NotNull
+  private TokenType collectTokenType() throws JsError {
+    this.collectingToken = true;
 
     this.lastIndex = this.index;
     this.lastLine = this.line;
@@ -1409,17 +1334,128 @@ public class Tokenizer {
     this.startLine = this.line;
     this.startLineStart = this.lineStart;
 
-    this.lastWhitespace = this.getSlice(start);
     if (this.index >= this.source.length()) {
-      return new EOFToken(this.getSlice(start));
+      return TokenType.EOS;
+    }
+
+    TokenType type = this.advance();
+    this.collectingToken = false;
+    return type;
+  }
+
+  private void updateCheckTokens(@Nullable TokenType prevType2) {
+    if (prevType2 != null) {
+      if (this.prevType == TokenType.LPAREN) {
+        this.parenCheckToken = prevType2;
+      } else if (this.prevType == TokenType.FUNCTION) {
+        this.funcCheckToken = prevType2;
+      } else if (this.prevType == TokenType.LBRACE) {
+        this.curlyCheckToken = prevType2;
+      }
+    }
+  }
+
+  // Continues after the last token consumed by other, a tokenizer over the same source that was started at this
+  // tokenizer's lookahead with line 0.
+  void resumeAfter(@NotNull Tokenizer other) throws JsError {
+    this.prevToken = other.prevToken;
+    this.prevType = other.prevType;
+    this.index = other.lastIndex;
+    if (other.lastLine == 0) {
+      this.line = this.startLine;
+      this.lineStart = this.startLineStart;
+    } else {
+      this.line = this.startLine + other.lastLine;
+      this.lineStart = other.lastLineStart;
     }
+    for (int i = 1; i < other.lineCount; i++) {
+      this.addLineStart(other.lineStarts[i]);
+    }
+    this.hasLineTerminatorBeforeNext = false;
+    this.lookahead = this.collectToken();
+  }
+
+  // The scanning state at the current lookahead, which rewind(mark) goes back to.
+  @NotNull
+  Mark mark() {
+    return new Mark(this);
+  }
 
-    Token token = this.advance();
+  void rewind(@NotNull Mark mark) {
+    this.index = mark.index;
+    this.line = mark.line;
+    this.lineStart = mark.lineStart;
+    this.lastIndex = mark.lastIndex;
+    this.lastLine = mark.lastLine;
+    this.lastLineStart = mark.lastLineStart;
+    this.startIndex = mark.startIndex;
+    this.startLine = mark.startLine;
+    this.startLineStart = mark.startLineStart;
+    this.lookahead = mark.lookahead;
+    this.hasLineTerminatorBeforeNext = mark.hasLineTerminatorBeforeNext;
+    this.strict = mark.strict;
+    this.prevToken = mark.prevToken;
+    this.prevType = mark.prevType;
+    this.curlyCheckToken = mark.curlyCheckToken;
+    this.funcCheckToken = mark.funcCheckToken;
+    this.parenCheckToken = mark.parenCheckToken;
+  }
 
+  static final class Mark {
+    private final int index, line, lineStart;
+    private final int lastIndex, lastLine, lastLineStart;
+    private final int startIndex, startLine, startLineStart;
+    @NotNull
+    private final Token lookahead;
+    private final boolean hasLineTerminatorBeforeNext;
+    private final boolean strict;
+    @Nullable
+    private final Token prevToken;
+    @Nullable
+    private final TokenType prevType, curlyCheckToken, funcCheckToken, parenCheckToken;
+
+    private Mark(@NotNull Tokenizer tokenizer) {
+      this.index = tokenizer.index;
+      this.line = tokenizer.line;
+      this.lineStart = tokenizer.lineStart;
+      this.lastIndex = tokenizer.lastIndex;
+      this.lastLine = tokenizer.lastLine;
+      this.lastLineStart = tokenizer.lastLineStart;
+      this.startIndex = tokenizer.startIndex;
+      this.startLine = tokenizer.startLine;
+      this.startLineStart = tokenizer.startLineStart;
+      this.lookahead = tokenizer.lookahead;
+      this.hasLineTerminatorBeforeNext = tokenizer.hasLineTerminatorBeforeNext;
+      this.strict = tokenizer.strict;
+      this.prevToken = tokenizer.prevToken;
+      this.prevType = tokenizer.prevType;
+      this.curlyCheckToken = tokenizer.curlyCheckToken;
+      this.funcCheckToken = tokenizer.funcCheckToken;
+      this.parenCheckToken = tokenizer.parenCheckToken;
+    }
+  }
 
-    token.leadingWhitespace = this.lastWhitespace;
+  // Starts over at the beginning of source, keeping the buffers grown while scanning earlier sources.
+  void reset(@NotNull CharSequence source) throws JsError {
+    this.source = source;
+    this.strict = false;
     this.collectingToken = false;
-    return token;
+    this.index = this.line = this.lineStart = 0;
+    this.lastIndex = this.lastLine = this.lastLineStart = 0;
+    this.prevToken = null;
+    this.prevType = null;
+    this.curlyCheckToken = this.funcCheckToken = this.parenCheckToken = null;
+    if (this.tokenString.capacity() > MAX_RETAINED_TOKEN_STRING) {
+      this.tokenString = new StringBuilder();
+    }
+    if (this.lineStarts.length > MAX_RETAINED_LINE_STARTS) {
+      this.lineStarts = new int[64];
+    }
+    this.lineCount = 1;
+    this.firstLine = 0;
+    this.lineStarts[0] = 0;
+    this.lookahead = this.collectToken();
+    this.hasLineTerminatorBeforeNext = false;
   }
 
   @NotNull
@@ -1428,20 +1464,12 @@ public class Tokenizer {
       return this.prevToken;
     }
 
-    Token prevToken2 = this.prevToken;
+    TokenType prevType2 = this.prevType;
     this.prevToken = this.lookahead;
+    this.prevType = this.lookahead.type;
     this.hasLineTerminatorBeforeNext = false;
     this.lookahead = this.collectToken();
-
-    if (prevToken2 != null) {
-      if (this.prevToken.type == TokenType.LPAREN) {
-        this.parenCheckToken = prevToken2.type;
-      } else if (this.prevToken.type == TokenType.FUNCTION) {
-        this.funcCheckToken = prevToken2.type;
-      } else if (this.prevToken.type == TokenType.LBRACE) {
-        this.curlyCheckToken = prevToken2.type;
-      }
-    }
+    this.updateCheckTokens(prevType2);
     return this.prevToken;
   }
 }
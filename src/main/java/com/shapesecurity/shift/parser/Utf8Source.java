@@ -0,0 +1,102 @@
+/*
+ * Copyright 2014 Shape Security, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.shapesecurity.shift.parser;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.jetbrains.annotations.NotNull;
+
+// Presents UTF-8 encoded bytes to the tokenizer as characters.
+final class Utf8Source {
+  private static final long HIGH_BITS = 0x8080808080808080L;
+
+  // static only
+  private Utf8Source() {
+  }
+
+  // Pure ASCII input is viewed in place, one byte per char, so that character offsets equal byte offsets and
+  // nothing is copied. Anything else is decoded once into a char buffer.
+  @NotNull
+  static CharSequence of(@NotNull ByteBuffer bytes) {
+    if (isAscii(bytes, bytes.position(), bytes.limit())) {
+      return new AsciiView(bytes, bytes.position(), bytes.remaining());
+    }
+    return StandardCharsets.UTF_8.decode(bytes.duplicate());
+  }
+
+  private static boolean isAscii(@NotNull ByteBuffer bytes, int start, int end) {
+    int i = start;
+    // Test eight bytes at a time for a set high bit.
+    for (; i + 8 <= end; i += 8) {
+      if ((bytes.getLong(i) & HIGH_BITS) != 0) {
+        return false;
+      }
+    }
+    for (; i < end; i++) {
+      if (bytes.get(i) < 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static final class AsciiView implements CharSequence {
+    @NotNull
+    private final ByteBuffer bytes;
+    private final int offset;
+    private final int length;
+
+    AsciiView(@NotNull ByteBuffer bytes, int offset, int length) {
+      this.bytes = bytes;
+      this.offset = offset;
+      this.length = length;
+    }
+
+    @Override
+    public int length() {
+      return this.length;
+    }
+
+    @Override
+    public char charAt(int index) {
+      if (index < 0 || index >= this.length) {
+        throw new IndexOutOfBoundsException();
+      }
+      return (char) this.bytes.get(this.offset + index);
+    }
+
+    @NotNull
+    @Override
+    public CharSequence subSequence(int start, int end) {
+      if (start < 0 || end > this.length || start > end) {
+        throw new IndexOutOfBoundsException();
+      }
+      return new AsciiView(this.bytes, this.offset + start, end - start);
+    }
+
+    @NotNull
+    @Override
+    public String toString() {
+      byte[] chars = new byte[this.length];
+      ByteBuffer view = this.bytes.duplicate();
+      view.position(this.offset);
+      view.get(chars);
+      return new String(chars, StandardCharsets.US_ASCII);
+    }
+  }
+}
@@ -19,20 +19,38 @@ package com.shapesecurity.shift.parser.token;
 import com.shapesecurity.shift.parser.SourceRange;
 import com.shapesecurity.shift.parser.Token;
 import com.shapesecurity.shift.parser.TokenType;
+import com.shapesecurity.shift.utils.Utils;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public class StringLiteralToken extends Token {
-  private final String value;
+  // Decoded from the slice on first use if not given.
+  @Nullable
+  private String value;
 
   public StringLiteralToken(@NotNull SourceRange slice, @NotNull String value, boolean octal) {
     super(TokenType.STRING, slice, octal);
     this.value = value;
   }
 
+  public StringLiteralToken(@NotNull SourceRange slice, boolean octal) {
+    super(TokenType.STRING, slice, octal);
+    this.value = null;
+  }
+
+  /** Whether the value is known, rather than still to be decoded from the slice. */
+  public boolean isDecoded() {
+    return this.value != null;
+  }
+
   @NotNull
   @Override
   public String getValueString() {
-    return this.value;
+    String value = this.value;
+    if (value == null) {
+      value = this.value = Utils.unescapeStringLiteral(this.slice);
+    }
+    return value;
   }
 }
@@ -23,10 +23,12 @@ import com.shapesecurity.shift.ast.EitherNode;
 import com.shapesecurity.shift.ast.ListNode;
 import com.shapesecurity.shift.ast.MaybeNode;
 import com.shapesecurity.shift.ast.Node;
+import com.shapesecurity.shift.ast.NonEmptyListNode;
 import com.shapesecurity.shift.ast.types.EitherType;
 import com.shapesecurity.shift.ast.types.GenType;
 import com.shapesecurity.shift.ast.types.ListType;
 import com.shapesecurity.shift.ast.types.MaybeType;
+import com.shapesecurity.shift.ast.types.Type;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -51,4 +53,20 @@ public interface Branch {
       return (Node) obj;
     }
   }
+
+  @NotNull
+  static Object unwrap(@NotNull Node node) {
+    switch (Type.fromTag(node.tag())) {
+    case Either:
+      return ((EitherNode) node).either;
+    case List:
+      return ((ListNode) node).list;
+    case Maybe:
+      return ((MaybeNode) node).maybe;
+    case NonEmptyList:
+      return ((NonEmptyListNode) node).list;
+    default:
+      return node;
+    }
+  }
 }
@@ -21,6 +21,7 @@ import com.shapesecurity.functional.data.NonEmptyList;
 import com.shapesecurity.shift.ast.ListNode;
 import com.shapesecurity.shift.ast.Node;
 import com.shapesecurity.shift.ast.NonEmptyListNode;
+import com.shapesecurity.shift.ast.types.Type;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -63,14 +64,16 @@ public final class IndexedBranch implements Branch {
   @Nullable
   @Override
   public Node view(@NotNull Node parent) {
-    if (parent instanceof ListNode) {
+    switch (Type.fromTag(parent.tag())) {
+    case List: {
       ListNode<Object> listNode = (ListNode<Object>) parent;
       Object node = listNode.list.index(this.index).toNullable();
       if (node == null) {
         return null;
       }
       return Branch.wrap(node, listNode.genType.elementType);
-    } else if (parent instanceof NonEmptyListNode) {
+    }
+    case NonEmptyList: {
       NonEmptyListNode<Object> listNode = (NonEmptyListNode<Object>) parent;
       Object node = listNode.list.index(this.index).toNullable();
       if (node == null) {
@@ -78,31 +81,38 @@ public final class IndexedBranch implements Branch {
       }
       return Branch.wrap(node, listNode.genType.elementType);
     }
-    return null;
+    default:
+      return null;
+    }
   }
 
   @SuppressWarnings("unchecked")
   @NotNull
   @Override
   public Node set(@NotNull Node parent, @NotNull Node child) {
-    if (parent instanceof ListNode) {
-      ListNode<Node> list = (ListNode<Node>) parent;
+    switch (Type.fromTag(parent.tag())) {
+    case List: {
+      ListNode<Object> list = (ListNode<Object>) parent;
       if (list.genType.elementType.isAssignableFrom(child.genType())) {
         if (this.index <= list.list.length) {
           return new ListNode<>(
-              list.list.patch(this.index, 1, List.list(child)),
+              list.list.patch(this.index, 1, List.list(Branch.unwrap(child))),
               list.genType);
         }
       }
-    } else if (parent instanceof NonEmptyListNode) {
-      NonEmptyListNode<Node> list = (NonEmptyListNode<Node>) parent;
+      break;
+    }
+    case NonEmptyList: {
+      NonEmptyListNode<Object> list = (NonEmptyListNode<Object>) parent;
       if (list.genType.elementType.isAssignableFrom(child.genType())) {
         if (this.index <= list.list.length) {
           return new NonEmptyListNode<>(
-              (NonEmptyList<Node>) list.list.patch(this.index, 1, List.list(child)),
+              (NonEmptyList<Object>) list.list.patch(this.index, 1, List.list(Branch.unwrap(child))),
               list.genType);
         }
       }
+      break;
+    }
     }
     return parent;
   }
@@ -104,6 +104,7 @@ import com.shapesecurity.shift.ast.EitherNode;
 import com.shapesecurity.shift.ast.MaybeNode;
 import com.shapesecurity.shift.ast.Node;
 import com.shapesecurity.shift.ast.types.MaybeType;
+import com.shapesecurity.shift.ast.types.Type;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -166,7 +167,7 @@ public enum StaticBranch implements Branch {
     public Node set(@NotNull Node parent, @NotNull Node child) {
       if (parent instanceof MaybeNode) {
         MaybeType type = (MaybeType) parent.genType();
-        if (((MaybeNode) parent).maybe.isJust() && type.isAssignableFrom(child.genType())) {
+        if (((MaybeNode) parent).maybe.isJust() && type.elementType.isAssignableFrom(child.genType())) {
           return new MaybeNode<>(Maybe.just(child), type);
         }
       }
@@ -250,29 +251,38 @@ public enum StaticBranch implements Branch {
   UPDATE(ForStatement_update),
   VALUE(DataProperty_value);
 
+  // The typed branch for each type of parent, indexed by Node.tag().
   @NotNull
-  private final TypedBranch[] typedBranches;
+  private final TypedBranch<?, ?>[] typedBranches = new TypedBranch<?, ?>[Type.values().length];
 
-  private StaticBranch(@NotNull TypedBranch... typedBranches) {
-    this.typedBranches = typedBranches;
+  private StaticBranch(@NotNull TypedBranch<?, ?>... typedBranches) {
+    for (TypedBranch<?, ?> typedBranch : typedBranches) {
+      for (Type type : Type.values()) {
+        if (this.typedBranches[type.ordinal()] == null && typedBranch.isValidParent(type)) {
+          this.typedBranches[type.ordinal()] = typedBranch;
+        }
+      }
+    }
+  }
+
+  // The branch for parents of the type of parent, which accepts parent although the array cannot say so.
+  @SuppressWarnings("unchecked")
+  @Nullable
+  private TypedBranch<Node, Node> typedBranch(@NotNull Node parent) {
+    return (TypedBranch<Node, Node>) this.typedBranches[parent.tag()];
   }
 
   @Nullable
   public Node view(@NotNull Node parent) {
-    for (TypedBranch typedBranch : typedBranches) {
-      if (typedBranch.isValidParent(parent.genType())) {
-        return typedBranch.view(parent);
-      }
-    }
-    return null;
+    TypedBranch<Node, Node> typedBranch = this.typedBranch(parent);
+    return typedBranch == null ? null : typedBranch.view(parent);
   }
 
   @NotNull
   public Node set(@NotNull Node parent, @NotNull Node child) {
-    for (TypedBranch typedBranch : typedBranches) {
-      if (typedBranch.isValidParent(parent.genType()) && typedBranch.isValidChild(parent.genType(), child.genType())) {
-        return typedBranch.set(parent, child);
-      }
+    TypedBranch<Node, Node> typedBranch = this.typedBranch(parent);
+    if (typedBranch != null && typedBranch.isValidChild(parent.genType(), child.genType())) {
+      return typedBranch.set(parent, child);
     }
     return parent;
   }
@@ -238,7 +238,7 @@ class TypedBranches {
   public static final TypedBranch<IfStatement, MaybeNode<Statement>> IfStatement_alternate =
       defm(
           Type.IfStatement,
-          MaybeType.STATEMENT,
+          Type.Statement,
           IfStatement::getAlternate,
           IfStatement::setAlternate);
 
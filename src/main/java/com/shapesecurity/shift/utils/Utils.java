@@ -18,6 +18,7 @@ package com.shapesecurity.shift.utils;
 
 import com.shapesecurity.functional.data.List;
 import com.shapesecurity.shift.ast.Identifier;
+import com.shapesecurity.shift.parser.Keywords;
 
 import java.util.HashSet;
 
@@ -57,7 +58,7 @@ public final class Utils {
   }
 
   public static boolean isRestrictedWord(@NotNull String name) {
-    return "eval".equals(name) || "arguments".equals(name);
+    return Keywords.isRestrictedWord(name);
   }
 
   public static boolean isValidIdentifierName(@NotNull String name) {
@@ -134,61 +135,109 @@ public final class Utils {
     return result.toString();
   }
 
-  public static boolean isReservedWordES5(@NotNull String word) {
-    switch (word) {
-    case "break":
-    case "case":
-    case "catch":
-    case "class":
-    case "const":
-    case "continue":
-    case "debugger":
-    case "default":
-    case "delete":
-    case "do":
-    case "else":
-    case "enum":
-    case "export":
-    case "extends":
-    case "finally":
-    case "for":
-    case "function":
-    case "if":
-    case "import":
-    case "in":
-    case "instanceof":
-    case "new":
-    case "return":
-    case "super":
-    case "switch":
-    case "this":
-    case "throw":
-    case "try":
-    case "typeof":
-    case "var":
-    case "void":
-    case "while":
-    case "with":
-      return true;
-    default:
-      return false;
+  /**
+   * The value of a string literal, given its source text with its quotes. The text must be that of a valid literal.
+   */
+  @NotNull
+  public static String unescapeStringLiteral(@NotNull CharSequence literal) {
+    int end = literal.length() - 1;
+    int i = 1;
+    while (i < end && literal.charAt(i) != '\\') {
+      i++;
+    }
+    if (i == end) {
+      return literal.subSequence(1, end).toString();
+    }
+    StringBuilder result = new StringBuilder(end - 1);
+    result.append(literal, 1, i);
+    while (i < end) {
+      char ch = literal.charAt(i++);
+      if (ch != '\\') {
+        result.append(ch);
+        continue;
+      }
+      ch = literal.charAt(i++);
+      switch (ch) {
+      case 'n':
+        result.append('\n');
+        break;
+      case 'r':
+        result.append('\r');
+        break;
+      case 't':
+        result.append('\t');
+        break;
+      case 'u':
+      case 'x':
+        int digits = ch == 'u' ? 4 : 2;
+        int value = i + digits <= end ? hexValue(literal, i, digits) : -1;
+        if (value >= 0) {
+          result.append((char) value);
+          i += digits;
+        } else {
+          result.append(ch);
+        }
+        break;
+      case 'b':
+        result.append('\b');
+        break;
+      case 'f':
+        result.append('\f');
+        break;
+      case 'v':
+        result.append('\u000B');
+        break;
+      case '\r':
+        // A line continuation.
+        if (i < end && literal.charAt(i) == '\n') {
+          i++;
+        }
+        break;
+      case '\n':
+      case '\u2028':
+      case '\u2029':
+        break;
+      default:
+        if ('0' <= ch && ch <= '7') {
+          // 3 digits are only allowed when the escape starts with 0, 1, 2 or 3.
+          int maxLength = ch <= '3' ? 3 : 2;
+          int code = ch - '0';
+          for (int length = 1; length < maxLength && i < end; length++) {
+            char digit = literal.charAt(i);
+            if (digit < '0' || digit > '7') {
+              break;
+            }
+            code = code * 8 + (digit - '0');
+            i++;
+          }
+          result.append((char) code);
+        } else {
+          result.append(ch);
+        }
+      }
     }
+    return result.toString();
   }
 
-  public static boolean isStrictModeReservedWordES5(@NotNull String word) {
-    switch (word) {
-    case "implements":
-    case "interface":
-    case "package":
-    case "protected":
-    case "public":
-    case "static":
-    case "let":
-    case "yield":
-      return true;
-    default:
-      return isReservedWordES5(word);
+  // The value of the given number of hexadecimal digits at start, or -1 if they are not all hexadecimal digits.
+  private static int hexValue(@NotNull CharSequence chars, int start, int digits) {
+    int value = 0;
+    for (int i = start; i < start + digits; i++) {
+      int digit = getHexValue(chars.charAt(i));
+      if (digit == -1) {
+        return -1;
+      }
+      value = value << 4 | digit;
     }
+    return value;
+  }
+
+  public static boolean isReservedWordES5(@NotNull String word) {
+    return Keywords.isReservedWord(word);
+  }
+
+  public static boolean isStrictModeReservedWordES5(@NotNull String word) {
+    return Keywords.isStrictModeReservedWord(word);
   }
 
   public static boolean isDecimalDigit(char ch) {
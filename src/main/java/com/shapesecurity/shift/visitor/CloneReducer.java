@@ -26,6 +26,8 @@ import com.shapesecurity.shift.ast.Directive;
 import com.shapesecurity.shift.ast.Expression;
 import com.shapesecurity.shift.ast.FunctionBody;
 import com.shapesecurity.shift.ast.Identifier;
+import com.shapesecurity.shift.ast.Node;
+import com.shapesecurity.shift.ast.NodeInterner;
 import com.shapesecurity.shift.ast.Script;
 import com.shapesecurity.shift.ast.Statement;
 import com.shapesecurity.shift.ast.SwitchCase;
@@ -80,27 +82,48 @@ import com.shapesecurity.shift.ast.statement.TryFinallyStatement;
 import com.shapesecurity.shift.ast.statement.VariableDeclarationStatement;
 import com.shapesecurity.shift.ast.statement.WhileStatement;
 import com.shapesecurity.shift.ast.statement.WithStatement;
+import com.shapesecurity.shift.parser.SourceRange;
 import com.shapesecurity.shift.path.Branch;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public class CloneReducer
     implements ReducerP<Script, FunctionBody, ObjectProperty, PropertyName, Identifier, Expression, Directive, Statement, Block, VariableDeclarator, VariableDeclaration, SwitchCase, SwitchDefault, CatchClause> {
   public static final CloneReducer INSTANCE = new CloneReducer();
 
+  @Nullable
+  private final NodeInterner interner;
+
   protected CloneReducer() {
+    this.interner = null;
+  }
+
+  protected CloneReducer(@NotNull NodeInterner interner) {
+    this.interner = interner;
+  }
+
+  /** A cloner whose copies are hash-consed in {@code interner}, sharing every repeated subtree. */
+  @NotNull
+  public static CloneReducer interning(@NotNull NodeInterner interner) {
+    return new CloneReducer(interner);
+  }
+
+  @NotNull
+  private <T extends Node> T make(@NotNull T node) {
+    return this.interner == null ? node : this.interner.intern(node);
   }
 
   @NotNull
   @Override
   public Script reduceScript(@NotNull Script node, @NotNull List<Branch> path, @NotNull FunctionBody body) {
-    return new Script(body);
+    return this.make(new Script(body));
   }
 
   @NotNull
   @Override
   public Identifier reduceIdentifier(@NotNull Identifier node, @NotNull List<Branch> path) {
-    return new Identifier(node.name);
+    return this.make(new Identifier(node.name));
   }
 
   @NotNull
@@ -109,50 +132,56 @@ public class CloneReducer
       @NotNull IdentifierExpression node,
       @NotNull List<Branch> path,
       @NotNull Identifier identifier) {
-    return new IdentifierExpression(identifier);
+    return this.make(new IdentifierExpression(identifier));
   }
 
   @NotNull
   @Override
   public Expression reduceThisExpression(@NotNull ThisExpression node, @NotNull List<Branch> path) {
-    return new ThisExpression();
+    return this.make(new ThisExpression());
   }
 
   @NotNull
   @Override
   public Expression reduceLiteralBooleanExpression(@NotNull LiteralBooleanExpression node, @NotNull List<Branch> path) {
-    return new LiteralBooleanExpression(node.value);
+    return this.make(new LiteralBooleanExpression(node.value));
   }
 
   @NotNull
   @Override
   public Expression reduceLiteralStringExpression(@NotNull LiteralStringExpression node, @NotNull List<Branch> path) {
-    return new LiteralStringExpression(node.value);
+    SourceRange raw = node.getRaw();
+    if (raw == null) {
+      return this.make(new LiteralStringExpression(node.getValue()));
+    }
+    return this.make(node.value == null ?
+        new LiteralStringExpression(raw) :
+        new LiteralStringExpression(node.value, raw));
   }
 
   @NotNull
   @Override
   public Expression reduceLiteralRegExpExpression(@NotNull LiteralRegExpExpression node, @NotNull List<Branch> path) {
-    return new LiteralRegExpExpression(node.value);
+    return this.make(new LiteralRegExpExpression(node.value));
   }
 
   @NotNull
   @Override
   public Expression reduceLiteralNumericExpression(@NotNull LiteralNumericExpression node, @NotNull List<Branch> path) {
-    return new LiteralNumericExpression(node.value);
+    return this.make(new LiteralNumericExpression(node.value));
   }
 
   @NotNull
   @Override
   public Expression reduceLiteralInfinityExpression(@NotNull LiteralInfinityExpression node,
                                                     @NotNull List<Branch> path) {
-    return new LiteralInfinityExpression();
+    return this.make(new LiteralInfinityExpression());
   }
 
   @NotNull
   @Override
   public Expression reduceLiteralNullExpression(@NotNull LiteralNullExpression node, @NotNull List<Branch> path) {
-    return new LiteralNullExpression();
+    return this.make(new LiteralNullExpression());
   }
 
   @NotNull
@@ -163,7 +192,7 @@ public class CloneReducer
       @NotNull Maybe<Identifier> name,
       @NotNull List<Identifier> parameters,
       @NotNull FunctionBody body) {
-    return new FunctionExpression(name, parameters, body);
+    return this.make(new FunctionExpression(name, parameters, body));
   }
 
   @NotNull
@@ -173,7 +202,7 @@ public class CloneReducer
       @NotNull List<Branch> path,
       @NotNull Expression object,
       @NotNull Identifier property) {
-    return new StaticMemberExpression(object, property);
+    return this.make(new StaticMemberExpression(object, property));
   }
 
   @NotNull
@@ -183,7 +212,7 @@ public class CloneReducer
       @NotNull List<Branch> path,
       @NotNull Expression object,
       @NotNull Expression expression) {
-    return new ComputedMemberExpression(object, expression);
+    return this.make(new ComputedMemberExpression(object, expression));
   }
 
   @NotNull
@@ -192,7 +221,7 @@ public class CloneReducer
       @NotNull ObjectExpression node,
       @NotNull List<Branch> path,
       @NotNull List<ObjectProperty> properties) {
-    return new ObjectExpression(properties);
+    return this.make(new ObjectExpression(properties));
   }
 
   @NotNull
@@ -202,7 +231,7 @@ public class CloneReducer
       @NotNull List<Branch> path,
       @NotNull Expression left,
       @NotNull Expression right) {
-    return new BinaryExpression(node.operator, left, right);
+    return this.make(new BinaryExpression(node.operator, left, right));
   }
 
   @NotNull
@@ -212,7 +241,7 @@ public class CloneReducer
       @NotNull List<Branch> path,
       @NotNull Expression binding,
       @NotNull Expression expression) {
-    return new AssignmentExpression(node.operator, binding, expression);
+    return this.make(new AssignmentExpression(node.operator, binding, expression));
   }
 
   @NotNull
@@ -221,7 +250,7 @@ public class CloneReducer
       @NotNull ArrayExpression node,
       @NotNull List<Branch> path,
       @NotNull List<Maybe<Expression>> elements) {
-    return new ArrayExpression(elements);
+    return this.make(new ArrayExpression(elements));
   }
 
   @NotNull
@@ -231,7 +260,7 @@ public class CloneReducer
       @NotNull List<Branch> path,
       @NotNull Expression callee,
       @NotNull List<Expression> arguments) {
-    return new NewExpression(callee, arguments);
+    return this.make(new NewExpression(callee, arguments));
   }
 
   @NotNull
@@ -241,7 +270,7 @@ public class CloneReducer
       @NotNull List<Branch> path,
       @NotNull Expression callee,
       @NotNull List<Expression> arguments) {
-    return new CallExpression(callee, arguments);
+    return this.make(new CallExpression(callee, arguments));
   }
 
   @NotNull
@@ -250,7 +279,7 @@ public class CloneReducer
       @NotNull PostfixExpression node,
       @NotNull List<Branch> path,
       @NotNull Expression operand) {
-    return new PostfixExpression(node.operator, operand);
+    return this.make(new PostfixExpression(node.operator, operand));
   }
 
   @NotNull
@@ -259,7 +288,7 @@ public class CloneReducer
       @NotNull PrefixExpression node,
       @NotNull List<Branch> path,
       @NotNull Expression operand) {
-    return new PrefixExpression(node.operator, operand);
+    return this.make(new PrefixExpression(node.operator, operand));
   }
 
   @NotNull
@@ -270,7 +299,7 @@ public class CloneReducer
       @NotNull Expression test,
       @NotNull Expression consequent,
       @NotNull Expression alternate) {
-    return new ConditionalExpression(test, consequent, alternate);
+    return this.make(new ConditionalExpression(test, consequent, alternate));
   }
 
   @NotNull
@@ -281,19 +310,19 @@ public class CloneReducer
       @NotNull Identifier name,
       @NotNull List<Identifier> params,
       @NotNull FunctionBody body) {
-    return new FunctionDeclaration(name, params, body);
+    return this.make(new FunctionDeclaration(name, params, body));
   }
 
   @NotNull
   @Override
   public Directive reduceUseStrictDirective(@NotNull UseStrictDirective node, @NotNull List<Branch> path) {
-    return new UseStrictDirective();
+    return this.make(new UseStrictDirective());
   }
 
   @NotNull
   @Override
   public Directive reduceUnknownDirective(@NotNull UnknownDirective node, @NotNull List<Branch> path) {
-    return new UnknownDirective(node.value);
+    return this.make(new UnknownDirective(node.value));
   }
 
   @NotNull
@@ -302,7 +331,7 @@ public class CloneReducer
       @NotNull BlockStatement node,
       @NotNull List<Branch> path,
       @NotNull Block block) {
-    return new BlockStatement(block);
+    return this.make(new BlockStatement(block));
   }
 
   @NotNull
@@ -311,7 +340,7 @@ public class CloneReducer
       @NotNull BreakStatement node,
       @NotNull List<Branch> path,
       @NotNull Maybe<Identifier> label) {
-    return new BreakStatement(label);
+    return this.make(new BreakStatement(label));
   }
 
   @NotNull
@@ -321,7 +350,7 @@ public class CloneReducer
       @NotNull List<Branch> path,
       @NotNull Identifier binding,
       @NotNull Block body) {
-    return new CatchClause(binding, body);
+    return this.make(new CatchClause(binding, body));
   }
 
   @NotNull
@@ -330,13 +359,13 @@ public class CloneReducer
       @NotNull ContinueStatement node,
       @NotNull List<Branch> path,
       @NotNull Maybe<Identifier> label) {
-    return new ContinueStatement(label);
+    return this.make(new ContinueStatement(label));
   }
 
   @NotNull
   @Override
   public Statement reduceDebuggerStatement(@NotNull DebuggerStatement node, @NotNull List<Branch> path) {
-    return new DebuggerStatement();
+    return this.make(new DebuggerStatement());
   }
 
   @NotNull
@@ -346,13 +375,13 @@ public class CloneReducer
       @NotNull List<Branch> path,
       @NotNull Statement body,
       @NotNull Expression test) {
-    return new DoWhileStatement(body, test);
+    return this.make(new DoWhileStatement(body, test));
   }
 
   @NotNull
   @Override
   public Statement reduceEmptyStatement(@NotNull EmptyStatement node, @NotNull List<Branch> path) {
-    return new EmptyStatement();
+    return this.make(new EmptyStatement());
   }
 
   @NotNull
@@ -361,7 +390,7 @@ public class CloneReducer
       @NotNull ExpressionStatement node,
       @NotNull List<Branch> path,
       @NotNull Expression expression) {
-    return new ExpressionStatement(expression);
+    return this.make(new ExpressionStatement(expression));
   }
 
   @NotNull
@@ -372,7 +401,7 @@ public class CloneReducer
       @NotNull Either<VariableDeclaration, Expression> left,
       @NotNull Expression right,
       @NotNull Statement body) {
-    return new ForInStatement(left, right, body);
+    return this.make(new ForInStatement(left, right, body));
   }
 
   @NotNull
@@ -384,7 +413,7 @@ public class CloneReducer
       @NotNull Maybe<Expression> test,
       @NotNull Maybe<Expression> update,
       @NotNull Statement body) {
-    return new ForStatement(init, test, update, body);
+    return this.make(new ForStatement(init, test, update, body));
   }
 
   @NotNull
@@ -395,7 +424,7 @@ public class CloneReducer
       @NotNull Expression test,
       @NotNull Statement consequent,
       @NotNull Maybe<Statement> alternate) {
-    return new IfStatement(test, consequent, alternate);
+    return this.make(new IfStatement(test, consequent, alternate));
   }
 
   @NotNull
@@ -405,7 +434,7 @@ public class CloneReducer
       @NotNull List<Branch> path,
       @NotNull Identifier label,
       @NotNull Statement body) {
-    return new LabeledStatement(label, body);
+    return this.make(new LabeledStatement(label, body));
   }
 
   @NotNull
@@ -414,7 +443,7 @@ public class CloneReducer
       @NotNull ReturnStatement node,
       @NotNull List<Branch> path,
       @NotNull Maybe<Expression> expression) {
-    return new ReturnStatement(expression);
+    return this.make(new ReturnStatement(expression));
   }
 
   @NotNull
@@ -424,7 +453,7 @@ public class CloneReducer
       @NotNull List<Branch> path,
       @NotNull Expression test,
       @NotNull List<Statement> consequent) {
-    return new SwitchCase(test, consequent);
+    return this.make(new SwitchCase(test, consequent));
   }
 
   @NotNull
@@ -433,7 +462,7 @@ public class CloneReducer
       @NotNull SwitchDefault node,
       @NotNull List<Branch> path,
       @NotNull List<Statement> consequent) {
-    return new SwitchDefault(consequent);
+    return this.make(new SwitchDefault(consequent));
   }
 
   @NotNull
@@ -443,7 +472,7 @@ public class CloneReducer
       @NotNull List<Branch> path,
       @NotNull Expression discriminant,
       @NotNull List<SwitchCase> cases) {
-    return new SwitchStatement(discriminant, cases);
+    return this.make(new SwitchStatement(discriminant, cases));
   }
 
   @NotNull
@@ -455,7 +484,7 @@ public class CloneReducer
       @NotNull List<SwitchCase> preDefaultCases,
       @NotNull SwitchDefault defaultCase,
       @NotNull List<SwitchCase> postDefaultCases) {
-    return new SwitchStatementWithDefault(discriminant, preDefaultCases, defaultCase, postDefaultCases);
+    return this.make(new SwitchStatementWithDefault(discriminant, preDefaultCases, defaultCase, postDefaultCases));
   }
 
   @NotNull
@@ -464,7 +493,7 @@ public class CloneReducer
       @NotNull ThrowStatement node,
       @NotNull List<Branch> path,
       @NotNull Expression expression) {
-    return new ThrowStatement(expression);
+    return this.make(new ThrowStatement(expression));
   }
 
   @NotNull
@@ -474,7 +503,7 @@ public class CloneReducer
       @NotNull List<Branch> path,
       @NotNull Block block,
       @NotNull CatchClause catchClause) {
-    return new TryCatchStatement(block, catchClause);
+    return this.make(new TryCatchStatement(block, catchClause));
   }
 
   @NotNull
@@ -485,7 +514,7 @@ public class CloneReducer
       @NotNull Block block,
       @NotNull Maybe<CatchClause> catchClause,
       @NotNull Block finalizer) {
-    return new TryFinallyStatement(block, catchClause, finalizer);
+    return this.make(new TryFinallyStatement(block, catchClause, finalizer));
   }
 
   @NotNull
@@ -494,7 +523,7 @@ public class CloneReducer
       @NotNull VariableDeclarationStatement node,
       @NotNull List<Branch> path,
       @NotNull VariableDeclaration declaration) {
-    return new VariableDeclarationStatement(declaration);
+    return this.make(new VariableDeclarationStatement(declaration));
   }
 
   @NotNull
@@ -503,7 +532,7 @@ public class CloneReducer
       @NotNull VariableDeclaration node,
       @NotNull List<Branch> path,
       @NotNull NonEmptyList<VariableDeclarator> declarators) {
-    return new VariableDeclaration(node.kind, declarators);
+    return this.make(new VariableDeclaration(node.kind, declarators));
   }
 
   @NotNull
@@ -513,7 +542,7 @@ public class CloneReducer
       @NotNull List<Branch> path,
       @NotNull Expression test,
       @NotNull Statement body) {
-    return new WhileStatement(test, body);
+    return this.make(new WhileStatement(test, body));
   }
 
   @NotNull
@@ -523,7 +552,7 @@ public class CloneReducer
       @NotNull List<Branch> path,
       @NotNull Expression object,
       @NotNull Statement body) {
-    return new WithStatement(object, body);
+    return this.make(new WithStatement(object, body));
   }
 
   @NotNull
@@ -533,7 +562,7 @@ public class CloneReducer
       @NotNull List<Branch> path,
       @NotNull PropertyName name,
       @NotNull Expression value) {
-    return new DataProperty(name, value);
+    return this.make(new DataProperty(name, value));
   }
 
   @NotNull
@@ -543,7 +572,7 @@ public class CloneReducer
       @NotNull List<Branch> path,
       @NotNull PropertyName name,
       @NotNull FunctionBody body) {
-    return new Getter(name, body);
+    return this.make(new Getter(name, body));
   }
 
   @NotNull
@@ -554,13 +583,13 @@ public class CloneReducer
       @NotNull PropertyName name,
       @NotNull Identifier parameter,
       @NotNull FunctionBody body) {
-    return new Setter(name, parameter, body);
+    return this.make(new Setter(name, parameter, body));
   }
 
   @NotNull
   @Override
   public PropertyName reducePropertyName(@NotNull PropertyName node, @NotNull List<Branch> path) {
-    return new PropertyName(node);
+    return this.make(new PropertyName(node));
   }
 
   @NotNull
@@ -570,7 +599,7 @@ public class CloneReducer
       @NotNull List<Branch> path,
       @NotNull List<Directive> directives,
       @NotNull List<Statement> statements) {
-    return new FunctionBody(directives, statements);
+    return this.make(new FunctionBody(directives, statements));
   }
 
   @NotNull
@@ -580,12 +609,12 @@ public class CloneReducer
       @NotNull List<Branch> path,
       @NotNull Identifier binding,
       @NotNull Maybe<Expression> init) {
-    return new VariableDeclarator(binding, init);
+    return this.make(new VariableDeclarator(binding, init));
   }
 
   @NotNull
   @Override
   public Block reduceBlock(@NotNull Block node, @NotNull List<Branch> path, @NotNull List<Statement> statements) {
-    return new Block(statements);
+    return this.make(new Block(statements));
   }
 }
@@ -82,6 +82,7 @@ import com.shapesecurity.shift.ast.statement.TryFinallyStatement;
 import com.shapesecurity.shift.ast.statement.VariableDeclarationStatement;
 import com.shapesecurity.shift.ast.statement.WhileStatement;
 import com.shapesecurity.shift.ast.statement.WithStatement;
+import com.shapesecurity.shift.ast.types.Type;
 import com.shapesecurity.shift.path.Branch;
 import com.shapesecurity.shift.path.IndexedBranch;
 import com.shapesecurity.shift.path.StaticBranch;
@@ -96,35 +97,78 @@ public final class Director {
 
   @NotNull
   public static <State> State reduce(@NotNull Reducer<State> reducer, @NotNull Node node, @NotNull List<Branch> path) {
-    if (node instanceof Script) {
+    switch (Type.fromTag(node.tag())) {
+    case Script:
       return reduceScript(reducer, (Script) node, path);
-    } else if (node instanceof FunctionBody) {
+    case FunctionBody:
       return reduceFunctionBody(reducer, (FunctionBody) node, path);
-    } else if (node instanceof ObjectProperty) {
+    case DataProperty:
+    case Getter:
+    case Setter:
       return reduceObjectProperty(reducer, (ObjectProperty) node, path);
-    } else if (node instanceof PropertyName) {
+    case PropertyName:
       return reducePropertyName(reducer, (PropertyName) node, path);
-    } else if (node instanceof Identifier) {
+    case Identifier:
       return reduceIdentifier(reducer, (Identifier) node, path);
-    } else if (node instanceof Expression) {
+    case FunctionExpression:
+    case ObjectExpression:
+    case LiteralBooleanExpression:
+    case LiteralNullExpression:
+    case LiteralInfinityExpression:
+    case LiteralNumericExpression:
+    case LiteralRegExpExpression:
+    case LiteralStringExpression:
+    case ArrayExpression:
+    case AssignmentExpression:
+    case BinaryExpression:
+    case CallExpression:
+    case ComputedMemberExpression:
+    case ConditionalExpression:
+    case IdentifierExpression:
+    case NewExpression:
+    case PostfixExpression:
+    case PrefixExpression:
+    case StaticMemberExpression:
+    case ThisExpression:
       return reduceExpression(reducer, (Expression) node, path);
-    } else if (node instanceof Directive) {
+    case UnknownDirective:
+    case UseStrictDirective:
       return reduceDirective(reducer, (Directive) node, path);
-    } else if (node instanceof Statement) {
+    case FunctionDeclaration:
+    case BlockStatement:
+    case BreakStatement:
+    case ContinueStatement:
+    case DebuggerStatement:
+    case DoWhileStatement:
+    case EmptyStatement:
+    case ExpressionStatement:
+    case ForInStatement:
+    case ForStatement:
+    case IfStatement:
+    case LabeledStatement:
+    case ReturnStatement:
+    case SwitchStatement:
+    case SwitchStatementWithDefault:
+    case ThrowStatement:
+    case TryCatchStatement:
+    case TryFinallyStatement:
+    case VariableDeclarationStatement:
+    case WhileStatement:
+    case WithStatement:
       return reduceStatement(reducer, (Statement) node, path);
-    } else if (node instanceof Block) {
+    case Block:
       return reduceBlock(reducer, (Block) node, path);
-    } else if (node instanceof VariableDeclarator) {
+    case VariableDeclarator:
       return reduceVariableDeclarator(reducer, (VariableDeclarator) node, path);
-    } else if (node instanceof VariableDeclaration) {
+    case VariableDeclaration:
       return reduceVariableDeclaration(reducer, (VariableDeclaration) node, path);
-    } else if (node instanceof SwitchCase) {
+    case SwitchCase:
       return reduceSwitchCase(reducer, (SwitchCase) node, path);
-    } else if (node instanceof SwitchDefault) {
+    case SwitchDefault:
       return reduceSwitchDefault(reducer, (SwitchDefault) node, path);
-    } else if (node instanceof CatchClause) {
+    case CatchClause:
       return reduceCatchClause(reducer, (CatchClause) node, path);
-    } else {
+    default:
       throw new RuntimeException("not reached");
     }
   }
@@ -236,8 +280,8 @@ public final class Director {
     return reducer.reduceFunctionBody(
         node,
         path,
-        reducerListDirective(reducer, node.directives, path.cons(StaticBranch.DIRECTIVES)),
-        reduceListStatement(reducer, node.statements, path.cons(StaticBranch.STATEMENTS)));
+        reducerListDirective(reducer, node.getDirectives(), path.cons(StaticBranch.DIRECTIVES)),
+        reduceListStatement(reducer, node.getStatements(), path.cons(StaticBranch.STATEMENTS)));
   }
 
   @NotNull
@@ -247,7 +291,7 @@ public final class Director {
       @NotNull ObjectProperty node,
       @NotNull List<Branch> path) {
     PropertyNameState nameState = reducePropertyName(reducer, node.name, path.cons(StaticBranch.NAME));
-    switch (node.type()) {
+    switch (Type.fromTag(node.tag())) {
     case DataProperty: {
       DataProperty tNode = (DataProperty) node;
       return reducer.reduceDataProperty(
@@ -302,7 +346,7 @@ public final class Director {
       @NotNull ReducerP<ScriptState, ProgramBodyState, PropertyState, PropertyNameState, IdentifierState, ExpressionState, DirectiveState, StatementState, BlockState, DeclaratorState, DeclarationState, SwitchCaseState, SwitchDefaultState, CatchClauseState> reducer,
       @NotNull Expression node,
       @NotNull List<Branch> path) {
-    switch (node.type()) {
+    switch (Type.fromTag(node.tag())) {
     case FunctionExpression: {
       FunctionExpression tNode = (FunctionExpression) node;
       return reducer.reduceFunctionExpression(
@@ -447,7 +491,7 @@ public final class Director {
       @NotNull ReducerP<ScriptState, ProgramBodyState, PropertyState, PropertyNameState, IdentifierState, ExpressionState, DirectiveState, StatementState, BlockState, DeclaratorState, DeclarationState, SwitchCaseState, SwitchDefaultState, CatchClauseState> reducer,
       @NotNull Directive node,
       @NotNull List<Branch> path) {
-    if (node instanceof UseStrictDirective) {
+    if (node.tag() == Type.UseStrictDirective.ordinal()) {
       return reducer.reduceUseStrictDirective(((UseStrictDirective) node), path);
     } else {
       return reducer.reduceUnknownDirective(((UnknownDirective) node), path);
@@ -460,7 +504,7 @@ public final class Director {
       @NotNull ReducerP<ScriptState, ProgramBodyState, PropertyState, PropertyNameState, IdentifierState, ExpressionState, DirectiveState, StatementState, BlockState, DeclaratorState, DeclarationState, SwitchCaseState, SwitchDefaultState, CatchClauseState> reducer,
       @NotNull Statement node,
       @NotNull List<Branch> path) {
-    switch (node.type()) {
+    switch (Type.fromTag(node.tag())) {
     case FunctionDeclaration: {
       FunctionDeclaration tNode = (FunctionDeclaration) node;
       return reducer.reduceFunctionDeclaration(
@@ -27,6 +27,8 @@ import com.shapesecurity.shift.ast.Directive;
 import com.shapesecurity.shift.ast.Expression;
 import com.shapesecurity.shift.ast.FunctionBody;
 import com.shapesecurity.shift.ast.Identifier;
+import com.shapesecurity.shift.ast.Node;
+import com.shapesecurity.shift.ast.NodeInterner;
 import com.shapesecurity.shift.ast.Script;
 import com.shapesecurity.shift.ast.Statement;
 import com.shapesecurity.shift.ast.SwitchCase;
@@ -84,12 +86,30 @@ import com.shapesecurity.shift.ast.statement.WithStatement;
 import com.shapesecurity.shift.path.Branch;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public class LazyCloner
     implements ReducerP<DirtyState<Script>, DirtyState<FunctionBody>, DirtyState<ObjectProperty>, DirtyState<PropertyName>, DirtyState<Identifier>, DirtyState<Expression>, DirtyState<Directive>, DirtyState<Statement>, DirtyState<Block>, DirtyState<VariableDeclarator>, DirtyState<VariableDeclaration>, DirtyState<SwitchCase>, DirtyState<SwitchDefault>, DirtyState<CatchClause>> {
   public static final LazyCloner INSTANCE = new LazyCloner();
 
+  @Nullable
+  private final NodeInterner interner;
+
   protected LazyCloner() {
+    this.interner = null;
+  }
+
+  protected LazyCloner(@NotNull NodeInterner interner) {
+    this.interner = interner;
+  }
+
+  /**
+   * A cloner whose rebuilt nodes are hash-consed in {@code interner}. Unchanged subtrees are kept as they are, so a
+   * tree that was already interned stays interned.
+   */
+  @NotNull
+  public static LazyCloner interning(@NotNull NodeInterner interner) {
+    return new LazyCloner(interner);
   }
 
   private static <T> DirtyState<List<Maybe<T>>> lo(List<Maybe<DirtyState<T>>> elements) {
@@ -109,12 +129,13 @@ public class LazyCloner
     }
   }
 
-  private static <U> DirtyState<U> get(@NotNull U def, @NotNull DirtyState<Thunk<U>> s) {
-    return s.dirty ? dirty(s.node.get()) : clean(def);
+  private <U extends Node> DirtyState<U> get(@NotNull U def, @NotNull DirtyState<Thunk<U>> s) {
+    return s.dirty ? this.dirty(s.node.get()) : clean(def);
   }
 
-  private static <T> DirtyState<T> dirty(@NotNull T node) {
-    return new DirtyState<>(node, true);
+  // A rebuilt node.
+  private <T extends Node> DirtyState<T> dirty(@NotNull T node) {
+    return new DirtyState<>(this.interner == null ? node : this.interner.intern(node), true);
   }
 
   private static <T> DirtyState<T> clean(@NotNull T node) {
@@ -289,7 +310,7 @@ public class LazyCloner
       @NotNull ArrayExpression node,
       @NotNull List<Branch> path,
       @NotNull List<Maybe<DirtyState<Expression>>> elements) {
-    return LazyCloner.get(node, lo(elements).bindLast(ArrayExpression::new));
+    return get(node, lo(elements).bindLast(ArrayExpression::new));
   }
 
   @NotNull
@@ -524,7 +545,7 @@ public class LazyCloner
     if (expression.isNothing() || !expression.just().dirty) {
       return clean((Statement) node);
     }
-    return DirtyState.dirty((Statement) new ReturnStatement(Maybe.just(expression.just().node)));
+    return dirty((Statement) new ReturnStatement(Maybe.just(expression.just().node)));
   }
 
   @NotNull
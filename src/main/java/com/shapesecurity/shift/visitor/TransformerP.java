@@ -76,13 +76,14 @@ import com.shapesecurity.shift.ast.statement.TryFinallyStatement;
 import com.shapesecurity.shift.ast.statement.VariableDeclarationStatement;
 import com.shapesecurity.shift.ast.statement.WhileStatement;
 import com.shapesecurity.shift.ast.statement.WithStatement;
+import com.shapesecurity.shift.ast.types.Type;
 
 import org.jetbrains.annotations.NotNull;
 
 public interface TransformerP<ScriptState, ProgramBodyState, PropertyState, PropertyNameState, IdentifierState, ExpressionState, DirectiveState, StatementState, BlockState, DeclaratorState, DeclarationState, SwitchCaseState, SwitchDefaultState, CatchClauseState> {
   @NotNull
   default StatementState transform(@NotNull Statement node) {
-    switch (node.type()) {
+    switch (Type.fromTag(node.tag())) {
     case BlockStatement:
       return this.transform((BlockStatement) node);
     case BreakStatement:
@@ -132,7 +133,7 @@ public interface TransformerP<ScriptState, ProgramBodyState, PropertyState, Prop
 
   @NotNull
   default ExpressionState transform(@NotNull Expression node) {
-    switch (node.type()) {
+    switch (Type.fromTag(node.tag())) {
     case LiteralBooleanExpression:
       return this.transform((LiteralBooleanExpression) node);
     case LiteralNullExpression:
@@ -17,6 +17,8 @@
 package com.shapesecurity.shift.ast;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.function.Consumer;
 
 import org.jetbrains.annotations.NotNull;
@@ -26,10 +28,21 @@ import com.shapesecurity.functional.data.Maybe;
 import com.shapesecurity.shift.AstHelper;
 import com.shapesecurity.shift.TestReducer;
 import com.shapesecurity.shift.TestReducerWithPath;
+import com.shapesecurity.shift.ast.expression.AssignmentExpression;
+import com.shapesecurity.shift.ast.expression.BinaryExpression;
+import com.shapesecurity.shift.ast.expression.IdentifierExpression;
+import com.shapesecurity.shift.ast.expression.LiteralNumericExpression;
+import com.shapesecurity.shift.ast.expression.StaticMemberExpression;
+import com.shapesecurity.shift.ast.operators.BinaryOperator;
+import com.shapesecurity.shift.ast.statement.ExpressionStatement;
+import com.shapesecurity.shift.ast.types.ListType;
+import com.shapesecurity.shift.ast.types.Type;
 import com.shapesecurity.shift.parser.JsError;
 import com.shapesecurity.shift.parser.Parser;
 import com.shapesecurity.shift.path.Branch;
 import com.shapesecurity.shift.path.StaticBranch;
+import com.shapesecurity.shift.visitor.CloneReducer;
+import com.shapesecurity.shift.visitor.LazyCloner;
 
 import static org.junit.Assert.*;
 
@@ -71,10 +84,119 @@ public class AstTest extends AstHelper {
         Node replicate = node.set(List.list(new ReplacementChild(branch, maybe.just())));
         assertTrue(replicate != node);
         assertEquals(node, replicate);
+        assertEquals(node.hashCode(), replicate.hashCode());
       }
     }));
   }
 
+  @Test
+  public void testTag() {
+    forASTs((node) -> assertEquals(node.type(), Type.fromTag(node.tag())));
+    assertEquals(Type.List.ordinal(), new ListNode<>(List.nil(), ListType.STATEMENT).tag());
+  }
+
+  @Test
+  public void testHashCode() throws JsError, IOException {
+    Script copy = Parser.parse(readLibrary("everything-0.0.4.js"));
+    assertTrue(copy != script);
+    assertEquals(script.hashCode(), copy.hashCode());
+    assertEquals(script.hashCode(), script.reduce(CloneReducer.INSTANCE).hashCode());
+
+    // Each field of a node takes part in its hash.
+    String[][] pairs = {
+        {"a + b", "a - b"}, {"a + b", "b + a"}, {"f(1)", "f(2)"}, {"x.y", "x.z"}, {"x[y]", "x.y"}, {"true", "false"},
+        {"'a'", "'b'"}, {"var a", "let a"}, {"var a = 1", "var a"}, {"a: b", "c: b"}, {"({a: 1})", "({get a() {}})"},
+        {"function f(a) {}", "function f(b) {}"}, {"'use strict'", "'use strict ';"}, {"for (;;) a", "for (;;) b"},
+    };
+    for (String[] pair : pairs) {
+      assertNotEquals(pair[0], Parser.parse(pair[0]).hashCode(), Parser.parse(pair[1]).hashCode());
+      assertEquals(pair[0], Parser.parse(pair[0]).hashCode(), Parser.parse(pair[0]).hashCode());
+    }
+  }
+
+  @Test
+  public void testInterning() throws JsError, IOException {
+    NodeInterner interner = new NodeInterner();
+    Script interned = Parser.parse("a.prototype.b = void 0; a.prototype.c = void 0", interner);
+    ExpressionStatement first = (ExpressionStatement) interned.body.getStatements().maybeHead().just();
+    ExpressionStatement second = (ExpressionStatement) interned.body.getStatements().maybeLast().just();
+    AssignmentExpression left = (AssignmentExpression) first.expression;
+    AssignmentExpression right = (AssignmentExpression) second.expression;
+    assertTrue(((StaticMemberExpression) left.binding).object == ((StaticMemberExpression) right.binding).object);
+    assertTrue(left.expression == right.expression);
+
+    String source = readLibrary("everything-0.0.4.js");
+    interned = Parser.parse(source, interner);
+    assertEquals(script, interned);
+    assertHashConsed(interned);
+    assertTrue(interned == Parser.parse(source, interner));
+
+    interner = new NodeInterner();
+    Script cloned = script.reduce(CloneReducer.interning(interner));
+    assertEquals(script, cloned);
+    assertHashConsed(cloned);
+    assertTrue(cloned == interned.reduce(CloneReducer.interning(interner)));
+    assertTrue(cloned == cloned.reduce(LazyCloner.interning(interner)).node);
+  }
+
+  @Test
+  public void testDeepEquality() {
+    // Deeper than the Java stack allows a recursive comparison to go.
+    Expression a = new LiteralNumericExpression(0), b = new LiteralNumericExpression(0);
+    Expression c = new LiteralNumericExpression(1);
+    for (int i = 0; i < 200000; i++) {
+      a = new BinaryExpression(BinaryOperator.Plus, a, new IdentifierExpression(new Identifier("x")));
+      b = new BinaryExpression(BinaryOperator.Plus, b, new IdentifierExpression(new Identifier("x")));
+      c = new BinaryExpression(BinaryOperator.Plus, c, new IdentifierExpression(new Identifier("x")));
+    }
+    assertTrue(a.equals(b));
+    assertFalse(a.equals(c));
+
+    assertEquals(a.hashCode(), b.hashCode());
+    HashMap<Node, Node> nodes = new HashMap<>();
+    nodes.put(a, a);
+    assertTrue(nodes.get(b) == a);
+    assertFalse(nodes.containsKey(c));
+  }
+
+  @Test
+  public void testFlatScript() throws JsError {
+    FlatScript flat = FlatScript.from(script);
+    assertEquals(Type.Script, flat.type(flat.size() - 1));
+    assertEquals(script, flat.toScript());
+
+    // The nodes other than lists, optional values and alternatives are numbered in the order they are reduced.
+    ArrayList<Type> types = new ArrayList<>();
+    script.reduce(new TestReducer() {
+      @Override
+      protected void accept(@NotNull Node node) {
+        types.add(node.type());
+      }
+    });
+    ArrayList<Type> flatTypes = new ArrayList<>();
+    for (int node = 0; node < flat.size(); node++) {
+      Type type = flat.type(node);
+      if (type != Type.List && type != Type.Maybe && type != Type.Either) {
+        flatTypes.add(type);
+      }
+    }
+    assertEquals(types, flatTypes);
+
+    Script properties = Parser.parse("({a: 1, 'b': 0.5, 1e21: a, 0x10: 'b', get c() {}, set 1.5(b) {}})");
+    assertEquals(properties, FlatScript.from(properties).toScript());
+  }
+
+  // Checks that equal nodes of the tree are the same instance.
+  private static void assertHashConsed(@NotNull Script tree) {
+    HashMap<Node, Node> nodes = new HashMap<>();
+    tree.reduce(new TestReducer() {
+      @Override
+      protected void accept(@NotNull Node node) {
+        assertTrue(nodes.computeIfAbsent(node, n -> n) == node);
+      }
+    });
+  }
+
   private Node track(List<Branch> path) {
     Node node = script;
     for (Branch branch : path.reverse()) {
@@ -16,18 +16,32 @@
 
 package com.shapesecurity.shift.benchmark;
 
+import com.shapesecurity.functional.data.HashTable;
 import com.shapesecurity.shift.TestBase;
+import com.shapesecurity.shift.TestReducer;
+import com.shapesecurity.shift.ast.FlatScript;
+import com.shapesecurity.shift.ast.Node;
 import com.shapesecurity.shift.ast.Script;
 import com.shapesecurity.shift.codegen.CodeGen;
 import com.shapesecurity.shift.minifier.Minifier;
 import com.shapesecurity.shift.parser.JsError;
 import com.shapesecurity.shift.parser.Parser;
+import com.shapesecurity.shift.parser.Tokenizer;
 import com.shapesecurity.shift.scope.ScopeAnalyzer;
 import com.shapesecurity.shift.visitor.CloneReducer;
 import com.shapesecurity.shift.visitor.LazyCloner;
 
+import java.io.File;
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.ForkJoinPool;
 
+import org.jetbrains.annotations.NotNull;
 import org.junit.Test;
 
 public class BenchmarkTest extends TestBase {
@@ -62,6 +76,143 @@ public class BenchmarkTest extends TestBase {
     System.out.printf("Parser time: %.3fms\n", elapsed);
   }
 
+  @Test
+  public void benchmarkTokenizer() throws IOException, JsError {
+    File[] files = new File(getPath("libraries").toString()).listFiles();
+    assert files != null;
+    ArrayList<String> sources = new ArrayList<>();
+    long length = 0;
+    for (File file : files) {
+      String source = readLibrary(file.getName());
+      sources.add(source);
+      length += source.length();
+    }
+    System.out.println("Tokenizer warm-up started.");
+    for (int i = 0; i < WARMUP_TIMES / 20; i++) {
+      for (String source : sources) {
+        Tokenizer.tokenizeCompact(source);
+      }
+    }
+    System.out.println("Tokenizer warm-up finished.");
+    final int N = TIMING_TIMES / 20;
+    long start = System.nanoTime();
+    startProfiling();
+    for (int i = 0; i < N; i++) {
+      for (String source : sources) {
+        Tokenizer.tokenizeCompact(source);
+      }
+    }
+    double elapsed = (System.nanoTime() - start) * 1e-6 / N;
+    stopProfiling();
+    System.out.printf("Tokenizer time: %.3fms for %d characters\n", elapsed, length);
+  }
+
+  @Test
+  public void benchmarkTokenizerPerFile() throws IOException, JsError {
+    File[] files = new File(getPath("libraries").toString()).listFiles();
+    assert files != null;
+    Arrays.sort(files);
+    ArrayList<String> sources = new ArrayList<>();
+    for (File file : files) {
+      sources.add(readLibrary(file.getName()));
+    }
+    System.out.println("Tokenizer warm-up started.");
+    for (int i = 0; i < WARMUP_TIMES / 20; i++) {
+      for (String source : sources) {
+        Tokenizer.tokenize(source);
+        Parser.parse(source);
+      }
+    }
+    System.out.println("Tokenizer warm-up finished.");
+    System.out.printf("%-36s %9s %9s %9s %9s %11s %9s\n", "file", "KB", "tok ms", "MB/s", "Mtok/s", "alloc B/op",
+        "parse ms");
+    for (int j = 0; j < files.length; j++) {
+      String source = sources.get(j);
+      double megabytes = source.getBytes(StandardCharsets.UTF_8).length / (1024.0 * 1024.0);
+      int tokens = Tokenizer.tokenize(source).size();
+      final int N = TIMING_TIMES / 20;
+      long allocated = allocatedBytes();
+      long start = System.nanoTime();
+      startProfiling();
+      for (int i = 0; i < N; i++) {
+        Tokenizer.tokenize(source);
+      }
+      stopProfiling();
+      double tokenizer = (System.nanoTime() - start) * 1e-9 / N;
+      allocated = allocated < 0 ? -1 : (allocatedBytes() - allocated) / N;
+      start = System.nanoTime();
+      for (int i = 0; i < N; i++) {
+        Parser.parse(source);
+      }
+      double parser = (System.nanoTime() - start) * 1e-9 / N;
+      System.out.printf("%-36s %9.1f %9.3f %9.2f %9.2f %11d %9.3f\n", files[j].getName(), megabytes * 1024,
+          tokenizer * 1e3, megabytes / tokenizer, tokens / tokenizer * 1e-6, allocated, parser * 1e3);
+    }
+  }
+
+  // Bytes allocated so far by the current thread, or -1 if the JVM does not track them.
+  private static long allocatedBytes() {
+    ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    if (bean instanceof com.sun.management.ThreadMXBean) {
+      return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+    return -1;
+  }
+
+  @Test
+  public void benchmarkLazyParser() throws IOException, JsError {
+    String source = readLibrary("angular-1.2.5.js");
+    System.out.println("Lazy parser warm-up started.");
+    for (int i = 0; i < WARMUP_TIMES; i++) {
+      Parser.parseLazily(source);
+    }
+    System.out.println("Lazy parser warm-up finished.");
+    final int N = TIMING_TIMES;
+    long start = System.nanoTime();
+    startProfiling();
+    for (int i = 0; i < N; i++) {
+      Parser.parseLazily(source);
+    }
+    double elapsed = (System.nanoTime() - start) * 1e-6 / N;
+    stopProfiling();
+    System.out.printf("Lazy parser time: %.3fms\n", elapsed);
+  }
+
+  @Test
+  public void benchmarkParallelParser() throws IOException, JsError {
+    File[] files = new File(getPath("libraries").toString()).listFiles();
+    assert files != null;
+    ArrayList<String> sources = new ArrayList<>();
+    for (File file : files) {
+      sources.add(readLibrary(file.getName()));
+    }
+    ForkJoinPool pool = ForkJoinPool.commonPool();
+    System.out.println("Parallel parser warm-up started.");
+    for (int i = 0; i < WARMUP_TIMES / 20; i++) {
+      for (String source : sources) {
+        Parser.parse(source);
+        Parser.parseInParallel(source, pool);
+      }
+    }
+    System.out.println("Parallel parser warm-up finished.");
+    final int N = TIMING_TIMES / 20;
+    for (int j = 0; j < files.length; j++) {
+      String source = sources.get(j);
+      long start = System.nanoTime();
+      for (int i = 0; i < N; i++) {
+        Parser.parse(source);
+      }
+      double sequential = (System.nanoTime() - start) * 1e-6 / N;
+      start = System.nanoTime();
+      for (int i = 0; i < N; i++) {
+        Parser.parseInParallel(source, pool);
+      }
+      double parallel = (System.nanoTime() - start) * 1e-6 / N;
+      System.out.printf("%s: sequential %.3fms, parallel %.3fms on %d threads (%.2fx)\n", files[j].getName(),
+          sequential, parallel, pool.getParallelism(), sequential / parallel);
+    }
+  }
+
   @Test
   public void benchmarkCodeGen() throws IOException, JsError {
     String source = readLibrary("angular-1.2.5.js");
@@ -123,6 +274,150 @@ public class BenchmarkTest extends TestBase {
     System.out.printf("LazyCloner time: %.3fms\n", elapsed);
   }
 
+  @Test
+  public void benchmarkFlatScript() throws IOException, JsError {
+    // A clone has every function body parsed, as a flat script does.
+    Script program = Parser.parse(readLibrary("angular-1.2.5.js")).reduce(CloneReducer.INSTANCE);
+    System.out.println("FlatScript warm-up started.");
+    for (int i = 0; i < WARMUP_TIMES / 4; i++) {
+      FlatScript.from(program).toScript();
+    }
+    System.out.println("FlatScript warm-up finished.");
+    final int N = TIMING_TIMES;
+    long start = System.nanoTime();
+    for (int i = 0; i < N; i++) {
+      FlatScript.from(program);
+    }
+    double from = (System.nanoTime() - start) * 1e-6 / N;
+    FlatScript flat = FlatScript.from(program);
+    start = System.nanoTime();
+    for (int i = 0; i < N; i++) {
+      flat.toScript();
+    }
+    double toScript = (System.nanoTime() - start) * 1e-6 / N;
+
+    // Both share their strings with program, so only their structure is measured.
+    flat = null;
+    long base = usedMemory();
+    Script tree = program.reduce(CloneReducer.INSTANCE);
+    long treeBytes = usedMemory() - base;
+    base = usedMemory();
+    flat = FlatScript.from(tree);
+    long flatBytes = usedMemory() - base;
+    System.out.printf("FlatScript: %d nodes; from %.3fms, toScript %.3fms; tree %dKB, flat %dKB\n",
+        flat.size(), from, toScript, treeBytes / 1024, flatBytes / 1024);
+  }
+
+  private static long usedMemory() {
+    for (int i = 0; i < 5; i++) {
+      System.gc();
+    }
+    Runtime runtime = Runtime.getRuntime();
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+
+
+  @Test
+  public void benchmarkHashCode() throws IOException, JsError {
+    Script program = Parser.parse(readLibrary("angular-1.2.5.js"));
+    // Hashes are cached in each node, so every run hashes a fresh copy of the tree.
+    System.out.println("HashCode warm-up started.");
+    for (int i = 0; i < WARMUP_TIMES / 4; i++) {
+      program.reduce(CloneReducer.INSTANCE).hashCode();
+    }
+    System.out.println("HashCode warm-up finished.");
+    final int N = TIMING_TIMES;
+    long elapsed = 0;
+    for (int i = 0; i < N; i++) {
+      Script copy = program.reduce(CloneReducer.INSTANCE);
+      long start = System.nanoTime();
+      copy.hashCode();
+      elapsed += System.nanoTime() - start;
+    }
+    System.out.printf("HashCode time: %.3fms\n", elapsed * 1e-6 / N);
+  }
+
+  @Test
+  public void benchmarkEquals() throws IOException, JsError {
+    String source = readLibrary("angular-1.2.5.js");
+    Script a = Parser.parse(source), b = Parser.parse(source);
+    Script hashedA = Parser.parse(source), hashedB = Parser.parse(source);
+    Script different = Parser.parse(source + ";0");
+    hashedA.hashCode();
+    hashedB.hashCode();
+    different.hashCode();
+    System.out.println("Equals warm-up started.");
+    for (int i = 0; i < WARMUP_TIMES / 4; i++) {
+      a.equals(b);
+      hashedA.equals(hashedB);
+      hashedA.equals(different);
+    }
+    System.out.println("Equals warm-up finished.");
+    final int N = TIMING_TIMES;
+    long start = System.nanoTime();
+    for (int i = 0; i < N; i++) {
+      a.equals(b);
+    }
+    double equal = (System.nanoTime() - start) * 1e-6 / N;
+    start = System.nanoTime();
+    for (int i = 0; i < N; i++) {
+      hashedA.equals(hashedB);
+    }
+    double hashed = (System.nanoTime() - start) * 1e-6 / N;
+    start = System.nanoTime();
+    for (int i = 0; i < N; i++) {
+      hashedA.equals(different);
+    }
+    double unequal = (System.nanoTime() - start) * 1e-6 / N;
+    System.out.printf("Equals time: equal %.3fms, equal and hashed %.3fms, unequal and hashed %.6fms\n", equal, hashed,
+        unequal);
+  }
+
+  @Test
+  public void benchmarkStructuralKeys() throws IOException, JsError {
+    Script program = Parser.parse(readLibrary("angular-1.2.5.js"));
+    System.out.println("Structural keys warm-up started.");
+    for (int i = 0; i < WARMUP_TIMES / 20; i++) {
+      indexNodes(program.reduce(CloneReducer.INSTANCE));
+    }
+    System.out.println("Structural keys warm-up finished.");
+    final int N = TIMING_TIMES / 5;
+    long hashMapTime = 0, hashTableTime = 0;
+    int distinct = 0, count = 0;
+    for (int i = 0; i < N; i++) {
+      ArrayList<Node> nodes = indexNodes(program.reduce(CloneReducer.INSTANCE));
+      long start = System.nanoTime();
+      HashMap<Node, Integer> map = new HashMap<>();
+      for (Node node : nodes) {
+        map.merge(node, 1, Integer::sum);
+      }
+      hashMapTime += System.nanoTime() - start;
+
+      nodes = indexNodes(program.reduce(CloneReducer.INSTANCE));
+      start = System.nanoTime();
+      HashTable<Node, Integer> table = HashTable.empty();
+      for (Node node : nodes) {
+        table = table.put(node, table.get(node).orJust(0) + 1);
+      }
+      hashTableTime += System.nanoTime() - start;
+      distinct = map.size();
+      count = nodes.size();
+    }
+    System.out.printf("Structural keys: %d nodes, %d distinct; HashMap %.3fms, HashTable %.3fms\n", count, distinct,
+        hashMapTime * 1e-6 / N, hashTableTime * 1e-6 / N);
+  }
+
+  @NotNull
+  private static ArrayList<Node> indexNodes(@NotNull Script program) {
+    ArrayList<Node> nodes = new ArrayList<>();
+    program.reduce(new TestReducer() {
+      @Override
+      protected void accept(@NotNull Node node) {
+        nodes.add(node);
+      }
+    });
+    return nodes;
+  }
 
   @Test
   public void benchmarkScopeAnalysis() throws IOException, JsError {
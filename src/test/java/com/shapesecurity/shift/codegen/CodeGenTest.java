@@ -327,6 +327,7 @@ public class CodeGenTest extends TestBase {
     testLoose("(\"'\")", "('\\'')");
     test(";\"a\"");
     test(";\"\\\"\"");
+    test(";\"\\x41\\u0042\\\nc\"");
     test("/a/");
     test("/a/i");
     test("/a/ig");
@@ -16,21 +16,49 @@
 
 package com.shapesecurity.shift.parser;
 
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import com.shapesecurity.functional.data.Either;
+import com.shapesecurity.functional.data.List;
 import com.shapesecurity.shift.TestBase;
+import com.shapesecurity.shift.ast.FunctionBody;
+import com.shapesecurity.shift.ast.Node;
 import com.shapesecurity.shift.ast.Script;
+import com.shapesecurity.shift.ast.SourceLocation;
 import com.shapesecurity.shift.ast.Statement;
+import com.shapesecurity.shift.ast.expression.LiteralStringExpression;
+import com.shapesecurity.shift.ast.expression.StaticMemberExpression;
 import com.shapesecurity.shift.ast.expression.ThisExpression;
+import com.shapesecurity.shift.ast.property.PropertyName;
 import com.shapesecurity.shift.ast.statement.ExpressionStatement;
+import com.shapesecurity.shift.ast.statement.FunctionDeclaration;
+import com.shapesecurity.shift.codegen.CodeGen;
+import com.shapesecurity.shift.path.Branch;
 import com.shapesecurity.shift.serialization.Serializer;
 import com.shapesecurity.shift.utils.Utils;
+import com.shapesecurity.shift.visitor.CloneReducer;
+import com.shapesecurity.shift.visitor.Counter;
 
+import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 
 import org.jetbrains.annotations.NotNull;
 import org.junit.Ignore;
@@ -43,6 +71,7 @@ public class ParserTest extends TestBase {
     String source = readLibrary(name);
     name = name.substring(0, name.lastIndexOf('.'));
     Script script = Parser.parse(source);
+    assertEquals(name, null, Parser.validateSyntax(source));
     String jsonString = Serializer.serialize(script);
     String expected = jsonString;
     if (!Files.exists(getPath("parsing/library/" + name + ".json"))) {
@@ -57,17 +86,510 @@ public class ParserTest extends TestBase {
   @Test
   public void testSimple() throws JsError {
     Script node = Parser.parse("this");
-    assertEquals(1, node.body.statements.length);
-    Statement stmt = node.body.statements.maybeHead().just();
+    assertEquals(1, node.body.getStatements().length);
+    Statement stmt = node.body.getStatements().maybeHead().just();
     assertTrue(stmt instanceof ExpressionStatement);
     assertTrue(((ExpressionStatement) stmt).expression instanceof ThisExpression);
   }
 
+  @Test
+  public void testParseCharacterStreams() throws IOException, JsError {
+    String source = readLibrary("backbone-1.1.0.js");
+    Script expected = Parser.parse(source);
+    assertEquals(expected, Parser.parse(new StringReader(source)));
+    assertEquals(expected, Parser.parse(CharBuffer.wrap(source.toCharArray())));
+    assertEquals(expected, Parser.parse(
+        Channels.newChannel(new ByteArrayInputStream(source.getBytes(StandardCharsets.UTF_8))),
+        StandardCharsets.UTF_8));
+  }
+
+  @NotNull
+  private static LiteralStringExpression stringLiteral(@NotNull Script script, int index) {
+    return (LiteralStringExpression) ((ExpressionStatement) script.body.getStatements().index(index).just()).expression;
+  }
+
+  @Test
+  public void testParseMappedFile() throws IOException, JsError {
+    // backbone is pure ASCII and is viewed in place; everything contains non-ASCII characters and is decoded.
+    for (String library : Arrays.asList("backbone-1.1.0.js", "everything-0.0.4.js")) {
+      Script expected = Parser.parse(readLibrary(library));
+      assertEquals(library, expected, Parser.parse(getPath("libraries/" + library)));
+    }
+
+    try {
+      Parser.parse(ByteBuffer.wrap("var a = 0;\n  +".getBytes(StandardCharsets.UTF_8)));
+      fail("Parsing error not found");
+    } catch (JsError jsError) {
+      assertEquals(2, jsError.getLine());
+      assertEquals(14, jsError.getIndex());
+    }
+
+    // The tree does not read the buffer once parsed.
+    ByteBuffer buffer = ByteBuffer.wrap("0;x=\"a\\x62c\";y='d';".getBytes(StandardCharsets.UTF_8));
+    Script script = Parser.parse(buffer);
+    for (int i = 0; i < buffer.limit(); i++) {
+      buffer.put(i, (byte) 'Z');
+    }
+    assertEquals(Parser.parse("0;x=\"a\\x62c\";y='d';"), script);
+    assertEquals("0;x=\"a\\x62c\";y=\"d\"", CodeGen.codeGen(script));
+    assertEquals(LineIndex.of("0;x=\"a\\x62c\";y='d';"), LineIndex.of(script));
+
+    // Only literals with escapes are decoded lazily; long ones without have their value.
+    String value = "0123456789012345678901234567890123456789";
+    script = Parser.parse("0;'" + value + "';'\\x61'");
+    assertEquals(value, stringLiteral(script, 1).value);
+    assertNull(stringLiteral(script, 2).value);
+    assertEquals("a", stringLiteral(script, 2).getValue());
+    assertEquals(value, stringLiteral(script.reduce(CloneReducer.INSTANCE), 1).value);
+
+    try {
+      new LiteralStringExpression("b", new SourceRange(0, 3, "'a'"));
+      fail("Mismatched source text accepted");
+    } catch (IllegalArgumentException expected) {
+    }
+  }
+
+  @Test
+  public void testLineIndex() throws IOException, JsError {
+    for (String library : Arrays.asList("backbone-1.1.0.js", "everything-0.0.4.js", "jquery.mobile.min-1.4.3.js")) {
+      String source = readLibrary(library);
+      LineIndex expected = LineIndex.of(source);
+      assertEquals(library, expected, LineIndex.of(Parser.parse(source)));
+      assertEquals(library, expected, LineIndex.of(Parser.parseWithLocation(source)));
+      assertEquals(library, expected, LineIndex.of(Parser.parseLazily(source)));
+    }
+    assertEquals(null, LineIndex.of(new Script(new FunctionBody(List.nil(), List.nil()))));
+
+    String source = "a\r\nb\u2028/*\n*/c\rd";
+    LineIndex lines = LineIndex.of(Parser.parse(source));
+    assert lines != null;
+    assertEquals(5, lines.getLineCount());
+    assertEquals(3, lines.getLineStart(1));
+    assertEquals(0, lines.getLine(0));
+    assertEquals(0, lines.getLine(2));
+    assertEquals(1, lines.getLine(3));
+    assertEquals(3, lines.getLine(8));
+    assertEquals(2, lines.getColumn(10));
+    assertEquals(4, lines.getLine(source.length()));
+    SourceLocation location = lines.getSourceLocation(new SourceRange(10, 11, source));
+    assertEquals(3, location.line);
+    assertEquals(2, location.column);
+    assertEquals(10, location.offset);
+    assertEquals(11, location.source.end);
+  }
+
+  @Test
+  public void testEarlierTokenErrorLocation() {
+    // The error is found at the end of the body but reported at the function name, lines earlier.
+    String[] newLines = { "\n", "\r\n", "\u2028", "/*\r\n*/" };
+    int[] columns = { 2, 2, 2, 4 };
+    for (int i = 0; i < newLines.length; i++) {
+      String newLine = newLines[i];
+      String source = "x;" + newLine + "(function" + newLine + "  eval() {" + newLine + "'use strict'; })";
+      try {
+        Parser.parseWithLocation(source);
+        fail("Parsing error not found");
+      } catch (JsError jsError) {
+        assertEquals(source.indexOf("eval"), jsError.getIndex());
+        assertEquals(3, jsError.getLine());
+        assertEquals(columns[i], jsError.getColumn());
+      }
+    }
+  }
+
+  @Test
+  public void testParseInParallel() throws IOException, JsError {
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      for (String library : Arrays.asList(
+          "angular-1.2.5.js",
+          "angular-1.2.5.min.js",
+          "ember-1.7.0.js",
+          "everything-0.0.4.js",
+          "jquery-1.9.1.js",
+          "three.min-r67.js",
+          "yui-3.12.0.js")) {
+        String source = readLibrary(library);
+        assertEquals(library, Parser.parse(source), Parser.parseInParallel(source, pool));
+      }
+      // The equality above also holds if every body falls back to the sequential parse.
+      for (String library : Arrays.asList("angular-1.2.5.js", "jquery-1.9.1.js")) {
+        AtomicInteger bodiesTaken = new AtomicInteger();
+        String source = readLibrary(library);
+        assertEquals(library, Parser.parse(source), Parser.parseInParallel(source, pool, bodiesTaken));
+        assertTrue(library, bodiesTaken.get() > 0);
+      }
+
+      StringBuilder statements = new StringBuilder();
+      for (int i = 0; i < 500; i++) {
+        statements.append("a = b + c;\n");
+      }
+      String body = statements.toString();
+      String twoBodies = "function f(){" + body + "}\nfunction g(){" + body + "}";
+      assertEquals(Parser.parse(twoBodies), Parser.parseInParallel(twoBodies, pool));
+      // Errors inside, between and after the bodies parsed ahead of time must be reported as if parsed in order.
+      for (String source : Arrays.asList(
+          twoBodies + "\n\n  +",
+          "function f(){" + body + "}\nfunction g(){" + body + "@}",
+          "function f(){" + body + "} )\nfunction g(){" + body + "}",
+          "'use strict'; function f(){" + body + "} function g(){" + body + "with (a) {}}",
+          "function f(){'use strict';" + body + "function g(){" + body + "with (a) {}}}")) {
+        JsError expected = null;
+        try {
+          Parser.parse(source);
+        } catch (JsError e) {
+          expected = e;
+        }
+        JsError actual = null;
+        try {
+          Parser.parseInParallel(source, pool);
+        } catch (JsError e) {
+          actual = e;
+        }
+        assertTrue(expected != null && actual != null);
+        assertEquals(expected.getDescription(), actual.getDescription());
+        assertEquals(expected.getIndex(), actual.getIndex());
+        assertEquals(expected.getLine(), actual.getLine());
+        assertEquals(expected.getColumn(), actual.getColumn());
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void testParseLazily() throws IOException, JsError {
+    File[] files = new File(getPath("libraries").toString()).listFiles();
+    assert files != null;
+    for (File file : files) {
+      String source = readLibrary(file.getName());
+      // Comparing materializes every skimmed body.
+      assertEquals(file.getName(), Parser.parse(source), Parser.parseLazily(source));
+    }
+
+    assertTrue(((FunctionDeclaration) Parser.parseLazily("function f(){'use strict'; a}").body.getStatements()
+        .maybeHead().just()).body.isStrict());
+
+    // Slashes are told apart as the parser would, or the body is parsed eagerly where the skim cannot tell.
+    for (String source : Arrays.asList(
+        "function f(){ var x = o.return / 2; if (x) { y = x / 3 } }",
+        "function f(){ if (a(b)) /}/.test(c); x = (a) / 2 /(b) }",
+        "function f(){ return /}/.test(a) + typeof /{/ }",
+        "function f(){ x = y\n/z/g; yield /a/ 2 }",
+        "function f(){ var g = function(){ return 1 } / 1; a++ /b/ c; }",
+        "function f(){ {} /}/.test(a) }")) {
+      assertEquals(source, Parser.parse(source), Parser.parseLazily(source));
+    }
+    FunctionBody skimmed = ((FunctionDeclaration) Parser.parseLazily("function f(){ x = o.return / 2 }").body
+        .getStatements().maybeHead().just()).body;
+    assertEquals(1, skimmed.getStatements().length);
+
+    // Errors the skim can see are thrown by the parse, the others on first access.
+    try {
+      Parser.parseLazily("function f(){ a }\n}");
+      fail("Parsing error not found");
+    } catch (JsError jsError) {
+      assertEquals(2, jsError.getLine());
+    }
+    String source = "function f(){\n  a b\n}";
+    Script script = Parser.parseLazily(source);
+    FunctionDeclaration f = (FunctionDeclaration) script.body.getStatements().maybeHead().just();
+    try {
+      f.body.getStatements();
+      fail("Parsing error not found");
+    } catch (DeferredJsError deferred) {
+      JsError expected = null;
+      try {
+        Parser.parse(source);
+      } catch (JsError e) {
+        expected = e;
+      }
+      assertTrue(expected != null);
+      assertEquals(expected.getDescription(), deferred.getError().getDescription());
+      assertEquals(expected.getIndex(), deferred.getError().getIndex());
+      assertEquals(expected.getLine(), deferred.getError().getLine());
+      assertEquals(expected.getColumn(), deferred.getError().getColumn());
+    }
+  }
+
+  @Test
+  public void testSymbolTable() throws JsError {
+    SymbolTable symbols = new SymbolTable();
+    Script script = Parser.parse("a.length; b.length; 'length'; a\\u0062", symbols);
+    Statement[] statements = script.body.getStatements().toArray(new Statement[4]);
+    String first = ((StaticMemberExpression) ((ExpressionStatement) statements[0]).expression).property.name;
+    String second = ((StaticMemberExpression) ((ExpressionStatement) statements[1]).expression).property.name;
+    String literal = ((LiteralStringExpression) ((ExpressionStatement) statements[2]).expression).getValue();
+    assertEquals("length", first);
+    assertTrue(first == second);
+    assertTrue(first == literal);
+    assertTrue(symbols.intern(new StringBuilder("xlengthx"), 1, 7) == first);
+    assertEquals(4, symbols.size());
+    SymbolTable other = symbols.forOtherThread();
+    assertTrue(symbols.forOtherThread() == other);
+    assertTrue(other.forOtherThread() == other);
+
+    SymbolTable shared = SymbolTable.concurrent(2);
+    String a = shared.intern("a");
+    assertTrue(shared.intern(new StringBuilder("a")) == a);
+    shared.intern("b");
+    String c = shared.intern("c");
+    assertEquals("c", c);
+    assertTrue(shared.intern(new StringBuilder("c")) != c);
+    assertEquals(2, shared.size());
+    assertTrue(shared.intern(new StringBuilder("a")) == a);
+    assertEquals(Parser.parse("a.b.c"), Parser.parse("a.b.c", shared));
+
+    SymbolTable concurrent = SymbolTable.concurrent(Integer.MAX_VALUE);
+    String[] names = IntStream.range(0, 20000).parallel().mapToObj(i -> concurrent.intern("n" + i % 5000))
+        .toArray(String[]::new);
+    for (int i = 0; i < names.length; i++) {
+      assertTrue(names[i] == names[i % 5000]);
+    }
+    assertEquals(5000, concurrent.size());
+  }
+
+  @Test
+  public void testReusableParser() throws IOException, JsError {
+    ReusableParser parser = new ReusableParser();
+    File[] files = new File(getPath("libraries").toString()).listFiles();
+    assert files != null;
+    for (File file : files) {
+      String source = readLibrary(file.getName());
+      Script script = parser.parse(source);
+      assertEquals(file.getName(), Parser.parse(source), script);
+      assertEquals(file.getName(), LineIndex.of(source), LineIndex.of(script));
+    }
+
+    // Nothing is carried over from a parse that failed part way.
+    for (String source : Arrays.asList("'use strict'; a: { b: function f() { c: with (d) {} } }", "a: { b: 0 +")) {
+      try {
+        parser.parse(source);
+        fail("Parsing error not found");
+      } catch (JsError jsError) {
+        assertEquals(1, jsError.getLine());
+      }
+    }
+    String source = "with (a) {}\na: b: 0; a: 1";
+    assertEquals(Parser.parse(source), parser.parse(source));
+    assertEquals(1, LineIndex.of(parser.parse(source)).getLine(source.length()));
+
+    assertTrue(ReusableParser.forCurrentThread() == ReusableParser.forCurrentThread());
+    assertEquals(Parser.parse(source), ReusableParser.forCurrentThread().parse(source));
+  }
+
+  @Test
+  public void testParseListener() throws IOException, JsError {
+    for (String library : Arrays.asList("backbone-1.1.0.js", "everything-0.0.4.js", "jquery.mobile.min-1.4.3.js")) {
+      String source = readLibrary(library);
+      int[] identifiers = new int[1];
+      Parser.parse(source, new ParseListener() {
+        @Override
+        public void identifier(@NotNull String name, @NotNull SourceRange range) {
+          assertEquals(name, range.toString().replace("\\u0024", "$"));
+          identifiers[0]++;
+        }
+      });
+      // Property names are identifiers to the listener but not to the counter.
+      int expected = Parser.parse(source).reduce(new Counter.IdentifierCounter() {
+        @NotNull
+        @Override
+        public Integer reducePropertyName(@NotNull PropertyName node, @NotNull List<Branch> path) {
+          return node.kind == PropertyName.PropertyNameKind.Identifier ? 1 : 0;
+        }
+      });
+      assertEquals(library, expected, identifiers[0]);
+    }
+
+    ArrayList<String> events = new ArrayList<>();
+    Parser.parse("function f(a) { return a.b; }\nx;", new ParseListener() {
+      @Override
+      public void enterFunctionBody(int start) {
+        events.add("enter " + start);
+      }
+
+      @Override
+      public void exitFunctionBody(int start, int end) {
+        events.add("exit " + start + " " + end);
+      }
+
+      @Override
+      public void node(@NotNull Node node, @NotNull SourceRange range) {
+        events.add(node.getClass().getSimpleName() + " " + range);
+      }
+    });
+    assertEquals(Arrays.asList(
+        "Identifier f",
+        "Identifier a",
+        "enter 14",
+        "Identifier a",
+        "IdentifierExpression a",
+        "Identifier b",
+        "StaticMemberExpression a.b",
+        "ReturnStatement return a.b;",
+        "exit 14 29",
+        "FunctionBody { return a.b; }",
+        "FunctionDeclaration function f(a) { return a.b; }",
+        "Identifier x",
+        "IdentifierExpression x",
+        "ExpressionStatement x;",
+        "FunctionBody function f(a) { return a.b; }\nx;"), events);
+
+    try {
+      Parser.parse("x;\nfunction f() { y z }", new ParseListener() {});
+      fail("Parsing error not found");
+    } catch (JsError jsError) {
+      assertEquals(2, jsError.getLine());
+      assertEquals(20, jsError.getIndex());
+    }
+  }
+
+  @Test
+  public void testParseAll() throws IOException, JsError, InterruptedException, ExecutionException {
+    File[] files = new File(getPath("libraries").toString()).listFiles();
+    assert files != null;
+    ArrayList<String> texts = new ArrayList<>();
+    ArrayList<Path> paths = new ArrayList<>();
+    long size = 0;
+    for (File file : files) {
+      texts.add(readLibrary(file.getName()));
+      paths.add(file.toPath());
+      size += file.length();
+    }
+    texts.add(1, "a b");
+    // Too deeply nested for the stack of a pool thread.
+    StringBuilder nested = new StringBuilder();
+    for (int i = 0; i < 1000000; i++) {
+      nested.append('(');
+    }
+    texts.add(2, nested.toString());
+    ForkJoinPool pool = new ForkJoinPool(4);
+    ParseResults results = Parser.parseAll(texts, pool);
+    pool.shutdown();
+    assertEquals(texts.size(), results.getCount());
+    for (int i = 0; i < texts.size(); i++) {
+      Either<Throwable, Script> result = results.getResults().get(i);
+      if (i == 1) {
+        assertEquals(2, ((JsError) result.left().just()).getIndex());
+      } else if (i == 2) {
+        assertTrue(result.left().just() instanceof StackOverflowError);
+      } else {
+        assertEquals(Parser.parse(texts.get(i)), result.right().just());
+      }
+    }
+    assertTrue(results.getParseTimePercentile(50) <= results.getParseTimePercentile(99));
+    assertTrue(results.getParseTimePercentile(100) <= results.getElapsedNanos());
+    assertTrue(results.getSourcesPerSecond() > 0);
+
+    results = Parser.parseAllFiles(paths, ForkJoinPool.commonPool());
+    assertEquals(size, results.getTotalSize());
+    assertEquals(Parser.parse(texts.get(0)), results.getResults().get(0).right().just());
+
+    assertEquals(0L, Parser.parseAll(new ArrayList<String>()).getParseTimePercentile(99));
+    // A source the executor rejects fails alone, without leaving the call waiting for it.
+    AtomicInteger submitted = new AtomicInteger();
+    results = Parser.parseAll(Arrays.asList("a", "b"), task -> {
+      if (submitted.getAndIncrement() > 0) {
+        throw new RejectedExecutionException();
+      }
+      task.run();
+    });
+    assertEquals(Parser.parse("a"), results.getResults().get(0).right().just());
+    assertTrue(results.getResults().get(1).left().just() instanceof RejectedExecutionException);
+    // A worker of the pool can wait for the parses on its own pool.
+    ForkJoinPool single = new ForkJoinPool(1);
+    assertEquals(texts.size(), single.submit(() -> Parser.parseAll(texts, single)).get().getCount());
+    single.shutdown();
+    paths.add(getPath("libraries/missing.js"));
+    try {
+      Parser.parseAllFiles(paths, Runnable::run);
+      fail("Reading error not found");
+    } catch (NoSuchFileException e) {
+      assertTrue(e.getMessage().endsWith("missing.js"));
+    }
+  }
+
+  @Test
+  public void testIncrementalParser() throws IOException, JsError {
+    String source = readLibrary("backbone-1.1.0.js");
+    int statement = source.indexOf("if (!name && !callback && !context)");
+    assertReparses(source, statement + 5, statement + 9, "eventName");
+    assertReparses(source, statement, statement, "var x = 1\n      ");
+    assertReparses(source, statement, statement + 2, "while");
+    assertReparses(source, statement, statement, "}");
+    assertReparses(source, statement, statement, "\r\n");
+    assertReparses(source, statement - 1, statement, "");
+    assertReparses(source, 0, 0, "'use strict';\n");
+    assertReparses(source, source.length(), source.length(), "\nx = /re/g");
+    assertReparses(source, source.length() - 1, source.length(), "");
+
+    // The nodes before the edit are shared, and those after it are copied at their new location; the previous script
+    // is not changed.
+    String text = "x;\nfunction f(){ a; }\nfunction g(){ b; }";
+    Script previous = Parser.parseWithLocation(text);
+    Statement x = previous.body.getStatements().index(0).just();
+    Statement g = previous.body.getStatements().index(2).just();
+    Script script = IncrementalParser.reparse(previous, text, 17, 18, "c +\n d");
+    assertTrue(script.body.getStatements().index(0).just() == x);
+    SourceLocation moved = script.body.getStatements().index(2).just().getLoc();
+    assertEquals(3, moved.line);
+    assertEquals(0, moved.column);
+    assertEquals(27, moved.offset);
+    assertEquals(2, g.getLoc().line);
+    assertEquals(22, g.getLoc().offset);
+    assertEquals(Serializer.serialize(Parser.parseWithLocation(text)), Serializer.serialize(previous));
+    // The previous script can be reparsed with another edit.
+    assertEquals(
+        Serializer.serialize(Parser.parseWithLocation("x;\nfunction f(){ e; }\nfunction g(){ b; }")),
+        Serializer.serialize(IncrementalParser.reparse(previous, text, 17, 18, "e")));
+
+    // Successive edits, each reparsing the result of the previous one.
+    script = Parser.parseWithLocation(source);
+    String current = source;
+    int at = 0;
+    for (int i = 0; i < 80; i++) {
+      at = current.indexOf("\n  var ", at) + 3;
+      if (at < 3) {
+        at = current.indexOf("\n  var ") + 3;
+      }
+      String replacement = i % 3 == 0 ? "" : i % 3 == 1 ? "x;\n  " : "y(\n1);\n  ";
+      int end = i % 3 == 0 ? at + 4 : at;
+      String edited = current.substring(0, at) + replacement + current.substring(end);
+      script = IncrementalParser.reparse(script, current, at, end, replacement);
+      current = edited;
+      at += replacement.length();
+      script.reduce(new RangeCheckerReducer());
+      assertEquals(Serializer.serialize(Parser.parseWithLocation(current)), Serializer.serialize(script));
+    }
+  }
+
+  private void assertReparses(String source, int start, int end, String replacement) throws JsError {
+    String text = source.substring(0, start) + replacement + source.substring(end);
+    Script previous = Parser.parseWithLocation(source);
+    String expected;
+    try {
+      expected = Serializer.serialize(Parser.parseWithLocation(text));
+    } catch (JsError e) {
+      expected = e.getDescription() + " " + e.getIndex() + " " + e.getLine() + " " + e.getColumn();
+    }
+    String actual;
+    try {
+      Script script = IncrementalParser.reparse(previous, source, start, end, replacement);
+      script.reduce(new RangeCheckerReducer());
+      assertEquals(LineIndex.of(text), LineIndex.of(script));
+      actual = Serializer.serialize(script);
+    } catch (JsError e) {
+      actual = e.getDescription() + " " + e.getIndex() + " " + e.getLine() + " " + e.getColumn();
+    }
+    assertEquals(expected, actual);
+  }
+
   private void testParser(String source) throws JsError {
     Parser.parse(source);
   }
 
   private void testParser(String name, String source) throws JsError, IllegalAccessException, IOException {
+    assertEquals(source, null, Parser.validateSyntax(source));
     {
       Script node = Parser.parse(source);
       String jsonString = Serializer.serialize(node);
@@ -616,6 +1138,10 @@ public class ParserTest extends TestBase {
       assertEquals(column, jsError.getColumn());
       assertEquals(index, jsError.getIndex());
 
+      JsError validationError = Parser.validateSyntax(source);
+      assert validationError != null;
+      assertEquals(error, validationError.getDescription());
+      assertEquals(index, validationError.getIndex());
       return;
     }
     fail("Parsing error not found");
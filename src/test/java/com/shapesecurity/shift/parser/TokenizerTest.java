@@ -17,17 +17,24 @@
 package com.shapesecurity.shift.parser;
 
 import com.shapesecurity.shift.TestBase;
+import com.shapesecurity.shift.ast.SourceLocation;
+import com.shapesecurity.shift.ast.Statement;
+import com.shapesecurity.shift.parser.token.NumericLiteralToken;
+import com.shapesecurity.shift.parser.token.StringLiteralToken;
 import com.shapesecurity.shift.utils.Utils;
 
 import org.junit.Test;
 
 import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Random;
 
 public class TokenizerTest extends TestBase {
   public static final double NANOS_TO_SECONDS = 1e-9;
@@ -197,6 +204,8 @@ public class TokenizerTest extends TestBase {
     testRegExp("var function () {} /42/g", true);
     testRegExp("null function () {} /42/g", true);
     testRegExp("'use strict'\n function () {} /42/g", true);
+    testRegExp("= /42", false);
+    testRegExp("= /[42", false);
   }
 
   @Test
@@ -238,6 +247,7 @@ public class TokenizerTest extends TestBase {
     testFailure("1.e+");
     testFailure("1.e+z");
     testFailure("/\\\n42");
+    testFailure("/\\");
     testFailure("0x");
     testFailure("0xz");
     testFailure("0x1z");
@@ -279,6 +289,155 @@ public class TokenizerTest extends TestBase {
     }
   }
 
+  private void assertCompactMatches(String source) throws JsError {
+    ArrayList<Token> tokens = Tokenizer.tokenize(source);
+    TokenBuffer buffer = Tokenizer.tokenizeCompact(source);
+    assertEquals(tokens.size(), buffer.size());
+    TokenBuffer.Cursor cursor = buffer.cursor();
+    for (Token token : tokens) {
+      assertEquals(true, cursor.next());
+      assertEquals(token.type, cursor.type());
+      assertEquals(token.slice.start, cursor.start());
+      assertEquals(token.slice.end, cursor.end());
+      assertEquals(token.octal, cursor.isOctal());
+    }
+    assertEquals(false, cursor.next());
+  }
+
+  @Test
+  public void testTokenizeCompact() throws IOException, JsError {
+    assertCompactMatches("");
+    assertCompactMatches("a = 012 + '\\01' / 2 /g; if (x) /42/g; (function(){} / 1); x = function(){} /42/g");
+    assertCompactMatches("\\u0076ar x = null, y = true || false; /* c */ // d\n 0x1F .5e-3");
+    TokenBuffer buffer = Tokenizer.tokenizeCompact("a\nb");
+    assertEquals(false, buffer.hasLineTerminatorBefore(0));
+    assertEquals(true, buffer.hasLineTerminatorBefore(1));
+    for (String jsLib : Arrays.asList("angular-1.2.5.min.js", "everything-0.0.4.js", "jquery.mobile.min-1.4.3.js")) {
+      assertCompactMatches(readLibrary(jsLib));
+    }
+  }
+
+  private void assertStatementLocations(String source, int... expected) throws JsError {
+    int i = 0;
+    for (Statement statement : Parser.parseWithLocation(source).body.getStatements()) {
+      SourceLocation loc = statement.getLoc();
+      assert loc != null;
+      assertEquals(expected[i++], loc.line);
+      assertEquals(expected[i++], loc.column);
+      assertEquals(expected[i++], loc.offset);
+    }
+    assertEquals(expected.length, i);
+  }
+
+  @Test
+  public void testComments() throws JsError {
+    assertStatementLocations("/* a\r\n b \u2028 */ x; // c\u2029 y", 2, 4, 14, 3, 1, 23);
+    assertStatementLocations("a // b\r\n<!-- c\n--> d\n/**/ b", 0, 0, 0, 3, 5, 26);
+    assertStatementLocations("/*\r*/ a // end", 1, 3, 6);
+    assertStatementLocations("/* \u00e9\u2028 */\tx", 1, 4, 9);
+  }
+
+  private static double numericValue(String source) throws JsError {
+    return ((NumericLiteralToken) Tokenizer.tokenize(source).get(0)).value;
+  }
+
+  private static String randomDigits(Random random, int count, int radix) {
+    StringBuilder digits = new StringBuilder();
+    for (int i = 0; i < count; i++) {
+      digits.append(Character.forDigit(random.nextInt(radix), radix));
+    }
+    return digits.toString();
+  }
+
+  @Test
+  public void testNumericLiterals() throws JsError {
+    assertEquals(0.0, numericValue("0"));
+    assertEquals(0.0, numericValue("0.e5"));
+    assertEquals(0.5, numericValue(".5"));
+    assertEquals(5.0, numericValue("5."));
+    assertEquals(255.0, numericValue("0xFf"));
+    assertEquals(8.0, numericValue("010"));
+    assertEquals(9007199254740993.0, numericValue("9007199254740993"));
+    assertEquals(1e23, numericValue("1e23"));
+    assertEquals(0.1, numericValue("0.1"));
+    assertEquals(Double.POSITIVE_INFINITY, numericValue("1e400"));
+    assertEquals(0.0, numericValue("1e-400"));
+
+    // Every value is that of the exact decimal or integer, rounded once.
+    Random random = new Random(42);
+    for (int i = 0; i < 100000; i++) {
+      String literal;
+      double expected;
+      switch (i % 4) {
+      case 0:
+        literal = (1 + random.nextInt(9)) + randomDigits(random, random.nextInt(25), 10);
+        expected = new BigDecimal(literal).doubleValue();
+        break;
+      case 1:
+        String integer = (1 + random.nextInt(9)) + randomDigits(random, random.nextInt(12), 10);
+        integer = random.nextBoolean() ? "" : integer;
+        String exponent = random.nextBoolean() ? "" : "e" + (random.nextBoolean() ? "-" : "") + random.nextInt(40);
+        literal = integer + "." + randomDigits(random, 1 + random.nextInt(20), 10) + exponent;
+        expected = new BigDecimal(literal).doubleValue();
+        break;
+      case 2:
+        String hex = randomDigits(random, 1 + random.nextInt(24), 16);
+        literal = "0x" + hex;
+        expected = new BigInteger(hex, 16).doubleValue();
+        break;
+      default:
+        String octal = randomDigits(random, 1 + random.nextInt(28), 8);
+        literal = "0" + octal;
+        expected = new BigInteger(octal, 8).doubleValue();
+        break;
+      }
+      assertEquals(literal, Double.doubleToRawLongBits(expected), Double.doubleToRawLongBits(numericValue(literal)));
+    }
+  }
+
+  @Test
+  public void testStringLiterals() throws JsError {
+    StringLiteralToken token = (StringLiteralToken) Tokenizer.tokenize("'abc'").get(0);
+    assertEquals(true, token.isDecoded());
+    assertEquals("abc", token.getValueString().toString());
+
+    token = (StringLiteralToken) Tokenizer.tokenize("'a\\x62\\u0063\\144\\\nefg'").get(0);
+    assertEquals(false, token.isDecoded());
+    assertEquals("abcdefg", token.getValueString().toString());
+    assertEquals(true, token.isDecoded());
+
+    assertEquals("\0\b\f\n\r\t\u000b'\"q", Utils.unescapeStringLiteral("'\\0\\b\\f\\n\\r\\t\\v\\'\\\"\\q'"));
+    assertEquals("\u00ff\u0001\u00208", Utils.unescapeStringLiteral("'\\377\\1\\408'"));
+    assertEquals("ab", Utils.unescapeStringLiteral("\"a\\\r\nb\""));
+    assertEquals("ab", Utils.unescapeStringLiteral("\"a\\\u2028b\""));
+  }
+
+  @Test
+  public void testKeywords() throws JsError {
+    assertEquals(TokenType.INSTANCEOF, Tokenizer.tokenize("instanceof").get(0).type);
+    assertEquals(TokenType.FUTURE_RESERVED_WORD, Tokenizer.tokenize("enum").get(0).type);
+    assertEquals(TokenType.LET, Tokenizer.tokenize("let").get(0).type);
+    assertEquals(TokenType.FALSE_LITERAL, Tokenizer.tokenize("false").get(0).type);
+    assertEquals(TokenType.IDENTIFIER, Tokenizer.tokenize("private").get(0).type);
+    assertEquals(TokenType.IDENTIFIER, Tokenizer.tokenize("eval").get(0).type);
+    assertEquals(TokenType.IDENTIFIER, Tokenizer.tokenize("fals").get(0).type);
+    assertEquals(TokenType.IDENTIFIER, Tokenizer.tokenize("breaks").get(0).type);
+    assertEquals(TokenType.IDENTIFIER, Tokenizer.tokenize("\u00e9lse").get(0).type);
+
+    assertEquals(true, Utils.isReservedWordES5("const"));
+    assertEquals(false, Utils.isReservedWordES5("null"));
+    assertEquals(false, Utils.isReservedWordES5("yield"));
+    assertEquals(true, Utils.isStrictModeReservedWordES5("yield"));
+    assertEquals(true, Utils.isStrictModeReservedWordES5("private"));
+    assertEquals(true, Utils.isStrictModeReservedWordES5("while"));
+    assertEquals(false, Utils.isStrictModeReservedWordES5("eval"));
+    assertEquals(true, Utils.isRestrictedWord("arguments"));
+    assertEquals(false, Utils.isRestrictedWord("argument"));
+    assertEquals(0, Keywords.getFlags(""));
+    assertEquals(0, Keywords.getFlags("x"));
+    assertEquals(Keywords.STRICT_RESERVED, Keywords.getFlags("let"));
+  }
+
   @Test
   public void testLibrary() throws IOException, JsError {
     setFatal(false); // Collect the failures in an ErrorCollector
@@ -238,7 +238,7 @@ public class Serializer implements Reducer<StringBuilder> {
   @Override
   public StringBuilder reduceLiteralStringExpression(
       @NotNull LiteralStringExpression node, @NotNull List<Branch> path) {
-    return b("LiteralStringExpression").add("value", node.value).done(node);
+    return b("LiteralStringExpression").add("value", node.getValue()).done(node);
   }
 
   @NotNull